@@ -0,0 +1,220 @@
+package gov.nasa.podaac.forge;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a Cumulus message which Forge needs, read with a streaming parser rather than as a tree of the whole
+ * message.
+ * <p>
+ * Only the collection name, the execution name, and the id and files of each granule are kept. The output message is
+ * written by streaming the input message through again, and adding the new files of each granule to the end of its
+ * files array, so the rest of the message is copied without being held in memory as a tree.
+ */
+public class CumulusMessage {
+
+    private static final String FILES_PATH = "input.granules[].files";
+    private static final String GRANULE_PATH = "input.granules[]";
+
+    private final Gson gson = new Gson();
+    private String collectionName;
+    private String executionName;
+    private final List<Granule> granules = new ArrayList<>();
+    private int granuleIndex;
+
+    private CumulusMessage() {
+    }
+
+    /**
+     * Read the fields Forge needs from a Cumulus message.
+     *
+     * @param in Reads the message, and is left open
+     * @return The message
+     */
+    public static CumulusMessage read(Reader in) throws IOException {
+        CumulusMessage message = new CumulusMessage();
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        message.readValue(reader, "");
+        return message;
+    }
+
+    private void readValue(JsonReader reader, String path) throws IOException {
+        switch (path) {
+            case "config.collection.name":
+                collectionName = readString(reader);
+                return;
+            case "config.execution_name":
+                executionName = readString(reader);
+                return;
+            case "input.granules[].granuleId":
+                granules.get(granules.size() - 1).granuleId = readString(reader);
+                return;
+            case FILES_PATH + "[]":
+                // parseReader is lenient only for this value and then restores the reader's own leniency
+                JsonElement file = JsonParser.parseReader(reader);
+                if (file.isJsonObject()) {
+                    granules.get(granules.size() - 1).files.add(file.getAsJsonObject());
+                }
+                return;
+            default:
+                break;
+        }
+        if (!isOnPath(path)) {
+            reader.skipValue();
+            return;
+        }
+
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            if (path.equals(GRANULE_PATH)) {
+                granules.add(new Granule());
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                readValue(reader, path.isEmpty() ? name : path + "." + name);
+            }
+            reader.endObject();
+        } else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readValue(reader, path + "[]");
+            }
+            reader.endArray();
+        } else {
+            reader.skipValue();
+        }
+    }
+
+    /**
+     * Check whether the given path leads towards any of the fields which are read.
+     */
+    private static boolean isOnPath(String path) {
+        return path.isEmpty() || path.equals("config") || path.equals("config.collection") ||
+                path.equals("input") || path.equals("input.granules") || path.equals(GRANULE_PATH) ||
+                path.equals(FILES_PATH);
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Write the message, with the files added to each granule, by copying the given input message.
+     *
+     * @param in  Reads the input message this message was read from, and is left open
+     * @param out Receives the output message, and is flushed but left open
+     */
+    public void write(Reader in, Writer out) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        JsonWriter writer = new JsonWriter(out);
+        writer.setSerializeNulls(true);
+        granuleIndex = 0;
+        copyValue(reader, writer, "");
+        writer.flush();
+    }
+
+    private void copyValue(JsonReader reader, JsonWriter writer, String path) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    writer.name(name);
+                    copyValue(reader, writer, path.isEmpty() ? name : path + "." + name);
+                }
+                reader.endObject();
+                writer.endObject();
+                if (path.equals(GRANULE_PATH)) {
+                    granuleIndex++;
+                }
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copyValue(reader, writer, path + "[]");
+                }
+                if (path.equals(FILES_PATH) && granuleIndex < granules.size()) {
+                    for (JsonObject file : granules.get(granuleIndex).addedFiles) {
+                        gson.toJson(file, writer);
+                    }
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+            case NUMBER:
+                // Numbers are copied as written, so no precision is lost
+                writer.jsonValue(reader.nextString());
+                break;
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                throw new IOException("Unexpected " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public String getExecutionName() {
+        return executionName;
+    }
+
+    public List<Granule> getGranules() {
+        return granules;
+    }
+
+    /**
+     * A granule in the message.
+     */
+    public static class Granule {
+        private String granuleId;
+        private final List<JsonObject> files = new ArrayList<>();
+        private final List<JsonObject> addedFiles = new ArrayList<>();
+
+        public String getGranuleId() {
+            return granuleId;
+        }
+
+        /**
+         * @return The files of the granule in the input message
+         */
+        public List<JsonObject> getFiles() {
+            return files;
+        }
+
+        /**
+         * Add a file to the granule, which is written at the end of its files array in the output message.
+         */
+        public void addFile(JsonObject file) {
+            addedFiles.add(file);
+        }
+    }
+}
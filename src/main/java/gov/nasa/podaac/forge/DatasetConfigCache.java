@@ -0,0 +1,107 @@
+package gov.nasa.podaac.forge;
+
+import gov.nasa.podaac.forge.pojo.DatasetConfig;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds parsed dataset configs in memory, keyed by collection name, so warm invocations can skip fetching and parsing
+ * the config of a collection they have already seen.
+ * <p>
+ * A config is used as is until its time to live runs out. It is then revalidated with the ETag it was fetched with,
+ * and only fetched and parsed again if the source reports that it has changed.
+ */
+public class DatasetConfigCache {
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttlMillis How long a config is used before it is revalidated, in milliseconds
+     */
+    public DatasetConfigCache(long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis);
+    }
+
+    DatasetConfigCache(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the dataset config of the given collection, loading it if it is not cached, and revalidating it if it has
+     * expired.
+     *
+     * @param collectionName The name of the collection
+     * @param loader         Loads the config from its source
+     * @return The dataset config
+     */
+    public DatasetConfig get(String collectionName, Loader loader) throws IOException {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(collectionName);
+        if (entry != null && now < entry.expires) {
+            return entry.config;
+        }
+
+        Loaded loaded = loader.load(collectionName, entry != null ? entry.etag : null);
+        if (loaded == null) {
+            if (entry == null) {
+                throw new IOException("Dataset config for " + collectionName + " was reported unchanged but is not cached");
+            }
+            entry = new Entry(entry.config, entry.etag, now + ttlMillis);
+        } else {
+            entry = new Entry(loaded.config, loaded.etag, now + ttlMillis);
+        }
+        entries.put(collectionName, entry);
+        return entry.config;
+    }
+
+    /**
+     * Remove every config from the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Loads a dataset config from its source, such as S3 or a URL.
+     */
+    public interface Loader {
+
+        /**
+         * @param collectionName The name of the collection
+         * @param etag           The ETag of the cached config, or null if it is not cached or had no ETag
+         * @return The config and its ETag, or null if the config still matches the given ETag
+         */
+        Loaded load(String collectionName, String etag) throws IOException;
+    }
+
+    /**
+     * A dataset config fetched from its source, with the ETag it was served with, which may be null.
+     */
+    public static class Loaded {
+        private final DatasetConfig config;
+        private final String etag;
+
+        public Loaded(DatasetConfig config, String etag) {
+            this.config = config;
+            this.etag = etag;
+        }
+    }
+
+    private static class Entry {
+        private final DatasetConfig config;
+        private final String etag;
+        private final long expires;
+
+        Entry(DatasetConfig config, String etag, long expires) {
+            this.config = config;
+            this.etag = etag;
+            this.expires = expires;
+        }
+    }
+}
@@ -2,38 +2,59 @@ package gov.nasa.podaac.forge;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.google.gson.JsonParser;
+import com.amazonaws.services.s3.model.S3Object;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.Gson;
 import cumulus_message_adapter.message_parser.AdapterLogger;
 import cumulus_message_adapter.message_parser.ITask;
 import cumulus_message_adapter.message_parser.MessageAdapterException;
 import cumulus_message_adapter.message_parser.MessageParser;
+import gov.nasa.podaac.forge.io.ParallelRangeDownloader;
+import gov.nasa.podaac.forge.io.RangedRandomAccessFile;
+import gov.nasa.podaac.forge.pojo.DatasetConfig;
+import gov.nasa.podaac.forge.strategy.FootprintStrategy;
+import gov.nasa.podaac.forge.io.S3RangeReader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.apache.logging.log4j.Level;
 import ucar.ma2.InvalidRangeException;
+import ucar.unidata.io.RandomAccessFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,8 +63,13 @@ import java.util.regex.Pattern;
  * Cumulus task for performing footprint operation on a granule.
  */
 public class FootprintHandler implements ITask, RequestHandler<String, String> {
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int DEFAULT_GRANULE_CONCURRENCY = 4;
+    private static final int DEFAULT_LOG_MESSAGE_MAX_LENGTH = 4096;
     private final String className = this.getClass().getName();
     private final String region = System.getenv("REGION");
+    private static volatile AmazonS3 sharedS3Client;
+    private static volatile DatasetConfigCache sharedDatasetConfigCache;
     
     /**
      * This function is called when the lambda is invoked
@@ -53,7 +79,7 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
     public String handleRequest(String input, Context context) {
         MessageParser parser = new MessageParser();
         try {
-            AdapterLogger.LogInfo(className + " handleRequest is called with message: " + input);
+            AdapterLogger.LogInfo(className + " handleRequest is called with message: " + summarize(input));
             return parser.RunCumulusTask(input, context, this);
         } catch (MessageAdapterException mae) {
             AdapterLogger.LogError(className + " handleRequest calling parser exception" + mae);
@@ -84,7 +110,7 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
 
         MessageParser parser = new MessageParser();
         String input = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-        AdapterLogger.LogInfo(className + " handleRequestStreams is called with message: " + input);
+        AdapterLogger.LogInfo(className + " handleRequestStreams is called with message: " + summarize(input));
         String output = null;
         try{
             output = parser.RunCumulusTask(input, context, this);
@@ -92,7 +118,7 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
         finally{
             clean();
         }
-        AdapterLogger.LogInfo(className + " handleRequestStreams output: " + output);
+        AdapterLogger.LogInfo(className + " handleRequestStreams output: " + summarize(output));
         outputStream.write(output.getBytes(StandardCharsets.UTF_8));
     }
     
@@ -102,23 +128,19 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
      * @return The input message augmented with the newly calculated footprint, and serialized as a String.
      */
     public String PerformFunction(String input, Context context) {
-
-        String granuleFileAbsolutePath = null;
-        String datasetConfigFileAbsolutePath;
         
-        AdapterLogger.LogInfo(className + " entered PerformFunction with input: " + input);
-        JsonElement jsonElement = new JsonParser().parse(input);
-        JsonObject inputKey = jsonElement.getAsJsonObject();
+        AdapterLogger.LogInfo(className + " entered PerformFunction with input: " + summarize(input));
+        // Only the fields Forge needs are parsed, rather than the whole message
+        CumulusMessage message;
+        try {
+            message = CumulusMessage.read(new StringReader(input));
+        } catch (IOException | JsonParseException e) {
+            throw new FootprintHandlerException("Error reading Cumulus message", e);
+        }
         
         // Parse config values
-        JsonObject config = inputKey.getAsJsonObject("config");
-        String collectionName = config.getAsJsonObject("collection").get("name").getAsString();
-        String executionName = config.get("execution_name").getAsString();
-        
-        JsonArray granules = inputKey.getAsJsonObject("input").getAsJsonArray("granules");
-        JsonObject granule = granules.get(0).getAsJsonObject();
-        String granuleId = granule.get("granuleId").getAsString();
-        JsonArray files = granule.get("files").getAsJsonArray();
+        String collectionName = message.getCollectionName();
+        String executionName = message.getExecutionName();
         
         String workingDir;
         try {
@@ -127,93 +149,239 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
             throw new FootprintHandlerException("Error creating temporary working directory", exception);
         }
         
-        /*
-        Looping through the files array to find
-        - data file
-        - dataset-config file
-         */
-        
-        for (int i = 0; i < files.size(); i++) {
-            String type = files.get(i).getAsJsonObject().get("type").getAsString();
-            String granuleFileName = files.get(i).getAsJsonObject().get("fileName").getAsString();
-            if (StringUtils.equalsAnyIgnoreCase(type, "data")) {
-                String sourceBucket = files.get(i).getAsJsonObject().get("bucket").getAsString();
-                String key = files.get(i).getAsJsonObject().get("key").getAsString();
-
-                AdapterLogger.LogInfo(this.className + " trying to get granule file from bucket: " + sourceBucket +
-                        " key: " + key + "to workingDir: " + workingDir + " as filename: " + granuleFileName);
-                granuleFileAbsolutePath = getGranuleFile(sourceBucket, key, workingDir, granuleFileName);
-                break;
+        // Warm containers reuse the parsed config of a collection while it is unchanged
+        DatasetConfig datasetConfig;
+        DatasetConfigCache datasetConfigCache = getDatasetConfigCache();
+        try {
+            if (datasetConfigCache != null) {
+                datasetConfig = datasetConfigCache.get(collectionName, this::loadDatasetConfig);
+            } else {
+                datasetConfig = new Footprinter().parseConfig(fetchDatasetConfigFile(workingDir, collectionName));
             }
+        } catch (IOException | JsonParseException e) {
+            throw new FootprintHandlerException("Error reading dataset config", e);
         }
-        
+
+        // Fixed footprints come from the dataset config, so the granule itself is not needed
+        boolean fixedFootprint = isFixedFootprint(datasetConfig);
+
         /*
-         * Get dataset config file bucket name set as environment variable in LAMBDA terraform definition
-         * ex:
-         * CONFIG_BUCKET=my-internal
-         * CONFIG_DIR = dataset-configs
-         * real values maybe set in environment.tfvars
+        Looping through the granules to find every data file. A fixed footprint is the same for every data file, so
+        only the first data file of each granule is used.
          */
-        
-        String datasetConfigBucketName = this.getDatasetConfigBucketName();
-        String datasetConfigDirectory = this.getDatasetConfigDirectory();
-        String datasetConfigURL = this.getDatasetConfigURL();
-
-        if(datasetConfigURL != null){
-            try{
-                datasetConfigFileAbsolutePath = downloadFromURL(datasetConfigURL, workingDir, collectionName);
+        List<CumulusMessage.Granule> footprintGranules = new ArrayList<>();
+        List<Callable<JsonObject>> tasks = new ArrayList<>();
+        for (CumulusMessage.Granule granule : message.getGranules()) {
+            String granuleId = granule.getGranuleId();
+            List<JsonObject> dataFiles = new ArrayList<>();
+            for (JsonObject file : granule.getFiles()) {
+                if (StringUtils.equalsAnyIgnoreCase(file.get("type").getAsString(), "data")) {
+                    dataFiles.add(file);
+                }
             }
-            catch(IOException ioe){
-                throw new FootprintHandlerException("Error when downloading configuration file", ioe);
+            if (dataFiles.isEmpty()) {
+                // Only a fixed footprint can be generated without a data file, and the batch is checked before any
+                // task starts, so no footprint files are uploaded for a message which cannot be processed
+                if (!fixedFootprint) {
+                    FileUtils.deleteQuietly(new File(workingDir));
+                    throw new FootprintHandlerException("Granule " + granuleId + " has no data file to footprint",
+                            new IllegalArgumentException("No file of type 'data' in granule " + granuleId));
+                }
+                dataFiles.add(null);
+            }
+            int dataFileCount = fixedFootprint ? 1 : dataFiles.size();
+            for (int j = 0; j < dataFileCount; j++) {
+                JsonObject dataFile = dataFiles.get(j);
+                int index = j;
+                footprintGranules.add(granule);
+                tasks.add(() -> footprintDataFile(dataFile, index, granuleId, collectionName, executionName,
+                        datasetConfig, fixedFootprint));
             }
         }
-        else if(datasetConfigBucketName != null && datasetConfigDirectory != null){
-            datasetConfigFileAbsolutePath = getDatasetConfigFile(datasetConfigBucketName, datasetConfigDirectory,
-                                                                 workingDir, collectionName);
+        
+        List<JsonObject> footprintFiles = runAll(tasks);
+        for (int i = 0; i < footprintFiles.size(); i++) {
+            // build new file json object and add to the files array of its granule
+            footprintGranules.get(i).addFile(footprintFiles.get(i));
         }
-        else{
-            Exception r = new NullPointerException("Configuration env is null");
-            throw new FootprintHandlerException("Environment variable to get configuration files were not set", r);
+
+        try {
+            // clean up working directory:
+            FileUtils.forceDelete(new File(workingDir));
+        } catch (IOException ioe) {
+            throw new FootprintHandlerException("Error cleaning up working directory: ", ioe);
         }
 
-        /*
-        Perform footprint operation
-         */
-        Map<String, String> footprintExtend;
+        // The new footprint files are spliced into a copy of the input message
+        StringWriter output = new StringWriter(input.length() + 512 * footprintFiles.size());
         try {
-            Footprinter footprinter = new Footprinter(granuleFileAbsolutePath, datasetConfigFileAbsolutePath);
-            footprintExtend = footprinter.footprint();
-        } catch (FootprintException | IOException | InvalidRangeException e) {
-            throw new FootprintHandlerException("Error processing granule", e);
+            message.write(new StringReader(input), output);
+        } catch (IOException | JsonParseException e) {
+            throw new FootprintHandlerException("Error writing Cumulus message", e);
         }
-        
-        /*
-        Store footprint operation results in output Json
-         */
-        JsonObject outputFPJsonObj = new JsonObject();
-        AdapterLogger.LogInfo(this.className + " FOOTPRINT: " + footprintExtend.get("FOOTPRINT"));
-        AdapterLogger.LogInfo(this.className + " EXTENT: " + footprintExtend.get("EXTENT"));
-        outputFPJsonObj.addProperty("FOOTPRINT", footprintExtend.get("FOOTPRINT"));
-        outputFPJsonObj.addProperty("EXTENT", footprintExtend.get("EXTENT"));
-        String outputFPStr = new Gson().toJson(outputFPJsonObj);
-        AdapterLogger.LogInfo(this.className + " footprint file content: " + outputFPStr);
+        String outputStr = output.toString();
+        AdapterLogger.LogInfo(this.className + " output string:" + summarize(outputStr));
+        return outputStr;
+    }
+
+    /**
+     * Run the given tasks on a bounded executor, so the download, footprint and upload of different data files
+     * overlap. A single task is run on the calling thread.
+     *
+     * @return The results of the tasks, in the order of the tasks
+     */
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() == 1) {
+            try {
+                results.add(tasks.get(0).call());
+                return results;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new FootprintHandlerException("Error processing granule", e);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(tasks.size(),
+                getGranuleConcurrency())));
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FootprintHandlerException("Error processing granule", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FootprintHandlerException("Interrupted while processing granules", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
+    /**
+     * Read a data file, generate its footprint, and upload the footprint file. Each data file is staged in its own
+     * working directory, which is removed once the footprint file is uploaded.
+     *
+     * @param file           the data file of the granule, or null if the granule has none
+     * @param index          the index of the data file in its granule
+     * @param granuleId      the id of the granule
+     * @param collectionName the name of the collection
+     * @param executionName  the name of the workflow execution
+     * @param datasetConfig  the dataset config of the collection
+     * @param fixedFootprint whether the footprint comes from the dataset config rather than the data file
+     * @return The footprint file json object to add to the files array of the granule
+     */
+    private JsonObject footprintDataFile(JsonObject file, int index, String granuleId, String collectionName,
+                                         String executionName, DatasetConfig datasetConfig, boolean fixedFootprint)
+            throws IOException {
+        String workingDir = createWorkDir();
         try {
-            // outputFootprint file and upload to S3.
-            long fileSize = outputFootprint(workingDir, collectionName, granuleId, outputFPStr, executionName);
+            String granuleFileAbsolutePath = null;
+            String granuleFileName = null;
+            byte[] granuleBytes = null;
+            RandomAccessFile granuleRaf = null;
+            if (file != null) {
+                granuleFileName = file.get("fileName").getAsString();
+            }
+            if (file != null && fixedFootprint) {
+                AdapterLogger.LogInfo(this.className + " using fixed footprint, granule file not read: " +
+                        granuleFileName);
+                granuleFileAbsolutePath = granuleFileName;
+            } else if (file != null) {
+                String sourceBucket = file.get("bucket").getAsString();
+                String key = file.get("key").getAsString();
+
+                // Granules are either read in place with ranged reads, or if small enough read straight into
+                // memory, rather than being staged on disk
+                if (isGranuleRangedRead()) {
+                    AdapterLogger.LogInfo(this.className + " reading granule in place from bucket: " + sourceBucket +
+                            " key: " + key);
+                    granuleRaf = openGranuleRanged(sourceBucket, key);
+                } else {
+                    long inMemoryMaxSize = getGranuleInMemoryMaxSize();
+                    if (inMemoryMaxSize > 0) {
+                        JsonElement sizeElement = file.get("size");
+                        long granuleSize = sizeElement != null && !sizeElement.isJsonNull() ?
+                                sizeElement.getAsLong() : getObjectSize(sourceBucket, key);
+                        if (granuleSize <= Math.min(inMemoryMaxSize, MAX_ARRAY_SIZE)) {
+                            AdapterLogger.LogInfo(this.className + " reading granule of " + granuleSize +
+                                    " bytes into memory from bucket: " + sourceBucket + " key: " + key);
+                            granuleBytes = getGranuleBytes(sourceBucket, key);
+                        }
+                    }
+                    if (granuleBytes == null) {
+                        AdapterLogger.LogInfo(this.className + " trying to get granule file from bucket: " +
+                                sourceBucket + " key: " + key + "to workingDir: " + workingDir + " as filename: " +
+                                granuleFileName);
+                        granuleFileAbsolutePath = getGranuleFile(sourceBucket, key, workingDir, granuleFileName);
+                    }
+                }
+            }
+
+            /*
+            Perform footprint operation
+             */
+            Map<String, String> footprintExtend;
+            Map<String, JsonElement> footprintJsonOutputs;
+            try {
+                Footprinter footprinter;
+                if (granuleRaf != null) {
+                    footprinter = new Footprinter(granuleFileName, granuleRaf, datasetConfig);
+                } else if (granuleBytes != null) {
+                    footprinter = new Footprinter(granuleFileName, granuleBytes, datasetConfig);
+                } else {
+                    footprinter = new Footprinter(granuleFileAbsolutePath, datasetConfig);
+                }
+                footprintExtend = footprinter.footprint();
+                footprintJsonOutputs = footprinter.getJsonOutputs();
+            } catch (FootprintException | IOException | InvalidRangeException e) {
+                throw new FootprintHandlerException("Error processing granule", e);
+            }
+
+            /*
+            Store footprint operation results in output Json
+             */
+            JsonObject outputFPJsonObj = new JsonObject();
+            AdapterLogger.LogInfo(this.className + " FOOTPRINT: " + summarize(footprintExtend.get("FOOTPRINT")));
+            AdapterLogger.LogInfo(this.className + " EXTENT: " + summarize(footprintExtend.get("EXTENT")));
+            outputFPJsonObj.addProperty("FOOTPRINT", footprintExtend.get("FOOTPRINT"));
+            outputFPJsonObj.addProperty("EXTENT", footprintExtend.get("EXTENT"));
+            // Optional outputs are JSON values rather than strings
+            for (Map.Entry<String, JsonElement> output : footprintJsonOutputs.entrySet()) {
+                outputFPJsonObj.add(output.getKey(), output.getValue());
+            }
+            String outputFPStr = new Gson().toJson(outputFPJsonObj);
+            AdapterLogger.LogInfo(this.className + " footprint file content: " + summarize(outputFPStr));
+
+            try {
+                // outputFootprint file and upload to S3.
+                String fileName = getFootprintFileName(granuleId, executionName, index);
+                long fileSize = outputFootprint(workingDir, collectionName, fileName, outputFPStr);
+                return createFootprintFileJsonObj(fileSize, collectionName, fileName);
+            } catch (IOException ioe) {
+                throw new FootprintHandlerException("Error output footprint file and upload: ", ioe);
+            }
+        } finally {
             // clean up working directory:
-            FileUtils.forceDelete(new File(workingDir));
-            // build new file json object and add to files array
-            JsonObject extraFileObj = createFootprintFileJsonObj(fileSize, collectionName, granuleId, executionName);
-            inputKey.get("input").getAsJsonObject().get("granules").getAsJsonArray().get(0).getAsJsonObject()
-            .getAsJsonArray("files").add(extraFileObj);
-        } catch (IOException ioe) {
-            throw new FootprintHandlerException("Error output footprint file and upload: ", ioe);
+            FileUtils.deleteQuietly(new File(workingDir));
         }
+    }
 
-        String outputStr =  new Gson().toJson(inputKey);
-        AdapterLogger.LogInfo(this.className + " output string:" + outputStr);
-        return outputStr;
+    /**
+     * Get the name of the footprint file of a data file. The footprint of the first data file of a granule keeps the
+     * name used when only one data file was footprinted, and later data files add their index.
+     */
+    static String getFootprintFileName(String granuleId, String executionName, int index) {
+        return granuleId + "_" + executionName + (index > 0 ? "_" + index : "") + ".fp";
     }
 
     public void clean(){
@@ -236,6 +404,26 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
         AdapterLogger.LogInfo("tmp directory files length: " + files.length);
     }
 
+    /**
+     * Get the most characters of a message which are logged. Longer messages are cut off, and logged with their
+     * length, so large granule file lists do not flood the logs.
+     */
+    public int getLogMessageMaxLength(){
+        String maxLength = System.getenv("LOG_MESSAGE_MAX_LENGTH");
+        return StringUtils.isBlank(maxLength) ? DEFAULT_LOG_MESSAGE_MAX_LENGTH : Integer.parseInt(maxLength.trim());
+    }
+
+    /**
+     * Shorten a message for logging to at most {@link #getLogMessageMaxLength()} characters.
+     */
+    String summarize(String message) {
+        int maxLength = getLogMessageMaxLength();
+        if (message == null || maxLength <= 0 || message.length() <= maxLength) {
+            return message;
+        }
+        return message.substring(0, maxLength) + "... (" + message.length() + " characters)";
+    }
+
     public String getDatasetConfigBucketName(){
         return System.getenv("CONFIG_BUCKET");
     }
@@ -248,18 +436,226 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
         return System.getenv("CONFIG_URL");
     }
 
-    private JsonObject createFootprintFileJsonObj(long fileSize, String collectionName, String granuleId, String executionName) {
+    /**
+     * Get the number of seconds a parsed dataset config is reused before it is revalidated against its source. A
+     * value of 0 (the default) disables the cache.
+     */
+    public long getDatasetConfigCacheTtl(){
+        String ttl = System.getenv("CONFIG_CACHE_TTL_SECONDS");
+        return StringUtils.isBlank(ttl) ? 0 : Long.parseLong(ttl.trim());
+    }
+
+    /**
+     * Get the dataset config cache shared by every invocation in this container.
+     *
+     * @return The cache, or null if it is disabled
+     */
+    public DatasetConfigCache getDatasetConfigCache() {
+        long ttl = getDatasetConfigCacheTtl();
+        if (ttl <= 0) {
+            return null;
+        }
+        DatasetConfigCache cache = sharedDatasetConfigCache;
+        if (cache == null) {
+            synchronized (FootprintHandler.class) {
+                cache = sharedDatasetConfigCache;
+                if (cache == null) {
+                    cache = new DatasetConfigCache(ttl * 1000);
+                    sharedDatasetConfigCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Download the dataset config file of a collection from CONFIG_URL, or from CONFIG_BUCKET and CONFIG_DIR.
+     *
+     * @param workDir        the local directory to store the dataset config file
+     * @param collectionName the name of this collection, which is the name of the dataset config file
+     * @return The absolute path of the downloaded dataset config file
+     */
+    private String fetchDatasetConfigFile(String workDir, String collectionName) {
+        /*
+         * Get dataset config file bucket name set as environment variable in LAMBDA terraform definition
+         * ex:
+         * CONFIG_BUCKET=my-internal
+         * CONFIG_DIR = dataset-configs
+         * real values maybe set in environment.tfvars
+         */
+        String datasetConfigBucketName = this.getDatasetConfigBucketName();
+        String datasetConfigDirectory = this.getDatasetConfigDirectory();
+        String datasetConfigURL = this.getDatasetConfigURL();
+
+        if(datasetConfigURL != null){
+            try{
+                return downloadFromURL(datasetConfigURL, workDir, collectionName);
+            }
+            catch(IOException ioe){
+                throw new FootprintHandlerException("Error when downloading configuration file", ioe);
+            }
+        }
+        else if(datasetConfigBucketName != null && datasetConfigDirectory != null){
+            return getDatasetConfigFile(datasetConfigBucketName, datasetConfigDirectory, workDir, collectionName);
+        }
+        else{
+            Exception r = new NullPointerException("Configuration env is null");
+            throw new FootprintHandlerException("Environment variable to get configuration files were not set", r);
+        }
+    }
+
+    /**
+     * Load the dataset config of a collection for the {@link DatasetConfigCache}, from CONFIG_URL, or from
+     * CONFIG_BUCKET and CONFIG_DIR. The request is conditional on the given ETag, if any.
+     *
+     * @return The parsed config and its ETag, or null if the config is unchanged
+     */
+    private DatasetConfigCache.Loaded loadDatasetConfig(String collectionName, String etag) throws IOException {
+        String datasetConfigBucketName = this.getDatasetConfigBucketName();
+        String datasetConfigDirectory = this.getDatasetConfigDirectory();
+        String datasetConfigURL = this.getDatasetConfigURL();
+
+        if (datasetConfigURL != null) {
+            return loadDatasetConfigFromURL(datasetConfigURL + "/" + collectionName + ".cfg", etag);
+        } else if (datasetConfigBucketName != null && datasetConfigDirectory != null) {
+            return loadDatasetConfigFromS3(datasetConfigBucketName,
+                    Paths.get(datasetConfigDirectory, collectionName + ".cfg").toString(), etag);
+        } else {
+            Exception r = new NullPointerException("Configuration env is null");
+            throw new FootprintHandlerException("Environment variable to get configuration files were not set", r);
+        }
+    }
+
+    private DatasetConfigCache.Loaded loadDatasetConfigFromURL(String url, String etag) throws IOException {
+        URLConnection connection = new URL(url).openConnection();
+        HttpURLConnection httpConnection = connection instanceof HttpURLConnection ?
+                (HttpURLConnection) connection : null;
+        try {
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (httpConnection != null && httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // Drain and close the empty body, so the connection goes back to the keep-alive cache
+                try (InputStream body = connection.getInputStream()) {
+                    IOUtils.skip(body, Long.MAX_VALUE);
+                }
+                AdapterLogger.LogInfo(this.className + " dataset config unchanged: " + url);
+                return null;
+            }
+            try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+                AdapterLogger.LogInfo(this.className + " loading dataset config from url: " + url);
+                return new DatasetConfigCache.Loaded(new Footprinter().parseConfig(reader),
+                        connection.getHeaderField("ETag"));
+            }
+        } catch (IOException | RuntimeException e) {
+            // A connection left in an unknown state is closed rather than reused
+            if (httpConnection != null) {
+                httpConnection.disconnect();
+            }
+            throw e;
+        }
+    }
+
+    private DatasetConfigCache.Loaded loadDatasetConfigFromS3(String bucket, String key, String etag)
+            throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucket, key);
+        if (etag != null) {
+            request.setNonmatchingETagConstraints(Collections.singletonList(etag));
+        }
+        // The client returns no object when the ETag still matches
+        S3Object object = getS3Client().getObject(request);
+        if (object == null) {
+            AdapterLogger.LogInfo(this.className + " dataset config unchanged in bucket: " + bucket + " key: " + key);
+            return null;
+        }
+        try (S3Object s3Object = object;
+             Reader reader = new InputStreamReader(s3Object.getObjectContent(), StandardCharsets.UTF_8)) {
+            AdapterLogger.LogInfo(this.className + " loading dataset config from bucket: " + bucket + " key: " + key);
+            return new DatasetConfigCache.Loaded(new Footprinter().parseConfig(reader),
+                    s3Object.getObjectMetadata().getETag());
+        }
+    }
+
+    /**
+     * Check whether the dataset config uses the fixed footprint strategy, which does not read the granule.
+     *
+     * @return true if the footprint strategy is 'fixed'
+     */
+    private boolean isFixedFootprint(DatasetConfig datasetConfig) {
+        return datasetConfig.getFootprint() != null &&
+                datasetConfig.getFootprint().getStrategy() == FootprintStrategy.Strategy.FIXED;
+    }
+
+    /**
+     * Whether granules should be read in place from S3 with ranged reads, instead of being downloaded first.
+     */
+    public boolean isGranuleRangedRead(){
+        return Boolean.parseBoolean(System.getenv("GRANULE_RANGED_READ"));
+    }
+
+    /**
+     * Get the size in bytes below which granules are read into memory instead of being downloaded to disk. A value
+     * of 0 (the default) disables in-memory reads.
+     */
+    public long getGranuleInMemoryMaxSize(){
+        String maxSize = System.getenv("GRANULE_IN_MEMORY_MAX_SIZE");
+        return StringUtils.isBlank(maxSize) ? 0 : Long.parseLong(maxSize.trim());
+    }
+
+    /**
+     * Get the number of parts of a granule which are downloaded from S3 at once.
+     */
+    public int getDownloadConcurrency(){
+        String concurrency = System.getenv("DOWNLOAD_CONCURRENCY");
+        return StringUtils.isBlank(concurrency) ? ParallelRangeDownloader.DEFAULT_CONCURRENCY :
+                Integer.parseInt(concurrency.trim());
+    }
+
+    /**
+     * Get the number of data files which are footprinted at once.
+     */
+    public int getGranuleConcurrency(){
+        String concurrency = System.getenv("GRANULE_CONCURRENCY");
+        return StringUtils.isBlank(concurrency) ? DEFAULT_GRANULE_CONCURRENCY : Integer.parseInt(concurrency.trim());
+    }
+
+    /**
+     * Get the S3 client shared by every invocation in this container. It is built on first use, and keeps its pool
+     * of connections open between invocations, so warm invocations skip client setup and TLS handshakes.
+     */
+    public AmazonS3 getS3Client() {
+        AmazonS3 s3Client = sharedS3Client;
+        if (s3Client == null) {
+            synchronized (FootprintHandler.class) {
+                s3Client = sharedS3Client;
+                if (s3Client == null) {
+                    ClientConfiguration clientConfiguration = new ClientConfiguration()
+                            .withMaxConnections(Math.max(ClientConfiguration.DEFAULT_MAX_CONNECTIONS,
+                                    getDownloadConcurrency() * getGranuleConcurrency()))
+                            .withTcpKeepAlive(true);
+                    s3Client = AmazonS3ClientBuilder.standard()
+                            .withRegion(region)
+                            .withClientConfiguration(clientConfiguration)
+                            .build();
+                    sharedS3Client = s3Client;
+                }
+            }
+        }
+        return s3Client;
+    }
+
+    private JsonObject createFootprintFileJsonObj(long fileSize, String collectionName, String fileName) {
         JsonObject file = new JsonObject();
         String bucket = System.getenv().getOrDefault("FOOTPRINT_OUTPUT_BUCKET", "");
         String out_dir = System.getenv().getOrDefault("FOOTPRINT_OUTPUT_DIR", "");
-        String filepath = Paths.get(out_dir, collectionName, granuleId + "_" + executionName + ".fp").toString();
+        String filepath = Paths.get(out_dir, collectionName, fileName).toString();
         file.addProperty("bucket", bucket);
 
         // filename is s3 absolute path of the file
         file.addProperty("size", fileSize);
         file.addProperty("type", "metadata");
         file.addProperty("key", filepath);
-        file.addProperty("fileName", granuleId + "_" + executionName + ".fp");
+        file.addProperty("fileName", fileName);
         return file;
     }
     
@@ -282,29 +678,29 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
     /**
      * Create footprint file *.fp in working directory and upload to a environment setup
      * env_bucket_name and env_directory.   the fp file will be finally placed under
-     * s3://env_bucket_name/env_directory/collection_name/granuleId.fp.
+     * s3://env_bucket_name/env_directory/collection_name/fileName.
      * The fp file will then decoded and used in MetadataAggregator lambda to modify cmr.json and
      * post the new UMM-G to CMR.
      *
      * @param workingDir : the lambda/ECS working directory
      * @param collectionName : collection short name
-     * @param granuleId : granule id
+     * @param fileName : the name of the fp file
      * @param outJsonString: Json string including FOOTPRINT and EXTENT
-     * @return the absolute path of the created fp file - if no error.
+     * @return the size of the created fp file - if no error.
      */
 
-    private long outputFootprint(String workingDir, String collectionName, String granuleId,
-                                       String outJsonString, String executionName) throws IOException{
+    private long outputFootprint(String workingDir, String collectionName, String fileName,
+                                       String outJsonString) throws IOException{
         try {
             String footprintBucketName = System.getenv("FOOTPRINT_OUTPUT_BUCKET");
             String footprintDirectory = System.getenv("FOOTPRINT_OUTPUT_DIR");
             // wrote a local working directory
-            File f = new File(Paths.get(workingDir, granuleId + ".fp").toString());
+            File f = new File(Paths.get(workingDir, fileName).toString());
             FileUtils.writeStringToFile(f, outJsonString, StandardCharsets.UTF_8.name());
             long fileSize = f.length();
 
             upload(footprintBucketName,
-                    Paths.get(footprintDirectory, collectionName, granuleId + "_" + executionName +".fp").toString(),
+                    Paths.get(footprintDirectory, collectionName, fileName).toString(),
                     f.getAbsoluteFile());
             return fileSize;
         } catch (IOException ioe) {
@@ -325,7 +721,7 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
     }
     
     /**
-     * Download granule file from S3.
+     * Download granule file from S3. Large granules are fetched as parallel ranged parts.
      *
      * @param sourceBucket the bucket to retrieve the granule from
      * @param key          the key to the granule file
@@ -334,9 +730,56 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
      * @return The absolute path of the downloaded granule file
      */
     public String getGranuleFile(String sourceBucket, String key, String workDir, String granuleName) {
-        String fileNameWithAbsolutePath = download(sourceBucket, key, Paths.get(workDir, granuleName).toString());
-        AdapterLogger.LogInfo("Successfully downloaded granule file : " + fileNameWithAbsolutePath);
-        return fileNameWithAbsolutePath;
+        File file = new File(Paths.get(workDir, granuleName).toString());
+        try {
+            new ParallelRangeDownloader(ParallelRangeDownloader.DEFAULT_PART_SIZE, getDownloadConcurrency())
+                    .download(new S3RangeReader(getS3Client(), sourceBucket, key), file);
+        } catch (IOException ioe) {
+            throw new FootprintHandlerException("Error downloading granule file", ioe);
+        }
+        AdapterLogger.LogInfo("Successfully downloaded granule file : " + file.getAbsolutePath());
+        return file.getAbsolutePath();
+    }
+    
+    /**
+     * Read a granule file from S3 into memory. Large granules are fetched as parallel ranged parts.
+     *
+     * @param sourceBucket the bucket to retrieve the granule from
+     * @param key          the key to the granule file
+     * @return The contents of the granule file
+     */
+    public byte[] getGranuleBytes(String sourceBucket, String key) {
+        try {
+            byte[] granuleBytes = new ParallelRangeDownloader(ParallelRangeDownloader.DEFAULT_PART_SIZE,
+                    getDownloadConcurrency()).read(new S3RangeReader(getS3Client(), sourceBucket, key));
+            AdapterLogger.LogInfo("Successfully read granule file into memory : " + key);
+            return granuleBytes;
+        } catch (IOException ioe) {
+            throw new FootprintHandlerException("Error reading granule file into memory", ioe);
+        }
+    }
+    
+    /**
+     * Open a granule file in S3 for reading in place. Only the byte ranges which are read are fetched.
+     *
+     * @param sourceBucket the bucket to retrieve the granule from
+     * @param key          the key to the granule file
+     * @return A random access file over the granule file
+     */
+    public RandomAccessFile openGranuleRanged(String sourceBucket, String key) {
+        return new RangedRandomAccessFile("s3://" + sourceBucket + "/" + key,
+                new S3RangeReader(getS3Client(), sourceBucket, key));
+    }
+    
+    /**
+     * Get the size of an S3 object without downloading it.
+     *
+     * @param bucket the bucket the object is located in
+     * @param key    the key of the object
+     * @return The size of the object in bytes
+     */
+    public long getObjectSize(String bucket, String key) {
+        return getS3Client().getObjectMetadata(bucket, key).getContentLength();
     }
     
     /**
@@ -405,15 +848,9 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
     public String download(String bucket, String key, String outputFileAbsolutePath) {
         AdapterLogger.LogInfo(this.className + " Downloading from bucket: " + bucket + " key: " + key
                 + " outputFileAbsolutePath: " + outputFileAbsolutePath);
-        //TODO:  Of course we need to integration test this.
-        // Also, a discussion about passing region value in our just hardcode here.
-        AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-                .withRegion(region)
-                .build();
-        
         File file = new File(outputFileAbsolutePath);
         if (!StringUtils.isBlank(bucket) && !StringUtils.isBlank(key)) {
-            s3Client.getObject(new GetObjectRequest(
+            getS3Client().getObject(new GetObjectRequest(
                     bucket, key), file);
             return file.getAbsolutePath();
         } else {
@@ -431,9 +868,7 @@ public class FootprintHandler implements ITask, RequestHandler<String, String> {
      */
     public String upload(String bucket, String key, File file) {
         AdapterLogger.LogInfo("Uploading to bucket: " + bucket + " key: " + key + " file: " + file);
-        AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-                .withRegion(region)
-                .build();
+        AmazonS3 s3Client = getS3Client();
         String path = bucket + "/" + key;
         try {
             AdapterLogger.LogInfo(this.className + " Uploading an object: " + path);
@@ -2,9 +2,19 @@ package gov.nasa.podaac.forge;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
+import gov.nasa.podaac.forge.edge.DecodeKernel;
+import gov.nasa.podaac.forge.edge.EdgeExtractor;
+import gov.nasa.podaac.forge.edge.ValiditySearch;
+import gov.nasa.podaac.forge.geom.CellCovering;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.StreamingSimplifier;
+import gov.nasa.podaac.forge.geom.VertexBudgetSimplifier;
 import gov.nasa.podaac.forge.pojo.DatasetConfig;
 import gov.nasa.podaac.forge.pojo.FootprintConfig;
 import gov.nasa.podaac.forge.strategy.*;
@@ -15,11 +25,15 @@ import ucar.ma2.InvalidRangeException;
 import ucar.ma2.Range;
 import ucar.nc2.Attribute;
 import ucar.nc2.NetcdfFile;
+import ucar.nc2.NetcdfFiles;
 import ucar.nc2.Variable;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +45,8 @@ public class Footprinter {
     private static final Logger log = LoggerFactory.getLogger(Footprinter.class);
     private static final String EXTENT = "EXTENT";
     private static final String FOOTPRINT = "FOOTPRINT";
+    private static final String COVERING = "COVERING";
+    private static final String PYRAMID = "PYRAMID";
     private static final String FILL = "fill";
     private static final String SCALE = "scale";
     private static final String OFFSET = "offset";
@@ -38,11 +54,80 @@ public class Footprinter {
     private final Gson gson;
     private DatasetConfig datasetConfig;
     private String granuleFile;
+    private byte[] granuleBytes;
+    private ucar.unidata.io.RandomAccessFile granuleRaf;
+    private EdgeExtractor edgeExtractor;
+    private ValiditySearch validitySearch;
+    private final Map<String, JsonElement> jsonOutputs = new LinkedHashMap<>();
     
     public Footprinter(String granuleFile, String configFile) throws IOException {
+        this(granuleFile, (DatasetConfig) null);
+        this.datasetConfig = parseConfig(configFile);
+    }
+    
+    /**
+     * Create a footprinter from a dataset config which has already been parsed, such as one held in a
+     * {@link DatasetConfigCache}.
+     *
+     * @param granuleFile The path to the granule file
+     * @param datasetConfig The dataset configuration
+     */
+    public Footprinter(String granuleFile, DatasetConfig datasetConfig) {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.granuleFile = granuleFile;
-        this.datasetConfig = parseConfig(configFile);
+        this.datasetConfig = datasetConfig;
+    }
+    
+    /**
+     * Create a footprinter for a granule which has already been read into memory. The granule is opened from the
+     * given bytes, and nothing is written to disk.
+     *
+     * @param granuleName The name of the granule, used to identify it in logs and errors
+     * @param granuleBytes The contents of the granule file
+     * @param configFile The path to the dataset configuration file
+     */
+    public Footprinter(String granuleName, byte[] granuleBytes, String configFile) throws IOException {
+        this(granuleName, configFile);
+        this.granuleBytes = granuleBytes;
+    }
+    
+    /**
+     * Create a footprinter for a granule which is read in place, through the given random access file, rather than
+     * downloaded first. The file is closed when the footprint operation completes.
+     *
+     * @param granuleName The name of the granule, used to identify it in logs and errors
+     * @param granuleRaf Reads the contents of the granule file
+     * @param configFile The path to the dataset configuration file
+     */
+    public Footprinter(String granuleName, ucar.unidata.io.RandomAccessFile granuleRaf, String configFile)
+            throws IOException {
+        this(granuleName, configFile);
+        this.granuleRaf = granuleRaf;
+    }
+    
+    /**
+     * Create a footprinter for a granule which has already been read into memory, from a parsed dataset config.
+     *
+     * @param granuleName The name of the granule, used to identify it in logs and errors
+     * @param granuleBytes The contents of the granule file
+     * @param datasetConfig The dataset configuration
+     */
+    public Footprinter(String granuleName, byte[] granuleBytes, DatasetConfig datasetConfig) {
+        this(granuleName, datasetConfig);
+        this.granuleBytes = granuleBytes;
+    }
+    
+    /**
+     * Create a footprinter for a granule which is read in place, from a parsed dataset config. The file is closed
+     * when the footprint operation completes.
+     *
+     * @param granuleName The name of the granule, used to identify it in logs and errors
+     * @param granuleRaf Reads the contents of the granule file
+     * @param datasetConfig The dataset configuration
+     */
+    public Footprinter(String granuleName, ucar.unidata.io.RandomAccessFile granuleRaf, DatasetConfig datasetConfig) {
+        this(granuleName, datasetConfig);
+        this.granuleRaf = granuleRaf;
     }
     
     Footprinter() {
@@ -58,7 +143,17 @@ public class Footprinter {
      * @throws FileNotFoundException If the given dataset config file is not found.
      */
     public DatasetConfig parseConfig(String configFileLocation) throws FileNotFoundException {
-        DatasetConfig datasetConfig = gson.fromJson(new FileReader(configFileLocation), DatasetConfig.class);
+        return parseConfig(new FileReader(configFileLocation));
+    }
+    
+    /**
+     * Parse a dataset config from the given reader, which is left open.
+     *
+     * @param configReader Reads the contents of the dataset configuration file
+     * @return A DatasetConfig object which contains the configuration values from the config file.
+     */
+    public DatasetConfig parseConfig(Reader configReader) {
+        DatasetConfig datasetConfig = gson.fromJson(configReader, DatasetConfig.class);
         
         if (datasetConfig.getLonVar() == null || datasetConfig.getLatVar() == null) {
             throw new JsonParseException("'latVar' and 'lonVar' must be provided in the dataset config");
@@ -103,9 +198,9 @@ public class Footprinter {
     /**
     * Checks whether the given latitude and longitude variables contain at least one valid coordinate pair.
     *
-    * <p>The method reads the values from the provided latitude and longitude variables, applies
-    * scale and offset corrections from the corresponding attribute maps, and verifies if at least
-    * one coordinate pair falls within the valid geographic bounds.</p>
+    * <p>The variables are scanned in row blocks, applying scale and offset corrections from the corresponding
+    * attribute maps, and the scan stops at the first block containing a coordinate pair within the valid geographic
+    * bounds.</p>
     *
     * @param latVariable  The latitude variable containing raw latitude values.
     * @param lonVariable  The longitude variable containing raw longitude values.
@@ -118,33 +213,12 @@ public class Footprinter {
     public boolean hasValidCoordinatePair(Variable latVariable, Variable lonVariable, 
                                         Map<String, Double> latAttMap, Map<String, Double> lonAttMap,
                                         boolean is360) throws IOException {
-        Array latValues = latVariable.read();
-        Array lonValues = lonVariable.read();
-        
-        // Constants for validation
-        final double MIN_LAT = -90.0;
-        final double MAX_LAT = 90.0;
-        final double MIN_LON = is360 ? 0.0 : -180.0;
-        final double MAX_LON = is360 ? 360.0 : 180.0;
-        final String SCALE = "scale";
-        final String OFFSET = "offset";
-        
-        int size = (int) Math.min(latValues.getSize(), lonValues.getSize());
-        
-        for (int i = 0; i < size; i++) {
-            // Apply scale and offset to raw values
-            double lat = latValues.getDouble(i) * latAttMap.get(SCALE) + latAttMap.get(OFFSET);
-            double lon = lonValues.getDouble(i) * lonAttMap.get(SCALE) + lonAttMap.get(OFFSET);
-
-            // Check if both values are within valid ranges and not NaN
-            if (!Double.isNaN(lat) && !Double.isNaN(lon) &&
-                lat >= MIN_LAT && lat <= MAX_LAT &&
-                lon >= MIN_LON && lon <= MAX_LON) {
-                return true;  // Found at least one valid pair
-            }
+        EdgeExtractor extractor = new EdgeExtractor(latVariable, lonVariable, latAttMap, lonAttMap, is360);
+        try {
+            return extractor.hasValidCoordinatePair(new ArrayList<>());
+        } catch (InvalidRangeException exception) {
+            throw new IOException("Unable to read lat/lon blocks", exception);
         }
-        
-        return false;
     }
 
     /**
@@ -152,91 +226,90 @@ public class Footprinter {
      *
      * @return Map containing the result. This map contains the keys 'EXTENT' and 'FOOTPRINT', where 'EXTENT'
      * represents the WKT spatial bounds (a.k.a bbox) and the 'FOOTPRINT' represents the WKT footprint (might be a
-     * POLYGON, LINESTRING, ...)
+     * POLYGON, LINESTRING, ...). If the dataset config sets a covering level, the key 'COVERING' holds a JSON array
+     * of the IDs of the grid cells covering the footprint, and if it sets tolerance levels, the key 'PYRAMID' holds a
+     * JSON array of the footprint simplified at each level.
      */
     public Map<String, String> footprint() throws FootprintException, InvalidRangeException {
-        Map<String, String> footprintMap = new HashMap<>();
-        
+        jsonOutputs.clear();
         FootprintConfig footprint = datasetConfig.getFootprint();
         FootprintStrategy.Strategy footprintStrategyType = datasetConfig.getFootprint().getStrategy();
-        FootprintStrategy footprintStrategy;
+        FootprintStrategy footprintStrategy =
+                FootprintStrategyRegistry.getDefault().get(footprintStrategyType.getStrategyName());
         
-        switch (footprintStrategyType) {
-            case PERIODIC:
-                footprintStrategy = new FootprintStrategyPeriodic();
-                break;
-            case LINE_STRING:
-                footprintStrategy = new FootprintStrategyLinestring();
-                break;
-            case POLAR:
-                footprintStrategy = new FootprintStrategyPolar();
-                break;
-            case POLAR_SIDES:
-                footprintStrategy = new FootprintStrategyPolarSidesOnly();
-                break;
-            case SMAP:
-                footprintStrategy = new FootprintStrategyPolarSmap();
-                break;
-            case SWOT_LINESTRING:
-                footprintStrategy = new FootprintStrategyLinestring();
-                break;
-            default:
-                log.error("The provided footprint strategy {} is invalid", footprintStrategyType.getStrategyName());
-                throw new FootprintException("Footprint strategy " + footprintStrategyType.getStrategyName() + " was not recognized");
+        // The fixed footprint comes from the bounds in the dataset config, so the granule is never opened
+        if (footprintStrategyType == FootprintStrategy.Strategy.FIXED) {
+            return buildFootprint(footprintStrategy, FootprintStrategyFixed.boundingRings(footprint));
         }
         
         boolean is360 = datasetConfig.isIs360();
         boolean findValid = footprint.isFindValid();
         boolean removeOrigin = footprint.isRemoveOrigin();
-        List<Coordinate> top = new ArrayList<>();
-        List<Coordinate> bottom = new ArrayList<>();
-        List<Coordinate> side1 = new ArrayList<>();
-        List<Coordinate> side2 = new ArrayList<>();
-        List<Range> rangeList;
+        List<Coordinate> top = new CoordinateBuffer();
+        List<Coordinate> bottom = new CoordinateBuffer();
+        List<Coordinate> side1 = new CoordinateBuffer();
+        List<Coordinate> side2 = new CoordinateBuffer();
         
-        try (NetcdfFile dataFile = NetcdfFile.open(granuleFile, null)) {
+        try (NetcdfFile dataFile = openGranule()) {
             Variable lonVariable = dataFile.findVariable(datasetConfig.getLonVar());
             Variable latVariable = dataFile.findVariable(datasetConfig.getLatVar());
             Map<String, Double> latAttMap = getAttributes(latVariable);
             Map<String, Double> lonAttMap = getAttributes(lonVariable);
             int[] shapes = latVariable.getShape();
-
-            boolean isValidLonLat = hasValidCoordinatePair(latVariable, lonVariable, latAttMap, latAttMap, is360);
+            String strategyName = footprintStrategyType.getStrategyName();
+            
+            // Build every edge up front, so the validity probe can read the edges (which are needed anyway) before
+            // falling back to scanning the rest of the swath.
+            List<Range> side1Ranges = footprint.getSide1() != null ? buildRanges(footprint.getSide1(), shapes) : null;
+            List<Range> bottomRanges = null;
+            List<Range> side2Ranges = null;
+            List<Range> topRanges = null;
+            if (!strategyName.equals("swot_linestring")) {
+                bottomRanges = footprint.getBottom() != null ? buildRanges(footprint.getBottom(), shapes) : null;
+                side2Ranges = footprint.getSide2() != null ? buildRanges(footprint.getSide2(), shapes) : null;
+                topRanges = footprint.getTop() != null ? buildRanges(footprint.getTop(), shapes) : null;
+            }
+            
+            edgeExtractor = new EdgeExtractor(latVariable, lonVariable, latAttMap, lonAttMap, is360);
+            validitySearch = new ValiditySearch(edgeExtractor, kernelFor(latAttMap, lonAttMap));
+            List<List<Range>> edges = new ArrayList<>();
+            for (List<Range> edge : Arrays.asList(side1Ranges, bottomRanges, side2Ranges, topRanges)) {
+                if (edge != null) {
+                    edges.add(new ArrayList<>(edge));
+                }
+            }
+            edgeExtractor.prefetch(edges);
+            
+            boolean isValidLonLat = edgeExtractor.hasValidCoordinatePair(edges);
 
             if(!isValidLonLat){
                 throw new FootprintException("The granule trying to footprint doesn't have any valid longitude and latitude data.");
             }
 
-            String strategyName = footprintStrategyType.getStrategyName();
-            if(strategyName == "swot_linestring"){
-                rangeList = buildRanges(footprint.getSide1(), shapes);
-                side1 = processRange(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);      
+            if(strategyName.equals("swot_linestring")){
+                side1 = processRange(side1Ranges, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
                 top = null;
                 bottom = null;
                 side2 = null;
             }
 
             else{
-                if (footprint.getSide1() != null) {
-                    rangeList = buildRanges(footprint.getSide1(), shapes);
-                    side1 = processRange(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
+                if (side1Ranges != null) {
+                    side1 = processRange(side1Ranges, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
                     
                 }
                 
-                if (footprint.getBottom() != null) {
-                    rangeList = buildRanges(footprint.getBottom(), shapes);
-                    bottom = processRange(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
+                if (bottomRanges != null) {
+                    bottom = processRange(bottomRanges, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
                     
                 }
-                if (footprint.getSide2() != null) {
-                    rangeList = buildRanges(footprint.getSide2(), shapes);
-                    side2 = processRange(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
+                if (side2Ranges != null) {
+                    side2 = processRange(side2Ranges, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
                     
                 }
                 
-                if (footprint.getTop() != null) {
-                    rangeList = buildRanges(footprint.getTop(), shapes);
-                    top = processRange(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
+                if (topRanges != null) {
+                    top = processRange(topRanges, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
                     
                 }
             }
@@ -249,16 +322,102 @@ public class Footprinter {
         } catch (IOException exception) {
             log.error("Unable to open NetCDF file {}", granuleFile);
             throw new FootprintException("Error while opening granule file", exception);
+        } finally {
+            edgeExtractor = null;
+            validitySearch = null;
         }
         
-        List<List<Coordinate>> coords = footprintStrategy.merge(side1, bottom, side2, top);
+        return buildFootprint(footprintStrategy, side1, bottom, side2, top);
+    }
+    
+    /**
+     * @return The optional outputs of the last footprint operation, 'COVERING' and 'PYRAMID', as JSON values, so
+     * callers can embed them without parsing the strings in the footprint map again
+     */
+    public Map<String, JsonElement> getJsonOutputs() {
+        return jsonOutputs;
+    }
+    
+    /**
+     * Merge the edges into the footprint geometry using the given strategy.
+     *
+     * @return Map containing the keys 'EXTENT' and 'FOOTPRINT', 'COVERING' if a covering level is set, and 'PYRAMID'
+     * if tolerance levels are set
+     */
+    private Map<String, String> buildFootprint(FootprintStrategy footprintStrategy, List<Coordinate> side1,
+                                               List<Coordinate> bottom, List<Coordinate> side2,
+                                               List<Coordinate> top) throws FootprintException {
+        return buildFootprint(footprintStrategy, footprintStrategy.merge(side1, bottom, side2, top));
+    }
+    
+    /**
+     * Build the footprint geometry from coordinate lists which are already merged.
+     */
+    private Map<String, String> buildFootprint(FootprintStrategy footprintStrategy, List<List<Coordinate>> coords)
+            throws FootprintException {
+        Map<String, String> footprintMap = new HashMap<>();
         Geometry geometry = footprintStrategy.mergeGeoms(coords, datasetConfig.getTolerance());
+        if (datasetConfig.getMaxVertices() > 0) {
+            geometry = VertexBudgetSimplifier.simplify(geometry, datasetConfig.getMaxVertices());
+        }
         
         footprintMap.put(FOOTPRINT, geometry.toText());
         footprintMap.put(EXTENT, geometry.getEnvelope().toText());
+        if (datasetConfig.getCoveringLevel() > 0) {
+            int maxCells = datasetConfig.getCoveringMaxCells() > 0 ?
+                    datasetConfig.getCoveringMaxCells() : CellCovering.DEFAULT_MAX_CELLS;
+            List<Long> cells = new CellCovering(datasetConfig.getCoveringLevel(), maxCells).cover(geometry);
+            JsonElement covering = gson.toJsonTree(cells);
+            jsonOutputs.put(COVERING, covering);
+            footprintMap.put(COVERING, gson.toJson(covering));
+        }
+        List<Double> toleranceLevels = datasetConfig.getToleranceLevels();
+        if (toleranceLevels != null && !toleranceLevels.isEmpty()) {
+            JsonArray pyramid = buildPyramid(footprintStrategy, geometry, toleranceLevels);
+            jsonOutputs.put(PYRAMID, pyramid);
+            footprintMap.put(PYRAMID, gson.toJson(pyramid));
+        }
         return footprintMap;
     }
     
+    /**
+     * Simplify the footprint at each of the given tolerances, in increasing order, each level from the one before, so
+     * the edges are only extracted and merged once for every level.
+     *
+     * @return A JSON array holding an object with the 'tolerance' and WKT 'footprint' of each level
+     */
+    JsonArray buildPyramid(FootprintStrategy footprintStrategy, Geometry footprint, List<Double> tolerances) {
+        List<Double> sorted = new ArrayList<>(tolerances);
+        Collections.sort(sorted);
+        JsonArray pyramid = new JsonArray();
+        Geometry level = footprint;
+        for (double tolerance : sorted) {
+            level = footprintStrategy.simplify(level, tolerance);
+            JsonObject entry = new JsonObject();
+            entry.addProperty("tolerance", tolerance);
+            entry.addProperty("footprint", level.toText());
+            pyramid.add(entry);
+        }
+        return pyramid;
+    }
+    
+    /**
+     * Open the granule, from memory if its contents were given to the constructor, through the random access file if
+     * one was given, otherwise from disk.
+     *
+     * @return The opened granule
+     * @throws IOException If the granule cannot be opened
+     */
+    NetcdfFile openGranule() throws IOException {
+        if (granuleBytes != null) {
+            return NetcdfFiles.openInMemory(granuleFile, granuleBytes);
+        }
+        if (granuleRaf != null) {
+            return NetcdfFiles.open(granuleRaf, granuleFile, null, null);
+        }
+        return NetcdfFile.open(granuleFile, null);
+    }
+    
     /**
      * For the given NetCDF4 lat/lon variables, return a list of (X,Y) coordinates. 'fill' values are not part of the
      * result.
@@ -270,55 +429,72 @@ public class Footprinter {
      * @param latVariable The latitude variable from the granule file
      * @param lonAttMap A map containing scale, offset, and fill for the longitude variable
      * @param latAttMap A map containing scale, offset, and fill for the latitude variable
-     * @return Constructed list of lat/lon coordinates, masked and scaled using variable attributes.
+     * @return Constructed list of lat/lon coordinates, masked and scaled using variable attributes. The list is a
+     * {@link CoordinateBuffer}, so the points are stored as primitives rather than one object per point. If the
+     * dataset config sets a read tolerance, the edge is simplified as it is decoded, and only the kept vertices are
+     * stored.
      */
     public List<Coordinate> constructCoordsFromNetcdf(List<Range> rangeList, Variable lonVariable, Variable latVariable,
                                                       Map<String, Double> lonAttMap, Map<String, Double> latAttMap, String strategyName)
             throws IOException, InvalidRangeException {
 
-        Array latData = null;
-        Array lonData = null;
-        if(strategyName == "swot_linestring"){
-            latData = latVariable.read();
-            lonData = lonVariable.read();
+        return decodeEdge(extractorFor(latVariable, lonVariable, latAttMap, lonAttMap),
+                kernelFor(latAttMap, lonAttMap), rangeList, strategyName);
+    }
+
+    /**
+     * Read the given edge through the extractor, and decode it into a list of lon/lat coordinates.
+     */
+    private List<Coordinate> decodeEdge(EdgeExtractor extractor, DecodeKernel kernel, List<Range> rangeList,
+                                        String strategyName) throws IOException, InvalidRangeException {
+        Array[] data;
+        if(strategyName.equals("swot_linestring")){
+            data = extractor.readAll();
         }
         else{
-            latData = latVariable.read(rangeList);
-            lonData = lonVariable.read(rangeList);
+            data = extractor.read(rangeList);
         }
+        Array latData = data[0];
+        Array lonData = data[1];
 
-        boolean is360 = datasetConfig.isIs360();
-        boolean removeOrigin = datasetConfig.getFootprint().isRemoveOrigin();
-        
-        List<Coordinate> lonLats = new ArrayList<>();
-        for (int i = 0; i < latData.getSize(); i++) {
-            if (latData.getDouble(i) == latAttMap.get(FILL) || lonData.getDouble(i) == lonAttMap.get(FILL)) {
-                continue;
-            } else if (removeOrigin && latData.getDouble(i) == 0d && lonData.getDouble(i) == 0) {
-                continue;
-            }
-            
-            double lat = latData.getDouble(i) * latAttMap.get(SCALE) + latAttMap.get(OFFSET);
-            double lon = lonData.getDouble(i) * lonAttMap.get(SCALE) + lonAttMap.get(OFFSET);
-            
-            if (is360 && lon > 180) {
-                lon = lon - 360;
-            }
-            
-            //Sanity check. Remove anything outside -180/180 and -90/90
-            if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
-                continue;
-            }
-            
-            lonLats.add(new Coordinate(lon, lat));
+        double readTolerance = datasetConfig.getReadTolerance();
+        if (readTolerance <= 0 || strategyName.equals("swot_linestring")) {
+            CoordinateBuffer lonLats = new CoordinateBuffer((int) latData.getSize());
+            kernel.decode(latData, lonData, lonLats);
+            return lonLats;
         }
+
+        // Keep only the vertices which survive simplification, rather than every point along the edge
+        CoordinateBuffer lonLats = new CoordinateBuffer();
+        StreamingSimplifier simplifier = new StreamingSimplifier(lonLats, readTolerance);
+        kernel.decode(latData, lonData, simplifier);
+        simplifier.finish();
+        log.debug("Simplified edge from {} to {} points", simplifier.getAdded(), simplifier.getKept());
         return lonLats;
     }
+
+    /**
+     * Return the extractor for the current footprint operation if it reads the given variables, otherwise a new one.
+     */
+    private EdgeExtractor extractorFor(Variable latVariable, Variable lonVariable, Map<String, Double> latAttMap,
+                                       Map<String, Double> lonAttMap) {
+        EdgeExtractor extractor = edgeExtractor;
+        if (extractor == null || extractor.getLatVariable() != latVariable || extractor.getLonVariable() != lonVariable) {
+            extractor = new EdgeExtractor(latVariable, lonVariable, latAttMap, lonAttMap, datasetConfig.isIs360());
+        }
+        return extractor;
+    }
+
+    private DecodeKernel kernelFor(Map<String, Double> latAttMap, Map<String, Double> lonAttMap) {
+        return new DecodeKernel(latAttMap, lonAttMap, datasetConfig.isIs360(),
+                datasetConfig.getFootprint().isRemoveOrigin());
+    }
     
     
     /**
-     * Calculate a list of coordinates for the given ranges. The ranges will be adjusted as necessary until valid
-     * coordinates are found.
+     * Calculate a list of coordinates for the given ranges. If the ranges contain no valid coordinates and
+     * 'findValid' is set, the ranges are moved to the nearest row or column which does. If there is no such row or
+     * column, the empty list is returned.
      *
      * @param rangeList List of ranges used to retrieve list of coords
      * @param lonVariable The longitude variable from the granule file
@@ -332,35 +508,43 @@ public class Footprinter {
             throws IOException, InvalidRangeException {
         
         boolean findValid = datasetConfig.getFootprint().isFindValid();
-        Boolean fromZero = null;
+        EdgeExtractor extractor = extractorFor(latVariable, lonVariable, latAttMap, lonAttMap);
+        DecodeKernel kernel = kernelFor(latAttMap, lonAttMap);
         
-        // Check if the current range contains any coordinates. If not, move the range to the right or left, and
-        // keep retrying until lonLats contains values.
-        do {
-            List<Coordinate> lonLats = constructCoordsFromNetcdf(rangeList, lonVariable, latVariable, lonAttMap, latAttMap, strategyName);
-            // If findValid is false, or lonLats contains values, just return lonLats.
-            if (!findValid || !lonLats.isEmpty()) {
-                return lonLats;
-            }
-            // Otherwise, adjust range and try again.
-            Range newRange = null;
-            int rangeIndex = 0;
-            for (int j = 0; j < rangeList.size(); j++) {
-                Range range = rangeList.get(j);
-                if (range.first() == range.last()) {
-                    if (fromZero == null) {
-                        fromZero = range.first() == 0;
-                    }
-                    if (fromZero) {
-                        newRange = new Range(range.first() + 1, range.last() + 1);
-                    } else {
-                        newRange = new Range(range.first() - 1, range.last() - 1);
-                    }
-                    rangeIndex = j;
+        List<Coordinate> lonLats = decodeEdge(extractor, kernel, rangeList, strategyName);
+        // If findValid is false, or lonLats contains values, just return lonLats.
+        if (!findValid || !lonLats.isEmpty()) {
+            return lonLats;
+        }
+        
+        // Otherwise, move the range to the right or left along its single index dimension, to the nearest row or
+        // column which contains valid coordinates.
+        Boolean fromZero = null;
+        int rangeIndex = -1;
+        for (int j = 0; j < rangeList.size(); j++) {
+            Range range = rangeList.get(j);
+            if (range.first() == range.last()) {
+                if (fromZero == null) {
+                    fromZero = range.first() == 0;
                 }
+                rangeIndex = j;
             }
-            rangeList.set(rangeIndex, newRange);
-        } while (true);
+        }
+        if (rangeIndex == -1) {
+            log.warn("Unable to find valid coordinates for {}, as no dimension has a single index", rangeList);
+            return lonLats;
+        }
+        
+        ValiditySearch search = validitySearch;
+        if (search == null || search.getExtractor() != extractor) {
+            search = new ValiditySearch(extractor, kernel);
+        }
+        int index = search.findValid(rangeList, rangeIndex, fromZero);
+        if (index == -1) {
+            return lonLats;
+        }
+        rangeList.set(rangeIndex, new Range(index, index));
+        return decodeEdge(extractor, kernel, rangeList, strategyName);
     }
     
     /**
@@ -0,0 +1,226 @@
+package gov.nasa.podaac.forge.edge;
+
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Range;
+import ucar.nc2.Attribute;
+import ucar.nc2.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the reads for a set of edges against the chunk layout of a chunked (HDF5) variable.
+ * <p>
+ * Every edge is split at the chunk boundaries, and the pieces are grouped by the chunk they fall in. Each chunk is
+ * then read once, as the bounding box of all the pieces in it, so a chunk shared by several edges (such as a corner
+ * chunk, shared by a side and the top) is only decompressed once. Only edges which are lines through the variable, with
+ * at most one dimension longer than a single index, are planned. Any other edge is read directly.
+ */
+public class ChunkReadPlanner {
+
+    static final String CHUNK_SIZES = "_ChunkSizes";
+
+    private final int[] shape;
+    private final int[] chunkSizes;
+
+    public ChunkReadPlanner(int[] shape, int[] chunkSizes) {
+        this.shape = shape;
+        this.chunkSizes = chunkSizes;
+    }
+
+    /**
+     * Get the chunk sizes of the given variable from its '_ChunkSizes' attribute.
+     *
+     * @return The chunk size of each dimension, or {@code null} if the variable is not chunked.
+     */
+    public static int[] chunkSizes(Variable variable) {
+        Attribute attribute = variable.findAttribute(CHUNK_SIZES);
+        int[] shape = variable.getShape();
+        if (attribute == null || shape == null || attribute.getLength() != shape.length) {
+            return null;
+        }
+        int[] chunkSizes = new int[shape.length];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            Number value = attribute.getNumericValue(i);
+            if (value == null || value.intValue() <= 0) {
+                return null;
+            }
+            chunkSizes[i] = value.intValue();
+        }
+        return chunkSizes;
+    }
+
+    /**
+     * Group the given edges by chunk.
+     *
+     * @param edges The edges to read, one range per dimension of the variable
+     * @return The plan. Edges which could not be planned have a {@code null} entry in {@link Plan#getPieces()}.
+     */
+    public Plan plan(List<List<Range>> edges) throws InvalidRangeException {
+        Map<String, ChunkRead> reads = new LinkedHashMap<>();
+        List<List<Piece>> pieces = new ArrayList<>();
+
+        for (List<Range> edge : edges) {
+            int dimension = lineDimension(edge);
+            if (dimension == -2) {
+                pieces.add(null);
+                continue;
+            }
+
+            List<Piece> edgePieces = new ArrayList<>();
+            int first = dimension == -1 ? 0 : edge.get(dimension).first();
+            int last = dimension == -1 ? 0 : edge.get(dimension).last();
+            int start = first;
+            while (start <= last) {
+                int end = dimension == -1 ? last : Math.min(last, (start / chunkSizes[dimension] + 1) * chunkSizes[dimension] - 1);
+                List<Range> section = new ArrayList<>(edge);
+                if (dimension != -1) {
+                    section.set(dimension, new Range(start, end));
+                }
+
+                String key = chunkKey(section);
+                ChunkRead read = reads.get(key);
+                if (read == null) {
+                    read = new ChunkRead(section);
+                    reads.put(key, read);
+                } else {
+                    read.include(section);
+                }
+                edgePieces.add(new Piece(section, read, start - first));
+                start = end + 1;
+            }
+            pieces.add(edgePieces);
+        }
+        return new Plan(new ArrayList<>(reads.values()), pieces);
+    }
+
+    /**
+     * Find the only dimension of the edge which is longer than a single index.
+     *
+     * @return The dimension, -1 if the edge is a single point, or -2 if the edge cannot be planned.
+     */
+    private int lineDimension(List<Range> edge) {
+        if (edge.size() != shape.length) {
+            return -2;
+        }
+        int dimension = -1;
+        for (int i = 0; i < edge.size(); i++) {
+            Range range = edge.get(i);
+            if (range.stride() != 1 || range.first() < 0 || range.last() >= shape[i]) {
+                return -2;
+            }
+            if (range.length() > 1) {
+                if (dimension != -1) {
+                    return -2;
+                }
+                dimension = i;
+            }
+        }
+        return dimension;
+    }
+
+    private String chunkKey(List<Range> section) {
+        int[] chunk = new int[section.size()];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = section.get(i).first() / chunkSizes[i];
+        }
+        return Arrays.toString(chunk);
+    }
+
+    /**
+     * The chunk reads, and how each edge is assembled from them.
+     */
+    public static class Plan {
+        private final List<ChunkRead> reads;
+        private final List<List<Piece>> pieces;
+
+        Plan(List<ChunkRead> reads, List<List<Piece>> pieces) {
+            this.reads = reads;
+            this.pieces = pieces;
+        }
+
+        public List<ChunkRead> getReads() {
+            return reads;
+        }
+
+        public List<List<Piece>> getPieces() {
+            return pieces;
+        }
+    }
+
+    /**
+     * A single read, covering every piece of every edge which falls inside one chunk.
+     */
+    public static class ChunkRead {
+        private final int[] first;
+        private final int[] last;
+
+        ChunkRead(List<Range> section) {
+            first = new int[section.size()];
+            last = new int[section.size()];
+            for (int i = 0; i < first.length; i++) {
+                first[i] = section.get(i).first();
+                last[i] = section.get(i).last();
+            }
+        }
+
+        void include(List<Range> section) {
+            for (int i = 0; i < first.length; i++) {
+                first[i] = Math.min(first[i], section.get(i).first());
+                last[i] = Math.max(last[i], section.get(i).last());
+            }
+        }
+
+        public List<Range> getRanges() throws InvalidRangeException {
+            List<Range> ranges = new ArrayList<>();
+            for (int i = 0; i < first.length; i++) {
+                ranges.add(new Range(first[i], last[i]));
+            }
+            return ranges;
+        }
+
+        /**
+         * Get the position of the given section relative to this read.
+         */
+        List<Range> relative(List<Range> section) throws InvalidRangeException {
+            List<Range> relative = new ArrayList<>();
+            for (int i = 0; i < first.length; i++) {
+                relative.add(new Range(section.get(i).first() - first[i], section.get(i).last() - first[i]));
+            }
+            return relative;
+        }
+    }
+
+    /**
+     * The part of an edge which falls inside one chunk.
+     */
+    public static class Piece {
+        private final List<Range> section;
+        private final ChunkRead read;
+        private final int offset;
+
+        Piece(List<Range> section, ChunkRead read, int offset) {
+            this.section = section;
+            this.read = read;
+            this.offset = offset;
+        }
+
+        public List<Range> getSection() {
+            return section;
+        }
+
+        public ChunkRead getRead() {
+            return read;
+        }
+
+        /**
+         * The position of this piece along the edge.
+         */
+        public int getOffset() {
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package gov.nasa.podaac.forge.edge;
+
+import gov.nasa.podaac.forge.geom.CoordinateSink;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import java.util.Map;
+
+/**
+ * Decodes raw lat/lon values from a granule into lon/lat points. Fill masking, origin removal, scale/offset, the
+ * 0-360 wrap and the sanity check on the decoded values are applied in one pass.
+ * <p>
+ * The attribute values are unboxed once, when the kernel is created. When the lat and lon arrays have the same signed
+ * storage type (float, double, short or int), the loop runs directly over the backing Java arrays. Any other
+ * combination is widened to doubles first.
+ */
+public class DecodeKernel {
+
+    private static final String FILL = "fill";
+    private static final String SCALE = "scale";
+    private static final String OFFSET = "offset";
+
+    private final double latFill;
+    private final double latScale;
+    private final double latOffset;
+    private final double lonFill;
+    private final double lonScale;
+    private final double lonOffset;
+    private final boolean is360;
+    private final boolean removeOrigin;
+
+    /**
+     * @param latAttMap A map containing scale, offset, and fill for the latitude variable
+     * @param lonAttMap A map containing scale, offset, and fill for the longitude variable
+     * @param is360 Whether longitudes are in the range 0 to 360, and should be converted to -180 to 180
+     * @param removeOrigin Whether raw (0, 0) points should be dropped
+     */
+    public DecodeKernel(Map<String, Double> latAttMap, Map<String, Double> lonAttMap, boolean is360,
+                        boolean removeOrigin) {
+        this.latFill = latAttMap.get(FILL);
+        this.latScale = latAttMap.get(SCALE);
+        this.latOffset = latAttMap.get(OFFSET);
+        this.lonFill = lonAttMap.get(FILL);
+        this.lonScale = lonAttMap.get(SCALE);
+        this.lonOffset = lonAttMap.get(OFFSET);
+        this.is360 = is360;
+        this.removeOrigin = removeOrigin;
+    }
+
+    /**
+     * Decode every lat/lon pair in the given arrays, and add the valid points to the sink in order.
+     *
+     * @param latData The raw latitude values
+     * @param lonData The raw longitude values, with the same shape as the latitude values
+     * @param sink Receives the decoded lon/lat points
+     * @return The number of points added to the sink
+     */
+    public int decode(Array latData, Array lonData, CoordinateSink sink) {
+        int size = (int) latData.getSize();
+        DataType type = latData.getDataType();
+
+        if (type == lonData.getDataType() && !type.isUnsigned()) {
+            switch (type) {
+                case FLOAT:
+                    return decode((float[]) latData.get1DJavaArray(type), (float[]) lonData.get1DJavaArray(type), size, sink);
+                case DOUBLE:
+                    return decode((double[]) latData.get1DJavaArray(type), (double[]) lonData.get1DJavaArray(type), size, sink);
+                case SHORT:
+                    return decode((short[]) latData.get1DJavaArray(type), (short[]) lonData.get1DJavaArray(type), size, sink);
+                case INT:
+                    return decode((int[]) latData.get1DJavaArray(type), (int[]) lonData.get1DJavaArray(type), size, sink);
+                default:
+                    break;
+            }
+        }
+        return decode((double[]) latData.get1DJavaArray(DataType.DOUBLE),
+                (double[]) lonData.get1DJavaArray(DataType.DOUBLE), size, sink);
+    }
+
+    /**
+     * Decode a single raw lat/lon pair, and add it to the sink if it is valid.
+     *
+     * @return {@code true} if the point was added to the sink, otherwise {@code false}.
+     */
+    public boolean decode(double rawLat, double rawLon, CoordinateSink sink) {
+        if (rawLat == latFill || rawLon == lonFill) {
+            return false;
+        } else if (removeOrigin && rawLat == 0d && rawLon == 0d) {
+            return false;
+        }
+
+        double lat = rawLat * latScale + latOffset;
+        double lon = rawLon * lonScale + lonOffset;
+
+        if (is360 && lon > 180) {
+            lon = lon - 360;
+        }
+
+        //Sanity check. Remove anything outside -180/180 and -90/90
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            return false;
+        }
+
+        sink.add(lon, lat);
+        return true;
+    }
+
+    private int decode(float[] latValues, float[] lonValues, int size, CoordinateSink sink) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (decode(latValues[i], lonValues[i], sink)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int decode(double[] latValues, double[] lonValues, int size, CoordinateSink sink) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (decode(latValues[i], lonValues[i], sink)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int decode(short[] latValues, short[] lonValues, int size, CoordinateSink sink) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (decode(latValues[i], lonValues[i], sink)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int decode(int[] latValues, int[] lonValues, int size, CoordinateSink sink) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (decode(latValues[i], lonValues[i], sink)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,299 @@
+package gov.nasa.podaac.forge.edge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.MAMath;
+import ucar.ma2.Range;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads sections of a granule's lat/lon variables in blocks, and keeps every block it has read so that the same
+ * section of the granule is never read twice during a footprint operation.
+ * <p>
+ * The validity probe reads the edges first (which are needed anyway), and only falls back to scanning the swath in
+ * row blocks when none of the edges contain a valid coordinate pair. The scan stops at the first block containing a
+ * valid pair, and only that block is kept, so scanning a swath which is mostly fill holds one block at a time rather
+ * than the whole swath. On chunked variables, the edges can be read up front with {@link #prefetch(List)}, which
+ * reads each chunk they touch only once.
+ */
+public class EdgeExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(EdgeExtractor.class);
+    private static final String SCALE = "scale";
+    private static final String OFFSET = "offset";
+    private static final int DEFAULT_BLOCK_ROWS = 64;
+
+    private final Variable latVariable;
+    private final Variable lonVariable;
+    private final Map<String, Double> latAttMap;
+    private final Map<String, Double> lonAttMap;
+    private final boolean is360;
+    private final int blockRows;
+    private final List<Block> blocks = new ArrayList<>();
+
+    public EdgeExtractor(Variable latVariable, Variable lonVariable, Map<String, Double> latAttMap,
+                         Map<String, Double> lonAttMap, boolean is360) {
+        this(latVariable, lonVariable, latAttMap, lonAttMap, is360, DEFAULT_BLOCK_ROWS);
+    }
+
+    public EdgeExtractor(Variable latVariable, Variable lonVariable, Map<String, Double> latAttMap,
+                         Map<String, Double> lonAttMap, boolean is360, int blockRows) {
+        this.latVariable = latVariable;
+        this.lonVariable = lonVariable;
+        this.latAttMap = latAttMap;
+        this.lonAttMap = lonAttMap;
+        this.is360 = is360;
+        this.blockRows = Math.max(1, blockRows);
+    }
+
+    public Variable getLatVariable() {
+        return latVariable;
+    }
+
+    public Variable getLonVariable() {
+        return lonVariable;
+    }
+
+    /**
+     * Read the lat/lon data for the given section. If the section lies inside a block which has already been read,
+     * the data is taken from that block instead of the granule.
+     *
+     * @param ranges The section to read, one range per dimension of the lat/lon variables
+     * @return A two element array, where the first element is the latitude data and the second is the longitude data.
+     *         Both arrays are contiguous, so they may be indexed directly.
+     */
+    public Array[] read(List<Range> ranges) throws IOException, InvalidRangeException {
+        Block cached = findBlock(ranges);
+        if (cached != null) {
+            return cached.section(ranges);
+        }
+        Block block = readBlock(new ArrayList<>(ranges));
+        return new Array[]{block.lat, block.lon};
+    }
+
+    /**
+     * Read the given edges ahead of time, planned against the chunk layout of the lat/lon variables, so that a chunk
+     * shared by several edges is only read (and decompressed) once. The edges are kept, so later reads of them are
+     * served from memory. Nothing is read if the variables are not chunked.
+     *
+     * @param edges The edge sections which will later be read to build the footprint
+     */
+    public void prefetch(List<List<Range>> edges) throws IOException, InvalidRangeException {
+        int[] latChunkSizes = ChunkReadPlanner.chunkSizes(latVariable);
+        int[] lonChunkSizes = ChunkReadPlanner.chunkSizes(lonVariable);
+        if (latChunkSizes == null || lonChunkSizes == null) {
+            return;
+        }
+
+        Array[] latEdges = assemble(latVariable, latChunkSizes, edges);
+        Array[] lonEdges = assemble(lonVariable, lonChunkSizes, edges);
+        for (int i = 0; i < edges.size(); i++) {
+            if (latEdges[i] != null && lonEdges[i] != null) {
+                blocks.add(new Block(new ArrayList<>(edges.get(i)), latEdges[i], lonEdges[i]));
+            }
+        }
+    }
+
+    /**
+     * Read the lat/lon data for the entire variable. The result is kept, so every later read is served from memory.
+     */
+    public Array[] readAll() throws IOException, InvalidRangeException {
+        return read(fullRanges());
+    }
+
+    /**
+     * Check whether the lat/lon variables contain at least one valid coordinate pair. The given edges are probed
+     * first, then the remainder of the swath is scanned in row blocks until a valid pair is found.
+     * <p>
+     * Every edge is kept once it is probed. Of the scanned blocks, only the one holding the first valid pair is kept;
+     * the edges have all been read by then, so no other scanned block would be read again.
+     *
+     * @param edges The edge sections which will later be read to build the footprint. May be empty.
+     * @return {@code true} if at least one valid coordinate pair is found, otherwise {@code false}.
+     */
+    public boolean hasValidCoordinatePair(List<List<Range>> edges) throws IOException, InvalidRangeException {
+        for (List<Range> edge : edges) {
+            Array[] data = read(edge);
+            if (firstValid(data[0], data[1]) != -1) {
+                return true;
+            }
+        }
+
+        int[] shape = latVariable.getShape();
+        if (shape.length == 0) {
+            Array[] data = read(new ArrayList<>());
+            return firstValid(data[0], data[1]) != -1;
+        }
+
+        for (int row = 0; row < shape[0]; row += blockRows) {
+            List<Range> ranges = fullRanges();
+            ranges.set(0, new Range(row, Math.min(row + blockRows, shape[0]) - 1));
+            Block cached = findBlock(ranges);
+            Block scanned = cached != null ? null :
+                    new Block(ranges, latVariable.read(ranges), lonVariable.read(ranges));
+            Array[] data = cached != null ? cached.section(ranges) : new Array[]{scanned.lat, scanned.lon};
+            if (firstValid(data[0], data[1]) != -1) {
+                if (scanned != null) {
+                    blocks.add(scanned);
+                }
+                return true;
+            }
+        }
+        log.debug("No valid coordinate pair found in {} rows", shape[0]);
+        return false;
+    }
+
+    /**
+     * Find the first element in the given lat/lon arrays which is a valid coordinate pair, once scale and offset are
+     * applied.
+     *
+     * @return The index of the first valid pair, or -1 if there is none.
+     */
+    public int firstValid(Array latValues, Array lonValues) {
+        double minLon = is360 ? 0.0 : -180.0;
+        double maxLon = is360 ? 360.0 : 180.0;
+        double latScale = latAttMap.get(SCALE);
+        double latOffset = latAttMap.get(OFFSET);
+        double lonScale = lonAttMap.get(SCALE);
+        double lonOffset = lonAttMap.get(OFFSET);
+
+        int size = (int) Math.min(latValues.getSize(), lonValues.getSize());
+        for (int i = 0; i < size; i++) {
+            double lat = latValues.getDouble(i) * latScale + latOffset;
+            double lon = lonValues.getDouble(i) * lonScale + lonOffset;
+
+            if (!Double.isNaN(lat) && !Double.isNaN(lon) &&
+                    lat >= -90.0 && lat <= 90.0 &&
+                    lon >= minLon && lon <= maxLon) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<Range> fullRanges() throws InvalidRangeException {
+        int[] shape = latVariable.getShape();
+        List<Range> ranges = new ArrayList<>();
+        for (int length : shape) {
+            ranges.add(new Range(0, length - 1));
+        }
+        return ranges;
+    }
+
+    /**
+     * Read every chunk touched by the given edges once, and copy the pieces of each edge out of the chunks.
+     *
+     * @return The data for each edge, or {@code null} for edges which the planner could not plan.
+     */
+    private Array[] assemble(Variable variable, int[] chunkSizes, List<List<Range>> edges)
+            throws IOException, InvalidRangeException {
+        ChunkReadPlanner.Plan plan = new ChunkReadPlanner(variable.getShape(), chunkSizes).plan(edges);
+        Map<ChunkReadPlanner.ChunkRead, Array> chunks = new IdentityHashMap<>();
+        for (ChunkReadPlanner.ChunkRead read : plan.getReads()) {
+            chunks.put(read, variable.read(read.getRanges()));
+        }
+        log.debug("Read {} edges of {} from {} chunks", edges.size(), variable.getShortName(), chunks.size());
+
+        Array[] result = new Array[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            List<ChunkReadPlanner.Piece> pieces = plan.getPieces().get(i);
+            if (pieces == null || pieces.isEmpty()) {
+                continue;
+            }
+            List<Range> edge = edges.get(i);
+            int[] shape = new int[edge.size()];
+            for (int j = 0; j < shape.length; j++) {
+                shape[j] = edge.get(j).length();
+            }
+
+            Array edgeData = null;
+            for (ChunkReadPlanner.Piece piece : pieces) {
+                ChunkReadPlanner.ChunkRead read = piece.getRead();
+                Array pieceData = chunks.get(read).sectionNoReduce(read.relative(piece.getSection()));
+                if (edgeData == null) {
+                    edgeData = Array.factory(pieceData.getDataType(), shape);
+                }
+                List<Range> target = new ArrayList<>();
+                for (int j = 0; j < shape.length; j++) {
+                    int first = piece.getSection().get(j).first() - edge.get(j).first();
+                    target.add(new Range(first, first + piece.getSection().get(j).length() - 1));
+                }
+                MAMath.copy(edgeData.sectionNoReduce(target), pieceData);
+            }
+            result[i] = edgeData;
+        }
+        return result;
+    }
+
+    /**
+     * @return The kept block which contains the given section, or {@code null} if there is none
+     */
+    private Block findBlock(List<Range> ranges) {
+        for (Block block : blocks) {
+            if (block.contains(ranges)) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    private Block readBlock(List<Range> ranges) throws IOException, InvalidRangeException {
+        Block block = new Block(ranges, latVariable.read(ranges), lonVariable.read(ranges));
+        blocks.add(block);
+        return block;
+    }
+
+    /**
+     * A section of the lat/lon variables which has been read from the granule.
+     */
+    private static class Block {
+        private final List<Range> ranges;
+        private final Array lat;
+        private final Array lon;
+
+        Block(List<Range> ranges, Array lat, Array lon) {
+            this.ranges = ranges;
+            this.lat = lat;
+            this.lon = lon;
+        }
+
+        boolean contains(List<Range> section) {
+            if (section.size() != ranges.size()) {
+                return false;
+            }
+            for (int i = 0; i < section.size(); i++) {
+                Range outer = ranges.get(i);
+                Range inner = section.get(i);
+                if (inner.stride() != 1 || inner.first() < outer.first() || inner.last() > outer.last()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Copy the given section, which must lie inside this block, out of the block.
+         */
+        Array[] section(List<Range> section) throws InvalidRangeException {
+            List<Range> relative = relative(section);
+            return new Array[]{lat.sectionNoReduce(relative).copy(), lon.sectionNoReduce(relative).copy()};
+        }
+
+        List<Range> relative(List<Range> section) throws InvalidRangeException {
+            List<Range> relative = new ArrayList<>();
+            for (int i = 0; i < section.size(); i++) {
+                int origin = ranges.get(i).first();
+                relative.add(new Range(section.get(i).first() - origin, section.get(i).last() - origin));
+            }
+            return relative;
+        }
+    }
+}
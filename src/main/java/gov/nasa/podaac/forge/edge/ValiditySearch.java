@@ -0,0 +1,128 @@
+package gov.nasa.podaac.forge.edge;
+
+import gov.nasa.podaac.forge.geom.CoordinateSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Range;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the nearest row or column of a granule which contains at least one valid coordinate pair, for edges which
+ * start in fill data.
+ * <p>
+ * Rather than reading one row at a time, the search reads blocks along the searched dimension which double in size
+ * (1, 2, 4, ... up to {@link #MAX_BLOCK_SIZE}) until a block contains a valid pair. The validity of every row or
+ * column in a block is recorded in a bitmap, so the first valid index in the block is a bitmap lookup, and a later
+ * edge searching the same rows or columns does not read them again. The search stops at the array bounds.
+ */
+public class ValiditySearch {
+
+    private static final Logger log = LoggerFactory.getLogger(ValiditySearch.class);
+    static final int MAX_BLOCK_SIZE = 256;
+    private static final CoordinateSink DISCARD = (x, y) -> { };
+
+    private final EdgeExtractor extractor;
+    private final DecodeKernel kernel;
+    private final Map<String, Bitmap> bitmaps = new HashMap<>();
+
+    public ValiditySearch(EdgeExtractor extractor, DecodeKernel kernel) {
+        this.extractor = extractor;
+        this.kernel = kernel;
+    }
+
+    public EdgeExtractor getExtractor() {
+        return extractor;
+    }
+
+    /**
+     * Find the index closest to the given edge, along the given dimension, where the edge contains a valid
+     * coordinate pair. The edge itself is assumed to be invalid.
+     *
+     * @param ranges The edge, one range per dimension of the lat/lon variables
+     * @param dimension The dimension to search along. The range for this dimension must be a single index.
+     * @param forward {@code true} to search towards the end of the dimension, {@code false} to search towards 0
+     * @return The first valid index, or -1 if the search reached the array bounds without finding one.
+     */
+    public int findValid(List<Range> ranges, int dimension, boolean forward) throws IOException, InvalidRangeException {
+        int length = extractor.getLatVariable().getShape()[dimension];
+        int step = forward ? 1 : -1;
+        Bitmap bitmap = bitmaps.computeIfAbsent(key(ranges, dimension), key -> new Bitmap());
+
+        int start = ranges.get(dimension).first();
+        bitmap.known.set(start);
+
+        int blockSize = 1;
+        int index = start + step;
+        while (index >= 0 && index < length) {
+            if (bitmap.known.get(index)) {
+                if (bitmap.valid.get(index)) {
+                    return index;
+                }
+                index += step;
+                continue;
+            }
+
+            int first = forward ? index : Math.max(0, index - blockSize + 1);
+            int last = forward ? Math.min(length - 1, index + blockSize - 1) : index;
+            int found = scanBlock(ranges, dimension, first, last, forward, bitmap);
+            if (found != -1) {
+                return found;
+            }
+            index = forward ? last + 1 : first - 1;
+            blockSize = Math.min(blockSize * 2, MAX_BLOCK_SIZE);
+        }
+
+        log.warn("No valid coordinates found along dimension {} from index {} to the {} of the array", dimension,
+                start, forward ? "end" : "start");
+        return -1;
+    }
+
+    /**
+     * Read the block between {@code first} and {@code last} along the searched dimension, record the validity of
+     * each index in it, and return the valid index nearest to the start of the search.
+     */
+    private int scanBlock(List<Range> ranges, int dimension, int first, int last, boolean forward, Bitmap bitmap)
+            throws IOException, InvalidRangeException {
+        List<Range> blockRanges = new ArrayList<>(ranges);
+        blockRanges.set(dimension, new Range(first, last));
+        Array[] data = extractor.read(blockRanges);
+
+        for (int i = first; i <= last; i++) {
+            Array lat = data[0].slice(dimension, i - first);
+            Array lon = data[1].slice(dimension, i - first);
+            bitmap.known.set(i);
+            if (kernel.decode(lat, lon, DISCARD) > 0) {
+                bitmap.valid.set(i);
+            }
+        }
+
+        int found = forward ? bitmap.valid.nextSetBit(first) : bitmap.valid.previousSetBit(last);
+        return found >= first && found <= last ? found : -1;
+    }
+
+    private static String key(List<Range> ranges, int dimension) {
+        StringBuilder key = new StringBuilder().append(dimension);
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i != dimension) {
+                key.append(',').append(ranges.get(i).first()).append(':').append(ranges.get(i).last());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Which indices along a dimension have been checked, and which of those contain a valid coordinate pair.
+     */
+    private static class Bitmap {
+        private final BitSet known = new BitSet();
+        private final BitSet valid = new BitSet();
+    }
+}
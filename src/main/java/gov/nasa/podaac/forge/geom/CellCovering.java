@@ -0,0 +1,218 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Covers a geometry with cells of a quadtree over the lon/lat plane, at mixed levels, so that a spatial index can
+ * match footprints with integer range lookups instead of polygon tests.
+ * <p>
+ * Level 0 is the whole plane, from -180 to 180 longitude and -90 to 90 latitude, and each level splits every cell of
+ * the previous level into four. A cell at level {@code l} is identified by the Morton (Z-order) code of its column and
+ * row, followed by a single set bit and then {@code 2 * (MAX_LEVEL - l)} zero bits, as S2 cell IDs are. The IDs of
+ * every descendant of a cell then lie in the range from {@link #rangeMin(long)} to {@link #rangeMax(long)}, so two
+ * coverings intersect exactly when the range of a cell in one contains a cell of the other. {@link #MAX_LEVEL} keeps
+ * every ID below 2^53, so IDs survive being read as JSON numbers by any consumer.
+ * <p>
+ * The covering uses the largest cells which lie inside the geometry, and cells at the requested level along its
+ * boundary. Cells which only touch the boundary of a polygon are left out. Four sibling cells which are all in the
+ * covering are replaced by their parent.
+ * <p>
+ * As with the region coverer of S2, the number of cells is capped by a budget. Cells are refined coarsest first, and
+ * once refining a cell would take the covering over the budget, the cell is kept as it is. The covering then holds
+ * coarser cells along the boundary, but still covers the whole geometry.
+ */
+public class CellCovering {
+
+    public static final int MAX_LEVEL = 26;
+    public static final int DEFAULT_MAX_CELLS = 256;
+
+    /**
+     * The fraction of its size by which a cell is shrunk to test whether a polygon reaches its interior
+     */
+    private static final double INSET = 1e-6;
+
+    private final int level;
+    private final int maxCells;
+
+    /**
+     * @param level The level of the smallest cells in the covering, from 0 to {@link #MAX_LEVEL}
+     */
+    public CellCovering(int level) {
+        this(level, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * @param level    The level of the smallest cells in the covering, from 0 to {@link #MAX_LEVEL}
+     * @param maxCells The most cells in the covering
+     */
+    public CellCovering(int level, int maxCells) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Covering level must be between 0 and " + MAX_LEVEL + ": " + level);
+        }
+        if (maxCells < 1) {
+            throw new IllegalArgumentException("Covering must allow at least one cell: " + maxCells);
+        }
+        this.level = level;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Cover the given geometry, in lon/lat degrees.
+     *
+     * @return The IDs of the cells in the covering, in increasing order
+     */
+    public List<Long> cover(Geometry geometry) {
+        List<Long> cells = new ArrayList<>();
+        if (geometry.isEmpty()) {
+            return cells;
+        }
+        PreparedGeometry prepared = PreparedGeometryFactory.prepare(geometry);
+        GeometryFactory factory = geometry.getFactory();
+        boolean polygonal = geometry.getDimension() == 2;
+
+        // Cells are refined in level order, so the budget is spent on the coarsest cells first
+        Deque<int[]> candidates = new ArrayDeque<>();
+        if (intersects(prepared, factory, polygonal, 0, 0, 0)) {
+            candidates.add(new int[]{0, 0, 0});
+        }
+        while (!candidates.isEmpty()) {
+            int[] cell = candidates.poll();
+            int cellLevel = cell[0];
+            int x = cell[1];
+            int y = cell[2];
+            if (cellLevel == level || prepared.contains(cellPolygon(factory, cellLevel, x, y, 0))) {
+                cells.add(cellId(cellLevel, x, y));
+                continue;
+            }
+
+            List<int[]> children = new ArrayList<>(4);
+            for (int i = 0; i < 4; i++) {
+                int childX = x * 2 + (i & 1);
+                int childY = y * 2 + (i >> 1);
+                if (intersects(prepared, factory, polygonal, cellLevel + 1, childX, childY)) {
+                    children.add(new int[]{cellLevel + 1, childX, childY});
+                }
+            }
+            if (cells.size() + candidates.size() + children.size() > maxCells) {
+                cells.add(cellId(cellLevel, x, y));
+            } else {
+                candidates.addAll(children);
+            }
+        }
+
+        Collections.sort(cells);
+        return mergeSiblings(cells);
+    }
+
+    /**
+     * Check whether the geometry reaches into the given cell. A polygon has to reach the interior of the cell, which is
+     * tested against the cell shrunk by a small fraction of its size, as {@code touches} is not optimised for
+     * prepared polygons. A line may run along the edge of a cell, so is tested against the whole cell.
+     */
+    private static boolean intersects(PreparedGeometry geometry, GeometryFactory factory, boolean polygonal,
+                                      int cellLevel, int x, int y) {
+        return geometry.intersects(cellPolygon(factory, cellLevel, x, y, polygonal ? INSET : 0));
+    }
+
+    /**
+     * Replace every four sibling cells in the sorted covering with their parent, repeatedly.
+     */
+    private static List<Long> mergeSiblings(List<Long> cells) {
+        List<Long> merged = new ArrayList<>(cells.size());
+        for (long cell : cells) {
+            merged.add(cell);
+            while (merged.size() >= 4) {
+                int size = merged.size();
+                long last = merged.get(size - 1);
+                if (level(last) == 0) {
+                    break;
+                }
+                long lsb = Long.lowestOneBit(last);
+                long parent = parent(last);
+                if (last != parent + 3 * lsb || merged.get(size - 2) != parent + lsb ||
+                        merged.get(size - 3) != parent - lsb || merged.get(size - 4) != parent - 3 * lsb) {
+                    break;
+                }
+                merged.subList(size - 4, size).clear();
+                merged.add(parent);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @param inset The fraction of the cell size to shrink the cell by on each side
+     */
+    private static Polygon cellPolygon(GeometryFactory factory, int cellLevel, int x, int y, double inset) {
+        double width = 360.0 / (1 << cellLevel);
+        double height = 180.0 / (1 << cellLevel);
+        double minX = -180.0 + x * width + width * inset;
+        double minY = -90.0 + y * height + height * inset;
+        double maxX = -180.0 + (x + 1) * width - width * inset;
+        double maxY = -90.0 + (y + 1) * height - height * inset;
+        return factory.createPolygon(factory.createLinearRing(new Coordinate[]{
+                new Coordinate(minX, minY), new Coordinate(maxX, minY), new Coordinate(maxX, maxY),
+                new Coordinate(minX, maxY), new Coordinate(minX, minY)}), null);
+    }
+
+    /**
+     * @return The ID of the cell at the given column and row of the given level
+     */
+    public static long cellId(int cellLevel, int x, int y) {
+        long morton = interleave(x) | (interleave(y) << 1);
+        return ((morton << 1) | 1L) << (2 * (MAX_LEVEL - cellLevel));
+    }
+
+    /**
+     * @return The level of the cell with the given ID
+     */
+    public static int level(long cellId) {
+        return MAX_LEVEL - Long.numberOfTrailingZeros(cellId) / 2;
+    }
+
+    /**
+     * @return The ID of the cell holding the cell with the given ID, one level up
+     */
+    public static long parent(long cellId) {
+        long lsb = Long.lowestOneBit(cellId) << 2;
+        return (cellId & -lsb) | lsb;
+    }
+
+    /**
+     * @return The smallest ID of any cell inside the cell with the given ID, at any level
+     */
+    public static long rangeMin(long cellId) {
+        return cellId - Long.lowestOneBit(cellId) + 1;
+    }
+
+    /**
+     * @return The largest ID of any cell inside the cell with the given ID, at any level
+     */
+    public static long rangeMax(long cellId) {
+        return cellId + Long.lowestOneBit(cellId) - 1;
+    }
+
+    /**
+     * Spread the bits of the given value out to the even bits of a long.
+     */
+    private static long interleave(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+}
@@ -0,0 +1,350 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.impl.CoordinateArraySequence;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A growable list of 2D coordinates, stored as interleaved x/y doubles rather than one {@link Coordinate} object per
+ * point.
+ * <p>
+ * The buffer can be used anywhere a {@code List<Coordinate>} is expected. Coordinates returned by {@link #get(int)}
+ * are copies, so changing them does not change the buffer. Code which walks the whole buffer should use
+ * {@link #getX(int)} and {@link #getY(int)}, and geometries should be built from {@link #toCoordinateSequence()},
+ * so that no per-point objects are created.
+ */
+public class CoordinateBuffer extends AbstractList<Coordinate> implements RandomAccess, CoordinateSink, CoordinateSearch {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] data;
+    private int size;
+    private CoordinateIndex index;
+    private int unindexedQueries;
+
+    public CoordinateBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CoordinateBuffer(int capacity) {
+        this.data = new double[Math.max(1, capacity) * 2];
+    }
+
+    /**
+     * Copy the given coordinates into a new buffer.
+     */
+    public CoordinateBuffer(Collection<? extends Coordinate> coordinates) {
+        this(coordinates.size());
+        addAll(coordinates);
+    }
+
+    /**
+     * Return the given list as a buffer. If it already is one, it is returned as is, otherwise it is copied.
+     */
+    public static CoordinateBuffer of(List<Coordinate> coordinates) {
+        if (coordinates instanceof CoordinateBuffer) {
+            return (CoordinateBuffer) coordinates;
+        }
+        return new CoordinateBuffer(coordinates);
+    }
+
+    /**
+     * Build a JTS coordinate sequence for the given list. Buffers and chains are copied without creating a
+     * {@link Coordinate} per point.
+     */
+    public static CoordinateSequence sequenceOf(List<Coordinate> coordinates) {
+        if (coordinates instanceof CoordinateBuffer) {
+            return ((CoordinateBuffer) coordinates).toCoordinateSequence();
+        } else if (coordinates instanceof CoordinateChain) {
+            return ((CoordinateChain) coordinates).toCoordinateSequence();
+        }
+        return new CoordinateArraySequence(coordinates.toArray(new Coordinate[0]));
+    }
+
+    public double getX(int index) {
+        checkIndex(index);
+        return data[index * 2];
+    }
+
+    public double getY(int index) {
+        checkIndex(index);
+        return data[index * 2 + 1];
+    }
+
+    @Override
+    public Coordinate get(int index) {
+        checkIndex(index);
+        return new Coordinate(data[index * 2], data[index * 2 + 1]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append a point to the end of the buffer.
+     */
+    @Override
+    public void add(double x, double y) {
+        ensureCapacity(size + 1);
+        data[size * 2] = x;
+        data[size * 2 + 1] = y;
+        size++;
+        changed();
+    }
+
+    @Override
+    public boolean add(Coordinate coordinate) {
+        add(coordinate.x, coordinate.y);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Coordinate coordinate) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(data, index * 2, data, (index + 1) * 2, (size - index) * 2);
+        data[index * 2] = coordinate.x;
+        data[index * 2 + 1] = coordinate.y;
+        size++;
+        changed();
+    }
+
+    @Override
+    public Coordinate set(int index, Coordinate coordinate) {
+        Coordinate previous = get(index);
+        data[index * 2] = coordinate.x;
+        data[index * 2 + 1] = coordinate.y;
+        invalidateIndex();
+        return previous;
+    }
+
+    @Override
+    public Coordinate remove(int index) {
+        Coordinate previous = get(index);
+        System.arraycopy(data, (index + 1) * 2, data, index * 2, (size - index - 1) * 2);
+        size--;
+        changed();
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(data, toIndex * 2, data, fromIndex * 2, (size - toIndex) * 2);
+        size -= toIndex - fromIndex;
+        changed();
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        changed();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Coordinate> coordinates) {
+        return addAll(size, coordinates);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Coordinate> coordinates) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int count = coordinates.size();
+        if (count == 0) {
+            return false;
+        }
+        // Take a copy first, in case the buffer is being added to itself
+        double[] values;
+        if (coordinates instanceof CoordinateBuffer) {
+            CoordinateBuffer other = (CoordinateBuffer) coordinates;
+            values = Arrays.copyOf(other.data, count * 2);
+        } else if (coordinates instanceof CoordinateChain) {
+            values = ((CoordinateChain) coordinates).copyCoordinates();
+        } else {
+            values = new double[count * 2];
+            int i = 0;
+            for (Coordinate coordinate : coordinates) {
+                values[i++] = coordinate.x;
+                values[i++] = coordinate.y;
+            }
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(data, index * 2, data, (index + count) * 2, (size - index) * 2);
+        System.arraycopy(values, 0, data, index * 2, count * 2);
+        size += count;
+        changed();
+        return true;
+    }
+
+    /**
+     * Reverse the order of the points in this buffer, in place.
+     */
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            double x = data[i * 2];
+            double y = data[i * 2 + 1];
+            data[i * 2] = data[j * 2];
+            data[i * 2 + 1] = data[j * 2 + 1];
+            data[j * 2] = x;
+            data[j * 2 + 1] = y;
+        }
+        invalidateIndex();
+    }
+
+    /**
+     * Find the index of the point in this buffer closest to the given location. When several points are equally
+     * close, the lowest index is returned, and an empty buffer returns 0.
+     * <p>
+     * The first search after the buffer changes is a linear scan. If the same buffer is searched again before it
+     * changes, a {@link CoordinateIndex} is built and kept for every later search, so repeated searches of a large
+     * side cost a tree lookup rather than a scan each.
+     */
+    @Override
+    public int findClosest(double x, double y) {
+        return findClosest(0, size, x, y);
+    }
+
+    /**
+     * Find the index of the point closest to the given location, out of the points between {@code fromIndex}
+     * (inclusive) and {@code toIndex} (exclusive). Ties go to the lowest index, and an empty range returns
+     * {@code fromIndex}. Searches of any range share the index of the whole buffer.
+     */
+    public int findClosest(int fromIndex, int toIndex, double x, double y) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        if (index == null && size >= CoordinateIndex.MIN_SIZE && unindexedQueries++ > 0) {
+            index = new CoordinateIndex(this);
+        }
+        if (index != null) {
+            return index.nearest(x, y, fromIndex, toIndex);
+        }
+
+        double distance = Double.MAX_VALUE;
+        int closest = fromIndex;
+        for (int i = fromIndex; i < toIndex; i++) {
+            double dx = data[i * 2] - x;
+            double dy = data[i * 2 + 1] - y;
+            double d = Math.sqrt(dx * dx + dy * dy);
+            if (d < distance) {
+                distance = d;
+                closest = i;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return Whether searches of this buffer currently use an index
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Copy the points between {@code fromIndex} (inclusive) and {@code toIndex} (exclusive) into a new buffer.
+     */
+    public CoordinateBuffer slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        CoordinateBuffer slice = new CoordinateBuffer(toIndex - fromIndex);
+        System.arraycopy(data, fromIndex * 2, slice.data, 0, (toIndex - fromIndex) * 2);
+        slice.size = toIndex - fromIndex;
+        return slice;
+    }
+
+    /**
+     * Copy a range of the given list into a new buffer, without creating intermediate coordinates when the list is
+     * already a buffer.
+     */
+    public static CoordinateBuffer copyOf(List<Coordinate> coordinates, int fromIndex, int toIndex) {
+        if (coordinates instanceof CoordinateBuffer) {
+            return ((CoordinateBuffer) coordinates).slice(fromIndex, toIndex);
+        }
+        return new CoordinateBuffer(coordinates.subList(fromIndex, toIndex));
+    }
+
+    /**
+     * Append a point to the given list, without creating a {@link Coordinate} when the list is a buffer.
+     */
+    public static void append(List<Coordinate> coordinates, double x, double y) {
+        if (coordinates instanceof CoordinateBuffer) {
+            ((CoordinateBuffer) coordinates).add(x, y);
+        } else {
+            coordinates.add(new Coordinate(x, y));
+        }
+    }
+
+    /**
+     * Return a sink which appends to the given list. Buffers are their own sink, other lists are wrapped.
+     */
+    public static CoordinateSink sinkOf(List<Coordinate> coordinates) {
+        if (coordinates instanceof CoordinateBuffer) {
+            return (CoordinateBuffer) coordinates;
+        }
+        return (x, y) -> coordinates.add(new Coordinate(x, y));
+    }
+
+    /**
+     * Reverse the given list in place.
+     */
+    public static void reverse(List<Coordinate> coordinates) {
+        if (coordinates instanceof CoordinateBuffer) {
+            ((CoordinateBuffer) coordinates).reverse();
+        } else if (coordinates instanceof CoordinateChain) {
+            ((CoordinateChain) coordinates).reverse();
+        } else {
+            Collections.reverse(coordinates);
+        }
+    }
+
+    /**
+     * Build a JTS coordinate sequence holding a copy of the points in this buffer. Only the interleaved doubles are
+     * copied; {@link Coordinate} objects are created lazily, and only if a JTS operation asks for them.
+     */
+    public CoordinateSequence toCoordinateSequence() {
+        return new CoordinateBufferSequence(Arrays.copyOf(data, size * 2), size);
+    }
+
+    /**
+     * Copy the points in this buffer into a new array of interleaved x/y values.
+     */
+    double[] copyCoordinates() {
+        return Arrays.copyOf(data, size * 2);
+    }
+
+    private void changed() {
+        modCount++;
+        invalidateIndex();
+    }
+
+    private void invalidateIndex() {
+        index = null;
+        unindexedQueries = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity * 2 > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity * 2, data.length * 2));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
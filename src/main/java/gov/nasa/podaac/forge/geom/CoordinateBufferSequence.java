@@ -0,0 +1,143 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Envelope;
+
+import java.util.Arrays;
+
+/**
+ * A JTS {@link CoordinateSequence} over interleaved x/y doubles, as produced by {@link CoordinateBuffer}.
+ * <p>
+ * Ordinates are read straight from the packed array. {@link Coordinate} objects are only created the first time a
+ * JTS operation asks for the whole array, and from then on the materialized coordinates are the authoritative copy,
+ * because some JTS operations update the array returned by {@link #toCoordinateArray()} in place.
+ */
+class CoordinateBufferSequence implements CoordinateSequence {
+
+    private final double[] data;
+    private final int size;
+    private Coordinate[] coordinates;
+
+    CoordinateBufferSequence(double[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public Coordinate getCoordinate(int i) {
+        // The sequence contract allows a copy to be returned, which avoids materializing every point for
+        // operations which only look at a few of them (such as the closed ring check).
+        return coordinates != null ? coordinates[i] : new Coordinate(data[i * 2], data[i * 2 + 1]);
+    }
+
+    @Override
+    public Coordinate getCoordinateCopy(int i) {
+        return new Coordinate(getX(i), getY(i));
+    }
+
+    @Override
+    public void getCoordinate(int index, Coordinate coord) {
+        coord.x = getX(index);
+        coord.y = getY(index);
+    }
+
+    @Override
+    public double getX(int index) {
+        return coordinates != null ? coordinates[index].x : data[index * 2];
+    }
+
+    @Override
+    public double getY(int index) {
+        return coordinates != null ? coordinates[index].y : data[index * 2 + 1];
+    }
+
+    @Override
+    public double getOrdinate(int index, int ordinateIndex) {
+        switch (ordinateIndex) {
+            case CoordinateSequence.X:
+                return getX(index);
+            case CoordinateSequence.Y:
+                return getY(index);
+            case CoordinateSequence.Z:
+                return coordinates != null ? coordinates[index].z : Double.NaN;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOrdinate(int index, int ordinateIndex, double value) {
+        if (ordinateIndex == CoordinateSequence.X) {
+            data[index * 2] = value;
+            if (coordinates != null) {
+                coordinates[index].x = value;
+            }
+        } else if (ordinateIndex == CoordinateSequence.Y) {
+            data[index * 2 + 1] = value;
+            if (coordinates != null) {
+                coordinates[index].y = value;
+            }
+        } else if (ordinateIndex == CoordinateSequence.Z && coordinates != null) {
+            coordinates[index].z = value;
+        }
+    }
+
+    @Override
+    public Coordinate[] toCoordinateArray() {
+        if (coordinates == null) {
+            Coordinate[] materialized = new Coordinate[size];
+            for (int i = 0; i < size; i++) {
+                materialized[i] = new Coordinate(data[i * 2], data[i * 2 + 1]);
+            }
+            coordinates = materialized;
+        }
+        return coordinates;
+    }
+
+    @Override
+    public Envelope expandEnvelope(Envelope env) {
+        for (int i = 0; i < size; i++) {
+            env.expandToInclude(getX(i), getY(i));
+        }
+        return env;
+    }
+
+    @Override
+    public Object clone() {
+        CoordinateBufferSequence copy;
+        if (coordinates == null) {
+            copy = new CoordinateBufferSequence(Arrays.copyOf(data, data.length), size);
+        } else {
+            double[] values = new double[size * 2];
+            for (int i = 0; i < size; i++) {
+                values[i * 2] = coordinates[i].x;
+                values[i * 2 + 1] = coordinates[i].y;
+            }
+            copy = new CoordinateBufferSequence(values, size);
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(getX(i)).append(" ").append(getY(i));
+        }
+        return builder.append(")").toString();
+    }
+}
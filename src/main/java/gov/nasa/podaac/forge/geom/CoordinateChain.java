@@ -0,0 +1,542 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list of 2D coordinates made of runs, where each run is a range of another buffer's points, read forwards or
+ * backwards, or a few points owned by the chain (such as the synthetic -180/180 points added when an edge is split).
+ * <p>
+ * Appending or prepending another chain, and reversing the chain, only changes the list of runs, so rings can be
+ * assembled from the pieces of a split edge without copying their points. Appending single points adds them to an
+ * owned run at the end of the chain. Any other change, such as inserting or removing points in the middle of the chain,
+ * first copies the chain into a {@link CoordinateBuffer}, which is used from then on.
+ * <p>
+ * Runs over a buffer read the buffer's points when they are accessed, so a chain must not be used after the buffer it
+ * was built from is changed in place.
+ * <p>
+ * The chain and its sub lists can find the point closest to a location, in the same way as a {@link CoordinateBuffer}:
+ * the first search after a change scans the runs, and a repeated search builds a {@link CoordinateIndex} over the
+ * chain which every later search of the chain, or of any of its sub lists, uses until the chain changes.
+ */
+public class CoordinateChain extends AbstractList<Coordinate> implements RandomAccess, CoordinateSink,
+        CoordinateSearch {
+
+    private List<Run> runs = new ArrayList<>();
+    private int size;
+    private int[] offsets;
+    private CoordinateBuffer flat;
+    private CoordinateIndex index;
+    private int unindexedQueries;
+
+    public CoordinateChain() {
+    }
+
+    /**
+     * Create a chain holding the given coordinates. The runs of a chain are shared, anything else is copied.
+     */
+    public CoordinateChain(Collection<? extends Coordinate> coordinates) {
+        addAll(coordinates);
+    }
+
+    /**
+     * Append the points of the given buffer between {@code fromIndex} (inclusive) and {@code toIndex} (exclusive),
+     * without copying them. If the range follows on from the last run, that run is extended.
+     */
+    public void addRange(CoordinateBuffer source, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > source.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + source.size());
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        if (flat != null) {
+            flat.addAll(source.subList(fromIndex, toIndex));
+            modCount++;
+            return;
+        }
+        Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        if (last != null && last.source == source && !last.reversed && last.end == fromIndex) {
+            last.end = toIndex;
+        } else {
+            runs.add(new Run(source, fromIndex, toIndex, false));
+        }
+        changed(toIndex - fromIndex);
+    }
+
+    public double getX(int index) {
+        if (flat != null) {
+            return flat.getX(index);
+        }
+        checkIndex(index);
+        int run = findRun(index);
+        return runs.get(run).getX(index - offsets[run]);
+    }
+
+    public double getY(int index) {
+        if (flat != null) {
+            return flat.getY(index);
+        }
+        checkIndex(index);
+        int run = findRun(index);
+        return runs.get(run).getY(index - offsets[run]);
+    }
+
+    @Override
+    public Coordinate get(int index) {
+        if (flat != null) {
+            return flat.get(index);
+        }
+        checkIndex(index);
+        int run = findRun(index);
+        Run r = runs.get(run);
+        return new Coordinate(r.getX(index - offsets[run]), r.getY(index - offsets[run]));
+    }
+
+    @Override
+    public int size() {
+        return flat != null ? flat.size() : size;
+    }
+
+    /**
+     * Append a point to the end of the chain.
+     */
+    @Override
+    public void add(double x, double y) {
+        if (flat != null) {
+            flat.add(x, y);
+            modCount++;
+            return;
+        }
+        Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        if (last == null || !last.isOwnedTail()) {
+            last = new Run(new CoordinateBuffer(), 0, 0, false);
+            last.owned = true;
+            runs.add(last);
+        }
+        last.source.add(x, y);
+        last.end++;
+        changed(1);
+    }
+
+    @Override
+    public boolean add(Coordinate coordinate) {
+        add(coordinate.x, coordinate.y);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Coordinate coordinate) {
+        if (flat == null && index == size) {
+            add(coordinate.x, coordinate.y);
+        } else if (flat == null && index == 0) {
+            addAll(0, Collections.singletonList(coordinate));
+        } else {
+            flatten().add(index, coordinate);
+            modCount++;
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Coordinate> coordinates) {
+        return addAll(size(), coordinates);
+    }
+
+    /**
+     * Insert the given coordinates. At the start or end of the chain, the runs of another chain are shared, and other
+     * coordinates are copied into a single new run. Anywhere else, the chain is flattened first.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Coordinate> coordinates) {
+        if (coordinates.isEmpty()) {
+            return false;
+        }
+        if (flat != null || (index != 0 && index != size)) {
+            boolean changed = flatten().addAll(index, coordinates);
+            modCount++;
+            return changed;
+        }
+
+        List<Run> added = new ArrayList<>();
+        if (coordinates instanceof CoordinateChain && ((CoordinateChain) coordinates).flat == null) {
+            // Share the other chain's runs. The copies never write to an owned run, so the other chain can keep
+            // appending to it.
+            for (Run run : ((CoordinateChain) coordinates).runs) {
+                added.add(new Run(run.source, run.start, run.end, run.reversed));
+            }
+        } else {
+            CoordinateBuffer copy = new CoordinateBuffer(coordinates);
+            Run run = new Run(copy, 0, copy.size(), false);
+            run.owned = true;
+            added.add(run);
+        }
+        runs.addAll(index == 0 ? 0 : runs.size(), added);
+        changed(coordinates.size());
+        return true;
+    }
+
+    @Override
+    public Coordinate set(int index, Coordinate coordinate) {
+        return flatten().set(index, coordinate);
+    }
+
+    @Override
+    public Coordinate remove(int index) {
+        Coordinate previous = flatten().remove(index);
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        flatten().subList(fromIndex, toIndex).clear();
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        runs = new ArrayList<>();
+        flat = null;
+        size = 0;
+        offsets = null;
+        invalidateIndex();
+        modCount++;
+    }
+
+    /**
+     * Return a view of the points between {@code fromIndex} (inclusive) and {@code toIndex} (exclusive), which
+     * changes with this chain, as {@link AbstractList#subList} does, and which searches for the closest point with
+     * the index of this chain.
+     */
+    @Override
+    public List<Coordinate> subList(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex, size());
+        return new SubChain(null, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Find the index of the point in this chain closest to the given location. When several points are equally
+     * close, the lowest index is returned, and an empty chain returns 0.
+     */
+    @Override
+    public int findClosest(double x, double y) {
+        return findClosest(0, size(), x, y);
+    }
+
+    /**
+     * Find the index of the point closest to the given location, out of the points between {@code fromIndex}
+     * (inclusive) and {@code toIndex} (exclusive). Ties go to the lowest index, and an empty range returns
+     * {@code fromIndex}.
+     */
+    public int findClosest(int fromIndex, int toIndex, double x, double y) {
+        if (flat != null) {
+            return flat.findClosest(fromIndex, toIndex, x, y);
+        }
+        checkRange(fromIndex, toIndex, size);
+        if (index == null && size >= CoordinateIndex.MIN_SIZE && unindexedQueries++ > 0) {
+            index = new CoordinateIndex(copyCoordinates(), size);
+        }
+        if (index != null) {
+            return index.nearest(x, y, fromIndex, toIndex);
+        }
+
+        double distance = Double.MAX_VALUE;
+        int closest = fromIndex;
+        if (fromIndex == toIndex) {
+            return closest;
+        }
+        int run = findRun(fromIndex);
+        int offset = offsets[run];
+        for (int i = fromIndex; i < toIndex; run++) {
+            Run r = runs.get(run);
+            int end = Math.min(toIndex, offset + r.size());
+            for (; i < end; i++) {
+                double dx = r.getX(i - offset) - x;
+                double dy = r.getY(i - offset) - y;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                if (d < distance) {
+                    distance = d;
+                    closest = i;
+                }
+            }
+            offset += r.size();
+        }
+        return closest;
+    }
+
+    /**
+     * @return Whether searches of this chain currently use an index
+     */
+    public boolean isIndexed() {
+        return flat != null ? flat.isIndexed() : index != null;
+    }
+
+    /**
+     * Reverse the order of the points in this chain, by reversing the order and direction of its runs.
+     */
+    public void reverse() {
+        if (flat != null) {
+            flat.reverse();
+            return;
+        }
+        Collections.reverse(runs);
+        for (int i = 0; i < runs.size(); i++) {
+            Run run = runs.get(i);
+            Run reversed = new Run(run.source, run.start, run.end, !run.reversed);
+            runs.set(i, reversed);
+        }
+        offsets = null;
+        invalidateIndex();
+    }
+
+    /**
+     * Build a JTS coordinate sequence holding a copy of the points in this chain.
+     */
+    public CoordinateSequence toCoordinateSequence() {
+        if (flat != null) {
+            return flat.toCoordinateSequence();
+        }
+        return new CoordinateBufferSequence(copyCoordinates(), size);
+    }
+
+    /**
+     * Copy the points in this chain into a new array of interleaved x/y values.
+     */
+    double[] copyCoordinates() {
+        if (flat != null) {
+            return flat.copyCoordinates();
+        }
+        double[] values = new double[size * 2];
+        int offset = 0;
+        for (Run run : runs) {
+            offset = run.copyTo(values, offset);
+        }
+        return values;
+    }
+
+    /**
+     * @return The number of runs in the chain, or 0 once it has been flattened.
+     */
+    int runCount() {
+        return flat != null ? 0 : runs.size();
+    }
+
+    private CoordinateBuffer flatten() {
+        if (flat == null) {
+            CoordinateBuffer buffer = new CoordinateBuffer(size);
+            buffer.addAll(this);
+            flat = buffer;
+            runs = null;
+            offsets = null;
+            invalidateIndex();
+        }
+        return flat;
+    }
+
+    private void changed(int added) {
+        size += added;
+        offsets = null;
+        invalidateIndex();
+        modCount++;
+    }
+
+    private void invalidateIndex() {
+        index = null;
+        unindexedQueries = 0;
+    }
+
+    /**
+     * Find the run holding the given index, by binary search on the start offset of each run.
+     */
+    private int findRun(int index) {
+        if (offsets == null) {
+            offsets = new int[runs.size()];
+            int offset = 0;
+            for (int i = 0; i < runs.size(); i++) {
+                offsets[i] = offset;
+                offset += runs.get(i).size();
+            }
+        }
+        // Runs are never empty, so each offset is distinct
+        int run = Arrays.binarySearch(offsets, index);
+        return run < 0 ? -run - 2 : run;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static void checkRange(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+    }
+
+    /**
+     * A view of a range of the chain, or of a range of another view. Changes are made to the chain, and the sizes of
+     * this view and the views it was taken from are kept up to date, as with the sub lists of an
+     * {@link AbstractList}.
+     */
+    private class SubChain extends AbstractList<Coordinate> implements RandomAccess, CoordinateSearch {
+        private final SubChain parent;
+        private final int offset;
+        private int size;
+
+        SubChain(SubChain parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.modCount = CoordinateChain.this.modCount;
+        }
+
+        @Override
+        public Coordinate get(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            return CoordinateChain.this.get(offset + index);
+        }
+
+        @Override
+        public Coordinate set(int index, Coordinate coordinate) {
+            checkIndex(index, size);
+            checkForComodification();
+            return CoordinateChain.this.set(offset + index, coordinate);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public void add(int index, Coordinate coordinate) {
+            checkIndex(index, size + 1);
+            checkForComodification();
+            CoordinateChain.this.add(offset + index, coordinate);
+            changed(1);
+        }
+
+        @Override
+        public Coordinate remove(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            Coordinate previous = CoordinateChain.this.remove(offset + index);
+            changed(-1);
+            return previous;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            CoordinateChain.this.removeRange(offset + fromIndex, offset + toIndex);
+            changed(fromIndex - toIndex);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Coordinate> coordinates) {
+            return addAll(size, coordinates);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends Coordinate> coordinates) {
+            checkIndex(index, size + 1);
+            checkForComodification();
+            int count = coordinates.size();
+            if (count == 0) {
+                return false;
+            }
+            CoordinateChain.this.addAll(offset + index, coordinates);
+            changed(count);
+            return true;
+        }
+
+        @Override
+        public List<Coordinate> subList(int fromIndex, int toIndex) {
+            checkRange(fromIndex, toIndex, size);
+            checkForComodification();
+            return new SubChain(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public int findClosest(double x, double y) {
+            checkForComodification();
+            return CoordinateChain.this.findClosest(offset, offset + size, x, y) - offset;
+        }
+
+        private void changed(int added) {
+            for (SubChain view = this; view != null; view = view.parent) {
+                view.size += added;
+                view.modCount = CoordinateChain.this.modCount;
+            }
+        }
+
+        private void checkForComodification() {
+            if (modCount != CoordinateChain.this.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void checkIndex(int index, int limit) {
+            if (index < 0 || index >= limit) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
+
+    /**
+     * A range of points from a buffer, read forwards or backwards.
+     */
+    private static class Run {
+        private final CoordinateBuffer source;
+        private final int start;
+        private int end;
+        private final boolean reversed;
+        private boolean owned;
+
+        Run(CoordinateBuffer source, int start, int end, boolean reversed) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.reversed = reversed;
+        }
+
+        int size() {
+            return end - start;
+        }
+
+        /**
+         * Whether points can be appended to this run, which is only true of a run owned by its chain, read forwards.
+         */
+        boolean isOwnedTail() {
+            return owned && !reversed && end == source.size();
+        }
+
+        double getX(int index) {
+            return source.getX(reversed ? end - 1 - index : start + index);
+        }
+
+        double getY(int index) {
+            return source.getY(reversed ? end - 1 - index : start + index);
+        }
+
+        int copyTo(double[] values, int offset) {
+            for (int i = 0; i < size(); i++) {
+                values[offset++] = getX(i);
+                values[offset++] = getY(i);
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package gov.nasa.podaac.forge.geom;
+
+/**
+ * A static KD-tree over a snapshot of the points in a {@link CoordinateBuffer}, used to find the point closest to a
+ * given location without scanning every point.
+ * <p>
+ * The tree is stored implicitly in arrays: each node is the median of its range, and its children are the ranges on
+ * either side of it. Each range is split along the axis with the larger extent, which suits the long, thin sides
+ * produced by the polar strategies. The nearest search returns exactly what a linear scan comparing
+ * {@link com.vividsolutions.jts.geom.Coordinate#distance} would, including taking the lowest index when several points
+ * are equally close.
+ * <p>
+ * A search can be limited to a range of indices, so a view of part of a list can be searched with the index of the
+ * whole list. Each node records the lowest and highest index below it, and a node with none in the range is skipped.
+ * Neighbouring points of a side are close together, so a range is usually found in a few branches of the tree.
+ */
+public class CoordinateIndex {
+
+    /**
+     * The fewest points worth building an index for.
+     */
+    static final int MIN_SIZE = 64;
+
+    private static final int LEAF_SIZE = 8;
+
+    // Pruning is done on squared distances, with enough slack that a point whose distance rounds to the same value
+    // as the best so far is never skipped, so ties are always resolved by index.
+    private static final double PRUNE_SLACK = 1 + 1e-9;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] indices;
+    private final boolean[] splitX;
+    private final int[] minIndex;
+    private final int[] maxIndex;
+    private final int size;
+
+    /**
+     * Build an index over the points in the given buffer. Later changes to the buffer are not reflected in the index.
+     */
+    public CoordinateIndex(CoordinateBuffer buffer) {
+        this(buffer.copyCoordinates(), buffer.size());
+    }
+
+    /**
+     * Build an index over the first {@code count} points of the given interleaved x/y values.
+     */
+    CoordinateIndex(double[] values, int count) {
+        int[] valid = new int[count];
+        int validCount = 0;
+        for (int i = 0; i < count; i++) {
+            // A NaN point is never the closest, so leave it out of the tree
+            if (!Double.isNaN(values[i * 2]) && !Double.isNaN(values[i * 2 + 1])) {
+                valid[validCount++] = i;
+            }
+        }
+
+        size = validCount;
+        xs = new double[size];
+        ys = new double[size];
+        indices = new int[size];
+        splitX = new boolean[size];
+        minIndex = new int[size];
+        maxIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = values[valid[i] * 2];
+            ys[i] = values[valid[i] * 2 + 1];
+            indices[i] = valid[i];
+        }
+        build(0, size);
+    }
+
+    /**
+     * @return The number of points in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the index, in the buffer the index was built from, of the point closest to the given location.
+     *
+     * @return The index of the closest point, or 0 if there is no point with a finite distance to the location.
+     */
+    public int nearest(double x, double y) {
+        return nearest(x, y, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the index, in the buffer the index was built from, of the point closest to the given location, out of the
+     * points between {@code fromIndex} (inclusive) and {@code toIndex} (exclusive).
+     *
+     * @return The index of the closest point, or {@code fromIndex} if there is no point in the range with a finite
+     * distance to the location.
+     */
+    public int nearest(double x, double y, int fromIndex, int toIndex) {
+        Search search = new Search(x, y, fromIndex, toIndex);
+        if (!Double.isNaN(x) && !Double.isNaN(y)) {
+            search(0, size, search);
+        }
+        return search.index;
+    }
+
+    private void build(int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+            lowest = Math.min(lowest, indices[i]);
+            highest = Math.max(highest, indices[i]);
+        }
+        boolean alongX = maxX - minX >= maxY - minY;
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, alongX);
+        splitX[mid] = alongX;
+        minIndex[mid] = lowest;
+        maxIndex[mid] = highest;
+        build(from, mid);
+        build(mid + 1, to);
+    }
+
+    /**
+     * Partially sort the range so the point at {@code k} is the median along the given axis, with no larger point
+     * before it and no smaller point after it.
+     */
+    private void select(int left, int right, int k, boolean alongX) {
+        double[] values = alongX ? xs : ys;
+        while (right > left) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+    }
+
+    private void search(int from, int to, Search search) {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to; i++) {
+                search.offer(xs[i], ys[i], indices[i]);
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        if (maxIndex[mid] < search.fromIndex || minIndex[mid] >= search.toIndex) {
+            return;
+        }
+        search.offer(xs[mid], ys[mid], indices[mid]);
+
+        double delta = splitX[mid] ? search.x - xs[mid] : search.y - ys[mid];
+        if (delta < 0) {
+            search(from, mid, search);
+            if (delta * delta <= search.distanceSquared * PRUNE_SLACK) {
+                search(mid + 1, to, search);
+            }
+        } else {
+            search(mid + 1, to, search);
+            if (delta * delta <= search.distanceSquared * PRUNE_SLACK) {
+                search(from, mid, search);
+            }
+        }
+    }
+
+    /**
+     * The state of a single nearest search.
+     */
+    private static class Search {
+        private final double x;
+        private final double y;
+        private final int fromIndex;
+        private final int toIndex;
+        private double distance = Double.MAX_VALUE;
+        private double distanceSquared = Double.POSITIVE_INFINITY;
+        private int index;
+        private boolean found;
+
+        Search(double x, double y, int fromIndex, int toIndex) {
+            this.x = x;
+            this.y = y;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.index = fromIndex;
+        }
+
+        void offer(double px, double py, int candidate) {
+            if (candidate < fromIndex || candidate >= toIndex) {
+                return;
+            }
+            double dx = px - x;
+            double dy = py - y;
+            double squared = dx * dx + dy * dy;
+            double d = Math.sqrt(squared);
+            if (d < distance || (found && d == distance && candidate < index)) {
+                distance = d;
+                distanceSquared = squared;
+                index = candidate;
+                found = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package gov.nasa.podaac.forge.geom;
+
+/**
+ * A list of lon/lat points which can find the point closest to a location itself, without a
+ * {@link com.vividsolutions.jts.geom.Coordinate} being created for each point, and using an index when it is searched
+ * repeatedly.
+ */
+public interface CoordinateSearch {
+
+    /**
+     * Find the index of the point closest to the given location. When several points are equally close, the lowest
+     * index is returned, and an empty list returns 0.
+     *
+     * @param x The x value (longitude)
+     * @param y The y value (latitude)
+     */
+    int findClosest(double x, double y);
+}
@@ -0,0 +1,16 @@
+package gov.nasa.podaac.forge.geom;
+
+/**
+ * Receives lon/lat points one at a time, without a {@link com.vividsolutions.jts.geom.Coordinate} being created for
+ * each point.
+ */
+public interface CoordinateSink {
+
+    /**
+     * Accept a point.
+     *
+     * @param x The x value (longitude)
+     * @param y The y value (latitude)
+     */
+    void add(double x, double y);
+}
@@ -0,0 +1,216 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.algorithm.LineIntersector;
+import com.vividsolutions.jts.algorithm.RobustLineIntersector;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import com.vividsolutions.jts.index.chain.MonotoneChain;
+import com.vividsolutions.jts.index.chain.MonotoneChainBuilder;
+import com.vividsolutions.jts.index.chain.MonotoneChainOverlapAction;
+import com.vividsolutions.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the points where lines cross, without building a geometry for the result.
+ * <p>
+ * Each line is broken into monotone chains, and the chains of one line are indexed in an STRtree, so only segments in
+ * chains with overlapping envelopes are ever tested against each other. Each pair of segments is tested with a
+ * {@link RobustLineIntersector}, using the given precision model, so proper crossings are rounded in the same way as a
+ * JTS overlay with that precision model would round them.
+ */
+public class LineCrossings {
+
+    private static final Comparator<Crossing> BY_POINT = (a, b) -> a.point.compareTo(b.point);
+
+    // A line intersector reports two intersection points when the segments overlap
+    private static final int COLLINEAR = 2;
+
+    private final PrecisionModel precisionModel;
+
+    public LineCrossings(PrecisionModel precisionModel) {
+        this.precisionModel = precisionModel;
+    }
+
+    /**
+     * Find the points where two lines intersect.
+     *
+     * @return The distinct intersection points, ordered by x then y, each with the first pair of segments found at that
+     * point. The ends of a collinear overlap are included, and marked as such.
+     */
+    public List<Crossing> crossings(List<Coordinate> line1, List<Coordinate> line2) {
+        Coordinate[] points1 = toArray(line1);
+        Coordinate[] points2 = toArray(line2);
+        List<Crossing> crossings = new ArrayList<>();
+        if (points1.length < 2 || points2.length < 2) {
+            return crossings;
+        }
+
+        STRtree tree = new STRtree();
+        for (Object chain : MonotoneChainBuilder.getChains(points2)) {
+            tree.insert(((MonotoneChain) chain).getEnvelope(), chain);
+        }
+
+        LineIntersector intersector = intersector();
+        MonotoneChainOverlapAction action = new MonotoneChainOverlapAction() {
+            @Override
+            public void overlap(MonotoneChain chain1, int start1, MonotoneChain chain2, int start2) {
+                intersector.computeIntersection(points1[start1], points1[start1 + 1], points2[start2], points2[start2 + 1]);
+                if (intersector.hasIntersection()) {
+                    boolean collinear = intersector.getIntersectionNum() == COLLINEAR;
+                    for (int i = 0; i < intersector.getIntersectionNum(); i++) {
+                        crossings.add(new Crossing(new Coordinate(intersector.getIntersection(i)), start1, start2,
+                                collinear));
+                    }
+                }
+            }
+        };
+        for (Object chain : MonotoneChainBuilder.getChains(points1)) {
+            MonotoneChain chain1 = (MonotoneChain) chain;
+            for (Object other : tree.query(chain1.getEnvelope())) {
+                chain1.computeOverlaps((MonotoneChain) other, action);
+            }
+        }
+        return distinct(crossings);
+    }
+
+    /**
+     * Check whether a line is simple, meaning it does not touch or cross itself anywhere other than at the shared
+     * vertex of consecutive segments, or where the ends meet if the line is closed. Repeated points are ignored.
+     */
+    public boolean isSimple(List<Coordinate> line) {
+        Coordinate[] points = removeRepeatedPoints(toArray(line));
+        if (points.length < 3) {
+            return true;
+        }
+        boolean closed = points[0].equals2D(points[points.length - 1]);
+        int lastSegment = points.length - 2;
+
+        List<?> chains = MonotoneChainBuilder.getChains(points);
+        STRtree tree = new STRtree();
+        for (int i = 0; i < chains.size(); i++) {
+            MonotoneChain chain = (MonotoneChain) chains.get(i);
+            chain.setId(i);
+            tree.insert(chain.getEnvelope(), chain);
+        }
+
+        LineIntersector intersector = intersector();
+        boolean[] simple = {true};
+        MonotoneChainOverlapAction action = new MonotoneChainOverlapAction() {
+            @Override
+            public void overlap(MonotoneChain chain1, int start1, MonotoneChain chain2, int start2) {
+                int first = Math.min(start1, start2);
+                int second = Math.max(start1, start2);
+                if (first == second) {
+                    return;
+                }
+                intersector.computeIntersection(points[first], points[first + 1], points[second], points[second + 1]);
+                if (!intersector.hasIntersection()) {
+                    return;
+                }
+                // Consecutive segments always share a vertex, which is only a problem if they also overlap
+                boolean consecutive = second == first + 1 || (closed && first == 0 && second == lastSegment);
+                if (!consecutive || intersector.getIntersectionNum() == COLLINEAR) {
+                    simple[0] = false;
+                }
+            }
+        };
+        for (Object chain : chains) {
+            MonotoneChain chain1 = (MonotoneChain) chain;
+            for (Object other : tree.query(chain1.getEnvelope())) {
+                MonotoneChain chain2 = (MonotoneChain) other;
+                // Test each pair of chains once. A monotone chain cannot cross itself.
+                if (chain2.getId() > chain1.getId()) {
+                    chain1.computeOverlaps(chain2, action);
+                    if (!simple[0]) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private LineIntersector intersector() {
+        LineIntersector intersector = new RobustLineIntersector();
+        intersector.setPrecisionModel(precisionModel);
+        return intersector;
+    }
+
+    private static Coordinate[] toArray(List<Coordinate> line) {
+        return CoordinateBuffer.sequenceOf(line).toCoordinateArray();
+    }
+
+    private static Coordinate[] removeRepeatedPoints(Coordinate[] points) {
+        List<Coordinate> unique = new ArrayList<>(points.length);
+        for (Coordinate point : points) {
+            if (unique.isEmpty() || !unique.get(unique.size() - 1).equals2D(point)) {
+                unique.add(point);
+            }
+        }
+        return unique.toArray(new Coordinate[0]);
+    }
+
+    /**
+     * Sort the crossings by point and keep the first crossing found at each point, marking it collinear if any
+     * crossing at that point was.
+     */
+    private static List<Crossing> distinct(List<Crossing> crossings) {
+        List<Crossing> sorted = new ArrayList<>(crossings);
+        sorted.sort(BY_POINT);
+        List<Crossing> distinct = new ArrayList<>();
+        for (Crossing crossing : sorted) {
+            Crossing last = distinct.isEmpty() ? null : distinct.get(distinct.size() - 1);
+            if (last != null && last.point.equals2D(crossing.point)) {
+                last.collinear |= crossing.collinear;
+            } else {
+                distinct.add(crossing);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * A point where two lines intersect, with the index of the segment of each line it was found on.
+     */
+    public static class Crossing {
+        private final Coordinate point;
+        private final int segment1;
+        private final int segment2;
+        private boolean collinear;
+
+        Crossing(Coordinate point, int segment1, int segment2, boolean collinear) {
+            this.point = point;
+            this.segment1 = segment1;
+            this.segment2 = segment2;
+            this.collinear = collinear;
+        }
+
+        public Coordinate getPoint() {
+            return point;
+        }
+
+        /**
+         * The index of the segment of the first line, which runs from point {@code segment1} to {@code segment1 + 1}.
+         */
+        public int getSegment1() {
+            return segment1;
+        }
+
+        /**
+         * The index of the segment of the second line.
+         */
+        public int getSegment2() {
+            return segment2;
+        }
+
+        /**
+         * Whether the point is an end of a stretch where the lines run along each other, rather than a single point.
+         */
+        public boolean isCollinear() {
+            return collinear;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Polygon;
+
+/**
+ * Detects whether a polygon meets a meridian along a stretch of positive length, which is what intersecting the
+ * polygon with a line along the meridian and checking the length of the result would tell, without the overlay.
+ * <p>
+ * The interior of a valid polygon is connected, so it crosses the meridian exactly when the polygon has vertices on
+ * both sides of it. Otherwise, the polygon can only meet the meridian along an edge which lies on it. Points are fed
+ * in one at a time, so the check is a single pass over the coordinates, with no allocation per point, and can be run
+ * alongside any other pass over the same points.
+ */
+public class MeridianCrossing implements CoordinateSink {
+
+    private final double meridian;
+    private boolean west;
+    private boolean east;
+    private boolean along;
+    private boolean hasPrevious;
+    private double previousX;
+    private double previousY;
+
+    /**
+     * @param meridian The longitude of the meridian
+     */
+    public MeridianCrossing(double meridian) {
+        this.meridian = meridian;
+    }
+
+    /**
+     * Check whether the given polygon meets the given meridian along a stretch of positive length.
+     */
+    public static boolean crosses(Polygon polygon, double meridian) {
+        MeridianCrossing crossing = new MeridianCrossing(meridian);
+        crossing.addRing(polygon.getExteriorRing().getCoordinateSequence());
+        for (int i = 0; i < polygon.getNumInteriorRing() && !crossing.isCrossed(); i++) {
+            crossing.addRing(polygon.getInteriorRingN(i).getCoordinateSequence());
+        }
+        return crossing.isCrossed();
+    }
+
+    /**
+     * Add the next point of the current ring.
+     */
+    @Override
+    public void add(double x, double y) {
+        if (x < meridian) {
+            west = true;
+        } else if (x > meridian) {
+            east = true;
+        } else if (hasPrevious && previousX == meridian && previousY != y) {
+            along = true;
+        }
+        hasPrevious = true;
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * Start a new ring, so that its first point is not joined to the last point of the previous ring.
+     */
+    public void startRing() {
+        hasPrevious = false;
+    }
+
+    /**
+     * @return {@code true} if the points added so far cross the meridian, or run along it.
+     */
+    public boolean isCrossed() {
+        return (west && east) || along;
+    }
+
+    private void addRing(CoordinateSequence ring) {
+        startRing();
+        for (int i = 0; i < ring.size(); i++) {
+            add(ring.getX(i), ring.getY(i));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import com.vividsolutions.jts.operation.union.CascadedPolygonUnion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Unions a set of polygons by first partitioning them into groups whose envelopes overlap, directly or through other
+ * polygons in the group.
+ * <p>
+ * Polygons in different groups cannot overlap, so they are never overlaid: a group of one polygon is kept as is, and
+ * each larger group is unioned on its own with a {@link CascadedPolygonUnion}. The groups are independent, so they are
+ * unioned in parallel on a fork-join pool. The result is the collection of the group results, in the order of the
+ * first polygon of each group in the input.
+ */
+public class PartitionedUnion {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedUnion.class);
+
+    private PartitionedUnion() {
+    }
+
+    /**
+     * Union the given polygonal geometries on the common fork-join pool.
+     */
+    public static Geometry union(Collection<? extends Geometry> geometries, GeometryFactory geometryFactory) {
+        return union(geometries, geometryFactory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Union the given polygonal geometries, using the given pool for groups of more than one polygon.
+     *
+     * @param geometries      Polygons or MultiPolygons to union
+     * @param geometryFactory Factory used to build the result
+     * @param pool            Pool used to union the groups in parallel
+     * @return The union, as a Polygon if it has a single part, otherwise a MultiPolygon
+     */
+    public static Geometry union(Collection<? extends Geometry> geometries, GeometryFactory geometryFactory,
+                                 ForkJoinPool pool) {
+        List<Polygon> polygons = new ArrayList<>();
+        for (Geometry geometry : geometries) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Geometry part = geometry.getGeometryN(i);
+                if (part instanceof Polygon && !part.isEmpty()) {
+                    polygons.add((Polygon) part);
+                }
+            }
+        }
+
+        List<List<Polygon>> groups = partition(polygons);
+        log.debug("Unioning " + polygons.size() + " polygons in " + groups.size() + " groups");
+
+        // Results are kept in group order, which is the order of the first polygon of each group in the input
+        List<ForkJoinTask<Geometry>> tasks = new ArrayList<>();
+        for (List<Polygon> group : groups) {
+            tasks.add(group.size() == 1 ? null : pool.submit(() -> CascadedPolygonUnion.union(group)));
+        }
+
+        List<Polygon> parts = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            Geometry result = tasks.get(g) == null ? groups.get(g).get(0) : tasks.get(g).join();
+            for (int i = 0; i < result.getNumGeometries(); i++) {
+                if (!result.getGeometryN(i).isEmpty()) {
+                    parts.add((Polygon) result.getGeometryN(i));
+                }
+            }
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return geometryFactory.createMultiPolygon(parts.toArray(new Polygon[0]));
+    }
+
+    /**
+     * Group the polygons into the connected components of the envelope overlap graph, keeping the input order within
+     * and between groups.
+     */
+    static List<List<Polygon>> partition(List<Polygon> polygons) {
+        STRtree tree = new STRtree();
+        for (int i = 0; i < polygons.size(); i++) {
+            tree.insert(polygons.get(i).getEnvelopeInternal(), i);
+        }
+
+        int[] parents = new int[polygons.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (int i = 0; i < polygons.size(); i++) {
+            Envelope envelope = polygons.get(i).getEnvelopeInternal();
+            for (Object other : tree.query(envelope)) {
+                int j = (Integer) other;
+                if (j != i) {
+                    join(parents, i, j);
+                }
+            }
+        }
+
+        Map<Integer, List<Polygon>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < polygons.size(); i++) {
+            groups.computeIfAbsent(root(parents, i), root -> new ArrayList<>()).add(polygons.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int root(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void join(int[] parents, int i, int j) {
+        int rootI = root(parents, i);
+        int rootJ = root(parents, j);
+        if (rootI != rootJ) {
+            parents[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+        }
+    }
+}
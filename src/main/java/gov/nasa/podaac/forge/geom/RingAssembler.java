@@ -0,0 +1,114 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Joins a set of coordinate lists end to end into a single line, by matching their first and last points.
+ * <p>
+ * The pieces are indexed by their endpoints in a hash map, so each step looks up the pieces touching the ends of the
+ * line rather than scanning all of the remaining pieces, and the whole assembly is close to linear in the number of
+ * pieces. When several pieces touch the line, the one earliest in the input is attached first, and it is attached the
+ * same way a scan of the pieces in order would attach it, so the result does not depend on how the pieces are indexed.
+ */
+public class RingAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger(RingAssembler.class);
+
+    private final List<List<Coordinate>> pieces;
+    private final Map<Coordinate, TreeSet<Integer>> endpoints = new HashMap<>();
+    private final List<List<Coordinate>> attached = new ArrayList<>();
+
+    /**
+     * @param pieces The pieces to attach. Pieces are attached in place, and may be reversed.
+     */
+    public RingAssembler(List<List<Coordinate>> pieces) {
+        this.pieces = new ArrayList<>(pieces);
+        for (int i = 0; i < this.pieces.size(); i++) {
+            List<Coordinate> piece = this.pieces.get(i);
+            index(piece.get(0), i);
+            index(piece.get(piece.size() - 1), i);
+        }
+    }
+
+    /**
+     * Attach every piece to the given line, at whichever end it touches.
+     *
+     * @param line The line to extend, in place
+     * @return The line, or {@code null} if a piece could not be attached
+     */
+    public List<Coordinate> assemble(List<Coordinate> line) {
+        for (int remaining = pieces.size(); remaining > 0; remaining--) {
+            Coordinate lineFirst = line.get(0);
+            Coordinate lineLast = line.get(line.size() - 1);
+
+            int index = Math.min(first(lineFirst), first(lineLast));
+            if (index == Integer.MAX_VALUE) {
+                log.debug("No Match Found!");
+                return null;
+            }
+
+            List<Coordinate> piece = pieces.get(index);
+            Coordinate pieceFirst = piece.get(0);
+            Coordinate pieceLast = piece.get(piece.size() - 1);
+            unindex(pieceFirst, index);
+            unindex(pieceLast, index);
+            attached.add(piece);
+
+            if (pieceFirst.equals(lineLast)) {
+                line.addAll(piece);
+            } else if (pieceLast.equals(lineFirst)) {
+                line.addAll(0, piece);
+            } else if (pieceLast.equals(lineLast)) {
+                CoordinateBuffer.reverse(piece);
+                line.addAll(piece);
+            } else {
+                CoordinateBuffer.reverse(piece);
+                line.addAll(0, piece);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * @return The pieces attached to the line so far, in the order they were attached
+     */
+    public List<List<Coordinate>> getAttached() {
+        return attached;
+    }
+
+    /**
+     * @return The earliest remaining piece with an endpoint at the given point, or {@link Integer#MAX_VALUE}
+     */
+    private int first(Coordinate point) {
+        TreeSet<Integer> indices = endpoints.get(key(point));
+        return indices == null || indices.isEmpty() ? Integer.MAX_VALUE : indices.first();
+    }
+
+    private void index(Coordinate point, int index) {
+        if (!Double.isNaN(point.x) && !Double.isNaN(point.y)) {
+            endpoints.computeIfAbsent(key(point), key -> new TreeSet<>()).add(index);
+        }
+    }
+
+    private void unindex(Coordinate point, int index) {
+        TreeSet<Integer> indices = endpoints.get(key(point));
+        if (indices != null) {
+            indices.remove(index);
+        }
+    }
+
+    /**
+     * Coordinate equality treats 0 and -0 as equal, but its hash code does not, so normalise the sign of zero.
+     */
+    private static Coordinate key(Coordinate point) {
+        return new Coordinate(point.x + 0d, point.y + 0d);
+    }
+}
@@ -0,0 +1,129 @@
+package gov.nasa.podaac.forge.geom;
+
+/**
+ * Simplifies a line as its points are decoded, passing only the vertices it keeps on to another sink.
+ * <p>
+ * This is a sliding window simplifier: the points since the last kept vertex (the anchor) are held in a window, and
+ * each new point is accepted into the window as long as every point in the window lies within the tolerance of the
+ * segment from the anchor to the new point. When a point is not accepted, the last point in the window is kept as a
+ * vertex and becomes the new anchor. Every dropped point therefore lies within the tolerance of the output line, as
+ * with Douglas-Peucker, but only the window is held in memory, and it never grows beyond a fixed number of points.
+ * <p>
+ * A step of more than 180 degrees of longitude is taken to be a crossing of the antimeridian, and both of its ends are
+ * always kept, so the edge can still be split where it crosses.
+ */
+public class StreamingSimplifier implements CoordinateSink {
+
+    public static final int DEFAULT_WINDOW_SIZE = 256;
+
+    private final CoordinateSink target;
+    private final double toleranceSquared;
+    private final double[] window;
+    private int windowSize;
+    private boolean hasAnchor;
+    private double anchorX;
+    private double anchorY;
+    private int added;
+    private int kept;
+
+    /**
+     * @param target    The sink receiving the vertices which are kept
+     * @param tolerance The largest distance, in degrees, from a dropped point to the output line
+     */
+    public StreamingSimplifier(CoordinateSink target, double tolerance) {
+        this(target, tolerance, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param target     The sink receiving the vertices which are kept
+     * @param tolerance  The largest distance, in degrees, from a dropped point to the output line
+     * @param windowSize The most points held between two kept vertices. A full window forces a vertex to be kept.
+     */
+    public StreamingSimplifier(CoordinateSink target, double tolerance, int windowSize) {
+        this.target = target;
+        this.toleranceSquared = tolerance * tolerance;
+        this.window = new double[Math.max(1, windowSize) * 2];
+    }
+
+    @Override
+    public void add(double x, double y) {
+        added++;
+        if (!hasAnchor) {
+            keep(x, y);
+            return;
+        }
+
+        double previousX = windowSize > 0 ? window[windowSize * 2 - 2] : anchorX;
+        if (Math.abs(x - previousX) > 180.0) {
+            flush();
+            keep(x, y);
+            return;
+        }
+        if (windowSize > 0 && (windowSize * 2 == window.length || !fits(x, y))) {
+            flush();
+        }
+        window[windowSize * 2] = x;
+        window[windowSize * 2 + 1] = y;
+        windowSize++;
+    }
+
+    /**
+     * Keep the last point added, which ends the line. Must be called once every point has been added.
+     */
+    public void finish() {
+        flush();
+    }
+
+    /**
+     * @return The number of points added so far
+     */
+    public int getAdded() {
+        return added;
+    }
+
+    /**
+     * @return The number of vertices passed on to the target so far
+     */
+    public int getKept() {
+        return kept;
+    }
+
+    /**
+     * Keep the last point in the window as a vertex, and empty the window.
+     */
+    private void flush() {
+        if (windowSize > 0) {
+            keep(window[windowSize * 2 - 2], window[windowSize * 2 - 1]);
+        }
+    }
+
+    private void keep(double x, double y) {
+        target.add(x, y);
+        kept++;
+        hasAnchor = true;
+        anchorX = x;
+        anchorY = y;
+        windowSize = 0;
+    }
+
+    /**
+     * Check whether every point in the window lies within the tolerance of the segment from the anchor to the given
+     * point.
+     */
+    private boolean fits(double x, double y) {
+        double dx = x - anchorX;
+        double dy = y - anchorY;
+        double lengthSquared = dx * dx + dy * dy;
+        for (int i = 0; i < windowSize; i++) {
+            double px = window[i * 2] - anchorX;
+            double py = window[i * 2 + 1] - anchorY;
+            double t = lengthSquared == 0.0 ? 0.0 : Math.max(0.0, Math.min(1.0, (px * dx + py * dy) / lengthSquared));
+            double ex = px - t * dx;
+            double ey = py - t * dy;
+            if (ex * ex + ey * ey > toleranceSquared) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,307 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.MultiLineString;
+import com.vividsolutions.jts.geom.MultiPolygon;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Simplifies a polygonal or linear geometry down to a maximum number of vertices, by removing the least significant
+ * vertices first.
+ * <p>
+ * This is Visvalingam-Whyatt simplification: the significance of a vertex is the area of the triangle it forms with
+ * its neighbours, and the vertex with the smallest area across every ring and line of the geometry is removed until
+ * the geometry fits the budget. A vertex is only removed if no other vertex lies inside that triangle, so the new edge
+ * cannot cross any other edge, and a valid geometry stays valid. Rings keep at least three distinct vertices and lines
+ * keep their ends, so the budget may not be met if it is smaller than the geometry can be reduced to.
+ */
+public class VertexBudgetSimplifier {
+
+    private static final Logger log = LoggerFactory.getLogger(VertexBudgetSimplifier.class);
+
+    private final List<Coordinate> vertices = new ArrayList<>();
+    private final List<Integer> heads = new ArrayList<>();
+    private final List<Boolean> closed = new ArrayList<>();
+    private final List<Coordinate[]> originals = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private int[] partOf;
+    private int[] previous;
+    private int[] next;
+    private int[] versions;
+    private int[] live;
+    private boolean[] removed;
+    private int count;
+    private STRtree tree;
+    private PriorityQueue<Candidate> queue;
+
+    private VertexBudgetSimplifier() {
+    }
+
+    /**
+     * Simplify the given geometry so that it has at most the given number of coordinates, counting the closing point of
+     * each ring.
+     *
+     * @return The simplified geometry, or the given geometry if it is already within the budget or is not made of
+     * polygons or lines
+     */
+    public static Geometry simplify(Geometry geometry, int maxVertices) {
+        if (geometry.getNumPoints() <= maxVertices || !isSupported(geometry)) {
+            return geometry;
+        }
+        VertexBudgetSimplifier simplifier = new VertexBudgetSimplifier();
+        simplifier.collect(geometry);
+        simplifier.reduce(maxVertices);
+        if (simplifier.count > maxVertices) {
+            log.warn("Unable to simplify footprint to {} vertices, stopped at {}", maxVertices, simplifier.count);
+        }
+        Geometry simplified = simplifier.rebuild(geometry, new int[]{0});
+        log.debug("Simplified footprint from {} to {} vertices", geometry.getNumPoints(), simplified.getNumPoints());
+        return simplified;
+    }
+
+    private static boolean isSupported(Geometry geometry) {
+        return geometry instanceof Polygon || geometry instanceof MultiPolygon ||
+                geometry instanceof LineString || geometry instanceof MultiLineString;
+    }
+
+    /**
+     * Gather the rings and lines of the geometry into linked lists of vertices, dropping repeated points and the
+     * closing point of each ring.
+     */
+    private void collect(Geometry geometry) {
+        addParts(geometry);
+
+        int size = vertices.size();
+        partOf = new int[size];
+        previous = new int[size];
+        next = new int[size];
+        versions = new int[size];
+        removed = new boolean[size];
+        live = new int[heads.size()];
+        tree = new STRtree();
+        for (int part = 0; part < heads.size(); part++) {
+            int head = heads.get(part);
+            int partSize = sizes.get(part);
+            live[part] = partSize;
+            count += partSize + (closed.get(part) ? 1 : 0);
+            for (int i = 0; i < partSize; i++) {
+                int vertex = head + i;
+                partOf[vertex] = part;
+                previous[vertex] = i > 0 ? vertex - 1 : (closed.get(part) ? head + partSize - 1 : -1);
+                next[vertex] = i < partSize - 1 ? vertex + 1 : (closed.get(part) ? head : -1);
+                Coordinate coordinate = vertices.get(vertex);
+                tree.insert(new Envelope(coordinate), vertex);
+            }
+        }
+    }
+
+    private void addParts(Geometry geometry) {
+        if (geometry instanceof Polygon) {
+            Polygon polygon = (Polygon) geometry;
+            addPart(polygon.getExteriorRing().getCoordinates(), true);
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                addPart(polygon.getInteriorRingN(i).getCoordinates(), true);
+            }
+        } else if (geometry instanceof LineString) {
+            addPart(geometry.getCoordinates(), false);
+        } else {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                addParts(geometry.getGeometryN(i));
+            }
+        }
+    }
+
+    private void addPart(Coordinate[] coordinates, boolean ring) {
+        int head = vertices.size();
+        int end = ring ? coordinates.length - 1 : coordinates.length;
+        for (int i = 0; i < end; i++) {
+            if (vertices.size() == head || !vertices.get(vertices.size() - 1).equals2D(coordinates[i])) {
+                vertices.add(coordinates[i]);
+            }
+        }
+        heads.add(head);
+        closed.add(ring);
+        originals.add(coordinates);
+        sizes.add(vertices.size() - head);
+    }
+
+    /**
+     * Remove vertices in order of significance until the budget is met. A vertex blocked by another vertex inside its
+     * triangle may be freed once that vertex is removed, so the pass is repeated while it makes progress.
+     */
+    private void reduce(int maxVertices) {
+        boolean progress = true;
+        while (count > maxVertices && progress) {
+            progress = false;
+            queue = new PriorityQueue<>();
+            for (int vertex = 0; vertex < vertices.size(); vertex++) {
+                enqueue(vertex);
+            }
+            while (count > maxVertices && !queue.isEmpty()) {
+                Candidate candidate = queue.poll();
+                int vertex = candidate.vertex;
+                if (removed[vertex] || candidate.version != versions[vertex] || !isRemovable(vertex) ||
+                        isBlocked(vertex)) {
+                    continue;
+                }
+                remove(vertex);
+                progress = true;
+            }
+        }
+    }
+
+    private void enqueue(int vertex) {
+        if (!removed[vertex] && isRemovable(vertex)) {
+            versions[vertex]++;
+            queue.add(new Candidate(vertex, versions[vertex], area(vertex)));
+        }
+    }
+
+    private boolean isRemovable(int vertex) {
+        if (previous[vertex] == -1 || next[vertex] == -1) {
+            return false;
+        }
+        return live[partOf[vertex]] > (closed.get(partOf[vertex]) ? 3 : 2);
+    }
+
+    private void remove(int vertex) {
+        int before = previous[vertex];
+        int after = next[vertex];
+        next[before] = after;
+        previous[after] = before;
+        removed[vertex] = true;
+        int part = partOf[vertex];
+        live[part]--;
+        count--;
+        if (heads.get(part) == vertex) {
+            heads.set(part, after);
+        }
+        enqueue(before);
+        enqueue(after);
+    }
+
+    private double area(int vertex) {
+        Coordinate a = vertices.get(previous[vertex]);
+        Coordinate b = vertices.get(vertex);
+        Coordinate c = vertices.get(next[vertex]);
+        return Math.abs(cross(a, b, c)) / 2.0;
+    }
+
+    /**
+     * Check whether any other remaining vertex lies inside or on the triangle formed by the vertex and its neighbours.
+     */
+    private boolean isBlocked(int vertex) {
+        Coordinate a = vertices.get(previous[vertex]);
+        Coordinate b = vertices.get(vertex);
+        Coordinate c = vertices.get(next[vertex]);
+        Envelope envelope = new Envelope(a, b);
+        envelope.expandToInclude(c);
+        for (Object item : tree.query(envelope)) {
+            int other = (Integer) item;
+            if (removed[other] || other == vertex || other == previous[vertex] || other == next[vertex]) {
+                continue;
+            }
+            if (inTriangle(vertices.get(other), a, b, c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inTriangle(Coordinate p, Coordinate a, Coordinate b, Coordinate c) {
+        double ab = cross(a, b, p);
+        double bc = cross(b, c, p);
+        double ca = cross(c, a, p);
+        return (ab >= 0 && bc >= 0 && ca >= 0) || (ab <= 0 && bc <= 0 && ca <= 0);
+    }
+
+    private static double cross(Coordinate a, Coordinate b, Coordinate c) {
+        return (b.x - a.x) * (c.y - a.y) - (b.y - a.y) * (c.x - a.x);
+    }
+
+    /**
+     * Rebuild the geometry from the remaining vertices, with the same structure as the original.
+     *
+     * @param part The index of the next part to use, advanced as parts are used
+     */
+    private Geometry rebuild(Geometry geometry, int[] part) {
+        GeometryFactory factory = geometry.getFactory();
+        if (geometry instanceof Polygon) {
+            Polygon polygon = (Polygon) geometry;
+            LinearRing shell = factory.createLinearRing(partCoordinates(part[0]++));
+            LinearRing[] holes = new LinearRing[polygon.getNumInteriorRing()];
+            for (int i = 0; i < holes.length; i++) {
+                holes[i] = factory.createLinearRing(partCoordinates(part[0]++));
+            }
+            return factory.createPolygon(shell, holes);
+        }
+        if (geometry instanceof LineString) {
+            return factory.createLineString(partCoordinates(part[0]++));
+        }
+        if (geometry instanceof MultiPolygon) {
+            Polygon[] polygons = new Polygon[geometry.getNumGeometries()];
+            for (int i = 0; i < polygons.length; i++) {
+                polygons[i] = (Polygon) rebuild(geometry.getGeometryN(i), part);
+            }
+            return factory.createMultiPolygon(polygons);
+        }
+        LineString[] lines = new LineString[geometry.getNumGeometries()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = (LineString) rebuild(geometry.getGeometryN(i), part);
+        }
+        return factory.createMultiLineString(lines);
+    }
+
+    /**
+     * @return The remaining vertices of the part, or its original coordinates if no vertex was removed from it
+     */
+    private Coordinate[] partCoordinates(int part) {
+        if (live[part] == sizes.get(part)) {
+            return originals.get(part);
+        }
+        boolean ring = closed.get(part);
+        Coordinate[] coordinates = new Coordinate[live[part] + (ring ? 1 : 0)];
+        int vertex = heads.get(part);
+        for (int i = 0; i < live[part]; i++) {
+            coordinates[i] = new Coordinate(vertices.get(vertex));
+            vertex = next[vertex];
+        }
+        if (ring) {
+            coordinates[coordinates.length - 1] = new Coordinate(coordinates[0]);
+        }
+        return coordinates;
+    }
+
+    /**
+     * A vertex in the queue, with the version of the vertex it was queued at, so stale entries can be skipped.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        private final int vertex;
+        private final int version;
+        private final double area;
+
+        Candidate(int vertex, int version, double area) {
+            this.vertex = vertex;
+            this.version = version;
+            this.area = area;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int compare = Double.compare(area, other.area);
+            return compare != 0 ? compare : Integer.compare(vertex, other.vertex);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package gov.nasa.podaac.forge.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * A {@link RangeReader} over a local file, which stands in for S3 when running from the command line or in tests.
+ */
+public class FileRangeReader implements RangeReader {
+
+    private final RandomAccessFile file;
+    private int requests;
+
+    public FileRangeReader(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+    }
+
+    @Override
+    public long length() throws IOException {
+        return file.length();
+    }
+
+    @Override
+    public synchronized int read(long position, byte[] buffer, int offset, int length) throws IOException {
+        requests++;
+        file.seek(position);
+        int total = 0;
+        while (total < length) {
+            int count = file.read(buffer, offset + total, length - total);
+            if (count < 0) {
+                break;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of ranged reads made so far
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,138 @@
+package gov.nasa.podaac.forge.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads a whole object through a {@link RangeReader}, fetching fixed size parts of it in parallel.
+ * <p>
+ * A single stream from S3 is capped well below the bandwidth of a Lambda or Fargate task, so large granules are split
+ * into parts which are fetched with concurrent ranged GETs, and written straight into their place in a preallocated
+ * file or array. An object of a single part is fetched on the calling thread.
+ */
+public class ParallelRangeDownloader {
+
+    public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    private final int partSize;
+    private final int concurrency;
+
+    public ParallelRangeDownloader() {
+        this(DEFAULT_PART_SIZE, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @param partSize    The size in bytes of each ranged read
+     * @param concurrency The most parts fetched at once
+     */
+    public ParallelRangeDownloader(int partSize, int concurrency) {
+        if (partSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Part size and concurrency must be positive: " + partSize + ", " +
+                    concurrency);
+        }
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Download the object to the given file, which is created or replaced.
+     */
+    public void download(RangeReader reader, File file) throws IOException {
+        long length = reader.length();
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.setLength(length);
+            FileChannel channel = output.getChannel();
+            fetch(length, (position, size) -> {
+                byte[] buffer = new byte[size];
+                readFully(reader, position, buffer, 0, size);
+                ByteBuffer source = ByteBuffer.wrap(buffer);
+                long offset = position;
+                while (source.hasRemaining()) {
+                    offset += channel.write(source, offset);
+                }
+            });
+        }
+    }
+
+    /**
+     * Read the whole object into memory.
+     */
+    public byte[] read(RangeReader reader) throws IOException {
+        long length = reader.length();
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("Object of " + length + " bytes is too large to read into memory");
+        }
+        byte[] contents = new byte[(int) length];
+        fetch(length, (position, size) -> readFully(reader, position, contents, (int) position, size));
+        return contents;
+    }
+
+    /**
+     * Run the given task for each part of an object of the given length, and wait for every part to finish.
+     */
+    private void fetch(long length, Part part) throws IOException {
+        int parts = (int) ((length + partSize - 1) / partSize);
+        if (parts <= 1) {
+            if (length > 0) {
+                part.fetch(0, (int) length);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parts, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "range-download");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                long position = (long) i * partSize;
+                int size = (int) Math.min(partSize, length - position);
+                futures.add(executor.submit(() -> {
+                    part.fetch(position, size);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Error downloading part", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void readFully(RangeReader reader, long position, byte[] buffer, int offset, int size)
+            throws IOException {
+        int count = reader.read(position, buffer, offset, size);
+        if (count != size) {
+            throw new EOFException("Expected " + size + " bytes at " + position + " but read " + count);
+        }
+    }
+
+    private interface Part {
+        void fetch(long position, int size) throws IOException;
+    }
+}
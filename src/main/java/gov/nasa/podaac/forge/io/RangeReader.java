@@ -0,0 +1,27 @@
+package gov.nasa.podaac.forge.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads byte ranges of a remote object, such as an S3 object, without fetching the whole object.
+ */
+public interface RangeReader extends Closeable {
+
+    /**
+     * @return The total size of the object in bytes
+     */
+    long length() throws IOException;
+
+    /**
+     * Read bytes from the object into the given buffer, starting at the given position. Exactly {@code length}
+     * bytes are read, unless the end of the object is reached first.
+     *
+     * @param position The position in the object of the first byte to read
+     * @param buffer The buffer to read into
+     * @param offset The position in the buffer of the first byte
+     * @param length The number of bytes to read
+     * @return The number of bytes read
+     */
+    int read(long position, byte[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,142 @@
+package gov.nasa.podaac.forge.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ucar.unidata.io.RandomAccessFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A read only NetCDF {@link RandomAccessFile} backed by ranged reads of a remote object, so that a granule can be
+ * opened in place and only the parts of it which are actually read (the header, and the lat/lon chunks) are fetched.
+ * <p>
+ * The object is fetched in fixed size blocks, and the most recently used blocks are kept in an LRU cache, so the many
+ * small reads made while parsing the HDF5 header do not each turn into a request.
+ */
+public class RangedRandomAccessFile extends RandomAccessFile {
+
+    private static final Logger log = LoggerFactory.getLogger(RangedRandomAccessFile.class);
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_BLOCKS = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RangeReader reader;
+    private final int blockSize;
+    private final Map<Long, byte[]> blocks;
+    private long objectLength = -1;
+    private long bytesFetched;
+
+    public RangedRandomAccessFile(String location, RangeReader reader) {
+        this(location, reader, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCKS);
+    }
+
+    /**
+     * @param location The location of the object, used by NetCDF to identify the file
+     * @param reader Reads byte ranges of the object
+     * @param blockSize The size of each ranged read, in bytes
+     * @param maxBlocks The number of blocks to keep in memory
+     */
+    public RangedRandomAccessFile(String location, RangeReader reader, int blockSize, int maxBlocks) {
+        super(BUFFER_SIZE);
+        this.location = location;
+        this.reader = reader;
+        this.blockSize = blockSize;
+        this.blocks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxBlocks;
+            }
+        };
+    }
+
+    @Override
+    public long length() throws IOException {
+        if (objectLength < 0) {
+            objectLength = reader.length();
+        }
+        return objectLength;
+    }
+
+    /**
+     * @return The number of bytes fetched from the remote object so far
+     */
+    public long getBytesFetched() {
+        return bytesFetched;
+    }
+
+    @Override
+    protected int read_(long pos, byte[] b, int offset, int len) throws IOException {
+        long fileLength = length();
+        if (pos >= fileLength) {
+            return -1;
+        }
+        len = (int) Math.min(len, fileLength - pos);
+
+        // At most one block is fetched per call. Anything beyond it which is not already cached is left to the next
+        // call, so filling the read buffer does not fetch blocks which are never used.
+        int total = 0;
+        while (total < len) {
+            long position = pos + total;
+            long blockIndex = position / blockSize;
+            if (total > 0 && !blocks.containsKey(blockIndex)) {
+                break;
+            }
+            byte[] block = getBlock(blockIndex);
+            int blockOffset = (int) (position - blockIndex * blockSize);
+            int count = Math.min(len - total, block.length - blockOffset);
+            if (count <= 0) {
+                break;
+            }
+            System.arraycopy(block, blockOffset, b, offset + total, count);
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public long readToByteChannel(WritableByteChannel dest, long offset, long nbytes) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(nbytes, blockSize)];
+        long total = 0;
+        while (total < nbytes) {
+            int count = read_(offset + total, buffer, 0, (int) Math.min(buffer.length, nbytes - total));
+            if (count <= 0) {
+                break;
+            }
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, count);
+            while (byteBuffer.hasRemaining()) {
+                dest.write(byteBuffer);
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        log.debug("Fetched {} of {} bytes from {}", bytesFetched, objectLength, location);
+        blocks.clear();
+        reader.close();
+        super.close();
+    }
+
+    private byte[] getBlock(long blockIndex) throws IOException {
+        byte[] block = blocks.get(blockIndex);
+        if (block == null) {
+            long start = blockIndex * blockSize;
+            byte[] data = new byte[(int) Math.min(blockSize, length() - start)];
+            int count = reader.read(start, data, 0, data.length);
+            if (count < data.length) {
+                throw new IOException("Expected " + data.length + " bytes at " + start + " of " + location +
+                        ", but only " + count + " were read");
+            }
+            bytesFetched += count;
+            block = data;
+            blocks.put(blockIndex, block);
+        }
+        return block;
+    }
+}
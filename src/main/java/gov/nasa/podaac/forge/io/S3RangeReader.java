@@ -0,0 +1,52 @@
+package gov.nasa.podaac.forge.io;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link RangeReader} which fetches byte ranges of an S3 object with ranged GET requests.
+ */
+public class S3RangeReader implements RangeReader {
+
+    private final AmazonS3 s3Client;
+    private final String bucket;
+    private final String key;
+    private long contentLength = -1;
+
+    public S3RangeReader(AmazonS3 s3Client, String bucket, String key) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    @Override
+    public synchronized long length() {
+        if (contentLength < 0) {
+            contentLength = s3Client.getObjectMetadata(bucket, key).getContentLength();
+        }
+        return contentLength;
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+        long end = Math.min(position + length, length()) - 1;
+        if (end < position) {
+            return 0;
+        }
+        GetObjectRequest request = new GetObjectRequest(bucket, key).withRange(position, end);
+        try (S3Object object = s3Client.getObject(request);
+             InputStream content = object.getObjectContent()) {
+            return IOUtils.read(content, buffer, offset, (int) (end - position + 1));
+        }
+    }
+
+    @Override
+    public void close() {
+        // The S3 client is owned by the caller
+    }
+}
@@ -1,5 +1,7 @@
 package gov.nasa.podaac.forge.pojo;
 
+import java.util.List;
+
 /**
  * Java class that maps to the PO.DAAC JSON dataset config.
  */
@@ -8,6 +10,11 @@ public class DatasetConfig {
     private String lonVar;
     private boolean is360;
     private double tolerance;
+    private double readTolerance;
+    private int maxVertices;
+    private int coveringLevel;
+    private int coveringMaxCells;
+    private List<Double> toleranceLevels;
     private FootprintConfig footprint;
     
     public DatasetConfig(String latVar, String lonVar, boolean is360, int tolerance, FootprintConfig footprint) {
@@ -54,6 +61,67 @@ public class DatasetConfig {
         this.tolerance = tolerance;
     }
     
+    /**
+     * @return The tolerance used to simplify each edge as it is read, or 0 if edges are not simplified until the
+     * footprint is merged. Should be no larger than the tolerance.
+     */
+    public double getReadTolerance() {
+        return readTolerance;
+    }
+    
+    public void setReadTolerance(double readTolerance) {
+        this.readTolerance = readTolerance;
+    }
+    
+    /**
+     * @return The most vertices a footprint may have, or 0 if there is no limit. Footprints with more vertices are
+     * simplified further once they have been simplified with the tolerance.
+     */
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+    
+    public void setMaxVertices(int maxVertices) {
+        this.maxVertices = maxVertices;
+    }
+    
+    /**
+     * @return The level of the smallest grid cells in the cell covering written alongside the footprint, or 0 if no
+     * covering is written.
+     */
+    public int getCoveringLevel() {
+        return coveringLevel;
+    }
+    
+    public void setCoveringLevel(int coveringLevel) {
+        this.coveringLevel = coveringLevel;
+    }
+    
+    /**
+     * @return The most cells in the cell covering, or 0 to use the default budget. Boundary cells are left coarser
+     * than the covering level once the budget is reached.
+     */
+    public int getCoveringMaxCells() {
+        return coveringMaxCells;
+    }
+    
+    public void setCoveringMaxCells(int coveringMaxCells) {
+        this.coveringMaxCells = coveringMaxCells;
+    }
+    
+    /**
+     * @return The tolerances of the levels of the footprint pyramid written alongside the footprint, or null if no
+     * pyramid is written. Each level is simplified from the one before, starting from the footprint, so levels finer
+     * than the tolerance add no detail.
+     */
+    public List<Double> getToleranceLevels() {
+        return toleranceLevels;
+    }
+    
+    public void setToleranceLevels(List<Double> toleranceLevels) {
+        this.toleranceLevels = toleranceLevels;
+    }
+    
     public FootprintConfig getFootprint() {
         return footprint;
     }
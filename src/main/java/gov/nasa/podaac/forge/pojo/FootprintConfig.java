@@ -19,14 +19,15 @@ public class FootprintConfig {
     private String bottom;
     @SerializedName(value="s2")
     private String side2;
+    // The bounds are only used by the fixed strategy, and are null when they are not in the dataset config
     @SerializedName(value="geospatial_lat_min")
-    private long geospatialLatMin;
+    private Long geospatialLatMin;
     @SerializedName(value="geospatial_lat_max")
-    private long geospatialLatMax;
+    private Long geospatialLatMax;
     @SerializedName(value="geospatial_lon_min")
-    private long geospatialLonMin;
+    private Long geospatialLonMin;
     @SerializedName(value="geospatial_lon_max")
-    private long geospatialLonMax;
+    private Long geospatialLonMax;
     
     public FootprintConfig(FootprintStrategy.Strategy strategy, boolean findValid, boolean removeOrigin, String top,
                            String side1, String bottom, String side2, int geospatialLatMin, int geospatialLatMax, int geospatialLonMin,
@@ -38,10 +39,10 @@ public class FootprintConfig {
         this.side1 = side1;
         this.bottom = bottom;
         this.side2 = side2;
-        this.geospatialLatMin = geospatialLatMin;
-        this.geospatialLatMax = geospatialLatMax;
-        this.geospatialLonMin = geospatialLonMin;
-        this.geospatialLonMax = geospatialLonMax;
+        this.geospatialLatMin = (long) geospatialLatMin;
+        this.geospatialLatMax = (long) geospatialLatMax;
+        this.geospatialLonMin = (long) geospatialLonMin;
+        this.geospatialLonMax = (long) geospatialLonMax;
     }
     
     public FootprintConfig() {
@@ -110,35 +111,35 @@ public class FootprintConfig {
         this.removeOrigin = removeOrigin;
     }
     
-    public long getGeospatialLatMin() {
+    public Long getGeospatialLatMin() {
         return geospatialLatMin;
     }
     
-    public void setGeospatialLatMin(long geospatialLatMin) {
+    public void setGeospatialLatMin(Long geospatialLatMin) {
         this.geospatialLatMin = geospatialLatMin;
     }
     
-    public long getGeospatialLatMax() {
+    public Long getGeospatialLatMax() {
         return geospatialLatMax;
     }
     
-    public void setGeospatialLatMax(long geospatialLatMax) {
+    public void setGeospatialLatMax(Long geospatialLatMax) {
         this.geospatialLatMax = geospatialLatMax;
     }
     
-    public long getGeospatialLonMin() {
+    public Long getGeospatialLonMin() {
         return geospatialLonMin;
     }
     
-    public void setGeospatialLonMin(long geospatialLonMin) {
+    public void setGeospatialLonMin(Long geospatialLonMin) {
         this.geospatialLonMin = geospatialLonMin;
     }
     
-    public long getGeospatialLonMax() {
+    public Long getGeospatialLonMax() {
         return geospatialLonMax;
     }
     
-    public void setGeospatialLonMax(long geospatialLonMax) {
+    public void setGeospatialLonMax(Long geospatialLonMax) {
         this.geospatialLonMax = geospatialLonMax;
     }
 }
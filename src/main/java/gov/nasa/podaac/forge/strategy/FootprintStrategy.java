@@ -4,6 +4,9 @@ import com.google.gson.annotations.SerializedName;
 import com.vividsolutions.jts.geom.*;
 import com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier;
 import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.CoordinateChain;
+import gov.nasa.podaac.forge.geom.CoordinateSearch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ucar.ma2.InvalidRangeException;
@@ -12,13 +15,21 @@ import ucar.nc2.Variable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public abstract class FootprintStrategy {
     
     private static final Logger log = LoggerFactory.getLogger(FootprintStrategy.class);
-    protected double splitMargin = 179.99d;
+    private static final double MIN_TOLERANCE = 0.05d;
+    private static final double TOLERANCE_PRECISION = 0.001d;
+    private static final int MAX_TOLERANCE_STEPS = 10;
+    private static final double DEFAULT_SPLIT_MARGIN = 179.99d;
+    protected final double splitMargin;
     
     public enum Strategy {
         @SerializedName("periodic")
@@ -54,6 +65,23 @@ public abstract class FootprintStrategy {
         }
     }
     
+    protected FootprintStrategy() {
+        this(DEFAULT_SPLIT_MARGIN);
+    }
+    
+    /**
+     * @param splitMargin Longitude beyond which a step between two points is taken to cross the antimeridian
+     */
+    protected FootprintStrategy(double splitMargin) {
+        this.splitMargin = splitMargin;
+    }
+    
+    /**
+     * @return The names which select this strategy in the footprint section of a dataset config. Strategies are
+     * looked up by name in the {@link FootprintStrategyRegistry}.
+     */
+    public abstract List<String> getNames();
+    
     public abstract List<List<Coordinate>> merge(List<Coordinate> side1,
                                                  List<Coordinate> bottom, List<Coordinate> side2,
                                                  List<Coordinate> top) throws FootprintException;
@@ -127,7 +155,9 @@ public abstract class FootprintStrategy {
      * and the next coordinate longitude is 175, it can be assumed that those values represent a split.
      *
      * @param coordinateList The list of coordinates to be split into multiple lists of coordinates
-     * @return A list of lists of coordinates, where each list represents a split.
+     * @return A list of lists of coordinates, where each list represents a split. Each list is a
+     * {@link CoordinateChain} over the given coordinates, holding ranges of them rather than copies, plus any points
+     * added at -180/180.
      */
     protected List<List<Coordinate>> split(List<Coordinate> coordinateList) {
         List<List<Coordinate>> splitCoordList = new ArrayList<>();
@@ -136,20 +166,25 @@ public abstract class FootprintStrategy {
             return splitCoordList;
         }
         
+        CoordinateBuffer source = CoordinateBuffer.of(coordinateList);
         double margin = this.splitMargin;
-        Coordinate prevCoord = null;
-        Coordinate currentCoord = null;
+        boolean hasPrev = false;
+        double prevX = 0;
+        double prevY = 0;
+        double currentX;
+        double currentY = 0;
         
         boolean lastInMargin = false;
         boolean firstInMargin = false;
-        List<Coordinate> coords = new ArrayList<>();
+        CoordinateChain coords = new CoordinateChain();
         
-        for (int i = 0; i < coordinateList.size(); i++) {
-            currentCoord = coordinateList.get(i);
+        for (int i = 0; i < source.size(); i++) {
+            currentX = source.getX(i);
+            currentY = source.getY(i);
             
             // Check if the first point in the list of coordinates is within the margin
             // If so, continue to the next iteration of the loop
-            if (Math.abs(currentCoord.x) > margin) {
+            if (Math.abs(currentX) > margin) {
                 if (i == 0)
                     firstInMargin = true;
                 lastInMargin = true;
@@ -160,58 +195,60 @@ public abstract class FootprintStrategy {
             // If the first point in the list was within the margin, add a new point
             // to the list with lon -180/180
             if (firstInMargin) {
-                if (currentCoord.x < 0) {
-                    coords.add(new Coordinate(-180, currentCoord.y));
+                if (currentX < 0) {
+                    coords.add(-180, currentY);
                 } else {
-                    coords.add(new Coordinate(180, currentCoord.y));
+                    coords.add(180, currentY);
                 }
                 // Set firstInMargin to false, so this code will only ever execute once (if ever)
                 firstInMargin = false;
             }
             
-            if (prevCoord == null) {
-                prevCoord = currentCoord;
-                coords.add(currentCoord);
+            if (!hasPrev) {
+                hasPrev = true;
+                prevX = currentX;
+                prevY = currentY;
+                coords.addRange(source, i, i + 1);
             } else {
-                Coordinate lastCoord = coords.get(coords.size() - 1);
-                double yAverage = (lastCoord.y + currentCoord.y) / 2;
+                double yAverage = (prevY + currentY) / 2;
                 // If two points appear that are wildly different from one another, consider that to be a 'split'.
                 // Add the existing coordinates to the list of coordinate lists, and start a new coordinate
                 // list for the current split.
-                if (prevCoord.x > 150 && currentCoord.x < -150) {
+                if (prevX > 150 && currentX < -150) {
                     log.debug("SPLIT!");
                     // Add a new coord with max lon, and with lat equal to the average between the current
                     // and previous lat.
-                    coords.add(new Coordinate(180d, yAverage));
+                    coords.add(180d, yAverage);
                     splitCoordList.add(coords);
-                    coords = new ArrayList<>();
+                    coords = new CoordinateChain();
                     // Add a new coord with min lon, and with lat equal to the average between the current
                     // and previous lat.
-                    coords.add(new Coordinate(-180d, yAverage));
-                } else if (currentCoord.x > 150 && prevCoord.x < -150) {
+                    coords.add(-180d, yAverage);
+                } else if (currentX > 150 && prevX < -150) {
                     log.debug("SPLIT!");
                     // Add a new coord with min lon, and with lat equal to the average between the current
                     // and previous lat.
-                    coords.add(new Coordinate(-180d, yAverage));
+                    coords.add(-180d, yAverage);
                     splitCoordList.add(coords);
-                    coords = new ArrayList<>();
+                    coords = new CoordinateChain();
                     // Add a new coord with max lon, and with lat equal to the average between the current
                     // and previous lat.
-                    coords.add(new Coordinate(180d, yAverage));
+                    coords.add(180d, yAverage);
                 }
-                coords.add(currentCoord);
-                prevCoord = currentCoord;
+                coords.addRange(source, i, i + 1);
+                prevX = currentX;
+                prevY = currentY;
             }
         }
         if (lastInMargin) {
             log.trace("Last coordinate was in margin or NaN...");
-            if (prevCoord == null) {
+            if (!hasPrev) {
                 return splitCoordList;
             }
-            if (prevCoord.x > 0) {
-                coords.add(new Coordinate(180, currentCoord.y));
+            if (prevX > 0) {
+                coords.add(180, currentY);
             } else {
-                coords.add(new Coordinate(-180, currentCoord.y));
+                coords.add(-180, currentY);
             }
         }
 
@@ -224,20 +261,121 @@ public abstract class FootprintStrategy {
     }
     
     /**
-     * Find the index of the element in the given list of coordinates which is closest to the given coordinate.
+     * Reverse the given list of coordinates in place.
+     */
+    protected static void reverse(List<Coordinate> coordinates) {
+        CoordinateBuffer.reverse(coordinates);
+    }
+    
+    /**
+     * Check whether the given geometry, or any part of it, is empty. This is true whenever the WKT of the geometry
+     * would contain "EMPTY", without writing the WKT.
+     */
+    protected static boolean containsEmpty(Geometry geometry) {
+        if (geometry.isEmpty()) {
+            return true;
+        }
+        if (geometry instanceof Polygon) {
+            Polygon polygon = (Polygon) geometry;
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                if (polygon.getInteriorRingN(i).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (geometry instanceof GeometryCollection) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                if (containsEmpty(geometry.getGeometryN(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Simplify a geometry which collapses when simplified with the given tolerance, using the largest smaller
+     * tolerance which does not collapse it. The tolerance is found with a binary search between
+     * {@value #MIN_TOLERANCE} and the given tolerance, so at most {@value #MAX_TOLERANCE_STEPS} extra simplifications
+     * are made.
+     *
+     * @param geometry  The geometry to simplify
+     * @param tolerance A tolerance which is known to collapse the geometry
+     * @return The simplified geometry, or the geometry itself if even the smallest tolerance collapses it.
+     */
+    protected static Geometry simplifyWithoutCollapse(Geometry geometry, double tolerance) {
+        double low = Math.min(MIN_TOLERANCE, tolerance * 0.9);
+        Geometry simplified = DouglasPeuckerSimplifier.simplify(geometry, low);
+        if (containsEmpty(simplified)) {
+            log.debug("Geometry collapses at tolerance " + low + ", it will not be simplified");
+            return geometry;
+        }
+        
+        double high = tolerance;
+        for (int i = 0; i < MAX_TOLERANCE_STEPS && high - low > TOLERANCE_PRECISION; i++) {
+            double mid = (low + high) / 2;
+            Geometry candidate = DouglasPeuckerSimplifier.simplify(geometry, mid);
+            if (containsEmpty(candidate)) {
+                high = mid;
+            } else {
+                low = mid;
+                simplified = candidate;
+            }
+        }
+        log.debug("Simplified collapsing geometry with tolerance " + low);
+        return simplified;
+    }
+    
+    /**
+     * Simplify a footprint built by {@link #mergeGeoms} further, for a coarser level of a footprint pyramid. If the
+     * tolerance collapses part of the footprint, the largest tolerance which does not is used instead.
+     *
+     * @param footprint The footprint to simplify
+     * @param tolerance Tolerance to use in the simplifier algorithm
+     * @return The simplified footprint
+     */
+    public Geometry simplify(Geometry footprint, double tolerance) {
+        Geometry simplified = DouglasPeuckerSimplifier.simplify(footprint, tolerance);
+        if (!containsEmpty(simplified)) {
+            return simplified;
+        }
+        return simplifyWithoutCollapse(footprint, tolerance);
+    }
+    
+    /**
+     * Remove the given coordinate lists from a list of coordinate lists. Lists are matched by identity, rather than
+     * by comparing every coordinate as {@link List#removeAll} would.
+     */
+    protected static void removeAll(List<List<Coordinate>> lists, Collection<List<Coordinate>> remove) {
+        Set<List<Coordinate>> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        identities.addAll(remove);
+        lists.removeIf(identities::contains);
+    }
+    
+    /**
+     * Find the index of the element in the given list of coordinates which is closest to the given coordinate. The
+     * buffers and chains built by {@link #split}, and their sub lists, search themselves, with an index once they are
+     * searched repeatedly; other lists are scanned.
      *
      * @param coordinates The list of coordinates to find the closest coordinate from.
      * @param coordinate  The coordinate to compare distance against
-     * @return the integer index of the closest coordinate.
+     * @return the integer index of the closest coordinate. Ties go to the lowest index.
      */
     public int findClosest(List<Coordinate> coordinates, Coordinate coordinate) {
+        if (coordinates instanceof CoordinateSearch) {
+            return ((CoordinateSearch) coordinates).findClosest(coordinate.x, coordinate.y);
+        }
         double distance = Double.MAX_VALUE;
         int index = 0;
-        for (int i = 0; i < coordinates.size(); i++) {
-            if (coordinates.get(i).distance(coordinate) < distance) {
-                distance = coordinates.get(i).distance(coordinate);
+        int i = 0;
+        for (Coordinate candidate : coordinates) {
+            double candidateDistance = candidate.distance(coordinate);
+            if (candidateDistance < distance) {
+                distance = candidateDistance;
                 index = i;
             }
+            i++;
         }
         return index;
     }
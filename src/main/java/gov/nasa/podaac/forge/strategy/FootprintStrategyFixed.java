@@ -0,0 +1,130 @@
+package gov.nasa.podaac.forge.strategy;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.pojo.FootprintConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Footprint strategy to be used by the {@link gov.nasa.podaac.forge.Footprinter} which specifies how the footprint
+ * is generated.
+ * <p>
+ * In this case, the footprint is the box given by the geospatial bounds in the dataset config, so the granule does not
+ * need to be read at all. A box whose minimum longitude is greater than its maximum longitude crosses the antimeridian,
+ * and becomes a MultiPolygon of the parts on either side of it.
+ */
+public class FootprintStrategyFixed extends FootprintStrategy {
+    
+    /**
+     * Build the closed rings around the geospatial bounds of the given footprint config. A box crossing the
+     * antimeridian is split into a ring from its minimum longitude to 180, and a ring from -180 to its maximum
+     * longitude.
+     *
+     * @param footprintConfig The footprint config containing the geospatial_lat/lon_min/max bounds
+     * @return The rings, each counter-clockwise from its lower left corner
+     * @throws FootprintException If a bound is missing or out of range, or the bounds do not enclose an area
+     */
+    public static List<List<Coordinate>> boundingRings(FootprintConfig footprintConfig) throws FootprintException {
+        Long latMinBound = footprintConfig.getGeospatialLatMin();
+        Long latMaxBound = footprintConfig.getGeospatialLatMax();
+        Long lonMinBound = footprintConfig.getGeospatialLonMin();
+        Long lonMaxBound = footprintConfig.getGeospatialLonMax();
+        if (latMinBound == null || latMaxBound == null || lonMinBound == null || lonMaxBound == null) {
+            throw new FootprintException("The fixed footprint requires geospatial_lat_min, geospatial_lat_max, " +
+                    "geospatial_lon_min and geospatial_lon_max in the dataset config");
+        }
+        double latMin = latMinBound;
+        double latMax = latMaxBound;
+        double lonMin = lonMinBound;
+        double lonMax = lonMaxBound;
+        if (latMin < -90 || latMax > 90 || latMin >= latMax) {
+            throw new FootprintException("The fixed footprint latitude bounds " + latMin + " to " + latMax +
+                    " do not enclose an area between -90 and 90");
+        }
+        if (Math.abs(lonMin) > 180 || Math.abs(lonMax) > 180 || lonMin == lonMax) {
+            throw new FootprintException("The fixed footprint longitude bounds " + lonMin + " to " + lonMax +
+                    " do not enclose an area between -180 and 180");
+        }
+        
+        List<List<Coordinate>> rings = new ArrayList<>();
+        if (lonMin < lonMax) {
+            rings.add(box(lonMin, lonMax, latMin, latMax));
+            return rings;
+        }
+        // Crossing the antimeridian. A bound on the antimeridian itself leaves nothing on one side of it.
+        if (lonMin < 180) {
+            rings.add(box(lonMin, 180, latMin, latMax));
+        }
+        if (lonMax > -180) {
+            rings.add(box(-180, lonMax, latMin, latMax));
+        }
+        if (rings.isEmpty()) {
+            throw new FootprintException("The fixed footprint longitude bounds " + lonMin + " to " + lonMax +
+                    " do not enclose an area between -180 and 180");
+        }
+        return rings;
+    }
+    
+    private static List<Coordinate> box(double lonMin, double lonMax, double latMin, double latMax) {
+        CoordinateBuffer ring = new CoordinateBuffer(5);
+        ring.add(lonMin, latMin);
+        ring.add(lonMax, latMin);
+        ring.add(lonMax, latMax);
+        ring.add(lonMin, latMax);
+        ring.add(lonMin, latMin);
+        return ring;
+    }
+    
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(Strategy.FIXED.getStrategyName());
+    }
+    
+    /**
+     * In this case, side1 is a bounding ring, so return it as is. Other params are ignored. The rings of a box
+     * crossing the antimeridian are passed to {@link #mergeGeoms} directly.
+     */
+    @Override
+    public List<List<Coordinate>> merge(List<Coordinate> side1,
+                                        List<Coordinate> bottom, List<Coordinate> side2,
+                                        List<Coordinate> top) {
+        List<List<Coordinate>> coordinateList = new ArrayList<>();
+        coordinateList.add(side1);
+        return coordinateList;
+    }
+    
+    /**
+     * Create a polygon from each bounding ring. The rings are already as simple as they can be, so the tolerance is
+     * ignored.
+     *
+     * @param coords    List containing the bounding rings
+     * @param tolerance Ignored
+     * @return Computed Geometry. In this case, will be a Polygon, or a MultiPolygon for a box crossing the
+     * antimeridian.
+     */
+    @Override
+    public Geometry mergeGeoms(List<List<Coordinate>> coords, double tolerance) throws FootprintException {
+        if (coords.isEmpty()) {
+            throw new FootprintException("The fixed footprint requires a closed ring of at least four coordinates");
+        }
+        GeometryFactory gf = new GeometryFactory(new PrecisionModel(1000d));
+        Polygon[] polygons = new Polygon[coords.size()];
+        for (int i = 0; i < coords.size(); i++) {
+            if (coords.get(i).size() < 4) {
+                throw new FootprintException("The fixed footprint requires a closed ring of at least four coordinates");
+            }
+            LinearRing ring = gf.createLinearRing(CoordinateBuffer.sequenceOf(coords.get(i)));
+            polygons[i] = gf.createPolygon(ring, null);
+        }
+        return polygons.length == 1 ? polygons[0] : gf.createMultiPolygon(polygons);
+    }
+}
@@ -2,10 +2,12 @@ package gov.nasa.podaac.forge.strategy;
 
 import com.vividsolutions.jts.geom.*;
 import com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,8 +18,11 @@ import java.util.List;
  */
 public class FootprintStrategyLinestring extends FootprintStrategy {
     private static final Logger log = LoggerFactory.getLogger(FootprintStrategyLinestring.class);
-    private List<List<Coordinate>> coordinateList = new ArrayList<>();
     
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList(Strategy.LINE_STRING.getStrategyName(), Strategy.SWOT_LINESTRING.getStrategyName());
+    }
     
     /**
      * In this case, just split side1 and return. Other params are ignored.
@@ -26,9 +31,7 @@ public class FootprintStrategyLinestring extends FootprintStrategy {
     public List<List<Coordinate>> merge(List<Coordinate> side1,
                                         List<Coordinate> bottom, List<Coordinate> side2,
                                         List<Coordinate> top) {
-        List<List<Coordinate>> sides1 = split(side1);
-        coordinateList = new ArrayList<>(sides1);
-        return coordinateList;
+        return split(side1);
     }
     
     /**
@@ -42,9 +45,9 @@ public class FootprintStrategyLinestring extends FootprintStrategy {
         GeometryFactory gf = new GeometryFactory(new PrecisionModel(1000d));
         List<Geometry> geometries = new ArrayList<>();
         for (List<Coordinate> lc : coords) {
-            LineString lineString = gf.createLineString(lc.toArray(new Coordinate[0]));
+            LineString lineString = gf.createLineString(CoordinateBuffer.sequenceOf(lc));
             Geometry geometry = DouglasPeuckerSimplifier.simplify(lineString, tolerance);
-            if (!geometry.toText().contains("EMPTY")) {
+            if (!containsEmpty(geometry)) {
                 log.debug(geometry.toText());
                 geometries.add(geometry);
             }
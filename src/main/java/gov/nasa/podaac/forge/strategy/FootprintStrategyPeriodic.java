@@ -3,6 +3,10 @@ package gov.nasa.podaac.forge.strategy;
 import com.vividsolutions.jts.geom.*;
 import com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier;
 import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.CoordinateChain;
+import gov.nasa.podaac.forge.geom.MeridianCrossing;
+import gov.nasa.podaac.forge.geom.PartitionedUnion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +24,13 @@ import java.util.List;
 public class FootprintStrategyPeriodic extends FootprintStrategy {
     
     private static final Logger log = LoggerFactory.getLogger(FootprintStrategyPeriodic.class);
-    private final List<List<Coordinate>> coordinateList = new ArrayList<>();
+    
+    public FootprintStrategyPeriodic() {
+    }
+    
+    protected FootprintStrategyPeriodic(double splitMargin) {
+        super(splitMargin);
+    }
     
     /**
      * Because the top coords are split, update sides 1&2 and the top list with new
@@ -29,13 +39,15 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
      * @param tops   Split list of coordinates (with size > 1)
      * @param sides1 List of coordinates for side1 (any size)
      * @param sides2 List of coordinates for side2 (any size)
+     * @param coordinateList Polygons closed off by the top cap are added to this list
      */
     public void processTopCap(List<List<Coordinate>> tops,
-                              List<List<Coordinate>> sides1, List<List<Coordinate>> sides2) {
+                              List<List<Coordinate>> sides1, List<List<Coordinate>> sides2,
+                              List<List<Coordinate>> coordinateList) {
         // If the end of 'top' matches the end of 'side1', extend side1 with the reverse of top,
         // and extend side2 with the second row of top
         if (tops.get(0).get(tops.get(0).size() - 1).x == sides1.get(0).get(sides1.get(0).size() - 1).x) {
-            Collections.reverse(tops.get(0));
+            reverse(tops.get(0));
             sides1.get(0).addAll(tops.get(0));
             closePolygon(sides1.get(0));
             coordinateList.add(sides1.get(0));
@@ -49,8 +61,8 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
             coordinateList.add(sides2.get(0));
             
             sides2.remove(0);
-            List<Coordinate> t = new ArrayList<>(tops.get(0));
-            Collections.reverse(t);
+            List<Coordinate> t = new CoordinateChain(tops.get(0));
+            reverse(t);
             sides1.get(0).addAll(0, t);
         } else {
             // Probably wraps
@@ -71,11 +83,11 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
                 tops.get(0).addAll(tops.get(1));
                 // Add new coords to tops from -180 to 180
             } else if (topCoordinate.x < 0) {
-                Collections.reverse(newTopCoords);
+                reverse(newTopCoords);
                 tops.get(0).addAll(newTopCoords);
                 tops.get(0).addAll(tops.get(1));
             }
-            Collections.reverse(tops.get(0));
+            reverse(tops.get(0));
             sides1.get(0).addAll(0, tops.get(0));
         }
     }
@@ -87,9 +99,11 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
      * @param bottoms Split list of coordinates (with size > 1)
      * @param sides1  List of coordinates for side1 (any size)
      * @param sides2  List of coordinates for side2 (any size)
+     * @param coordinateList Polygons closed off by the bottom cap are added to this list
      */
     public void processBottomCap(List<List<Coordinate>> bottoms,
-                                 List<List<Coordinate>> sides1, List<List<Coordinate>> sides2) {
+                                 List<List<Coordinate>> sides1, List<List<Coordinate>> sides2,
+                                 List<List<Coordinate>> coordinateList) {
         //determine which bottom is the polygon
         if (sides1.get(sides1.size() - 1).get(0).x == bottoms.get(0).get(bottoms.get(0).size() - 1).x) {
             sides1.get(sides1.size() - 1).addAll(bottoms.get(0));
@@ -97,11 +111,11 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
             coordinateList.add(sides1.get(sides1.size() - 1));
             sides1.remove(sides1.size() - 1);
             
-            Collections.reverse(bottoms.get(1));
+            reverse(bottoms.get(1));
             sides2.get(sides2.size() - 1).addAll(bottoms.get(1));
             
         } else if (sides2.get(sides2.size() - 1).get(0).x == bottoms.get(1).get(0).x) {
-            Collections.reverse(sides2.get(sides2.size() - 1));
+            reverse(sides2.get(sides2.size() - 1));
             bottoms.get(1).addAll(sides2.get(sides2.size() - 1));
             closePolygon(bottoms.get(1));
             coordinateList.add(bottoms.get(1));
@@ -126,12 +140,12 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
                 bottoms.get(0).addAll(newBottomCoords);
                 bottoms.get(0).addAll(bottoms.get(1));
             } else if (bottomCoordinate.x < 0) { //-180
-                Collections.reverse(newBottomCoords);
+                reverse(newBottomCoords);
                 bottoms.get(0).addAll(newBottomCoords);
                 bottoms.get(0).addAll(bottoms.get(1));
             }
             
-            Collections.reverse(bottoms.get(0));
+            reverse(bottoms.get(0));
             sides2.get(sides2.size() - 1).addAll(bottoms.get(0));
         }
     }
@@ -159,22 +173,26 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         // Check to see if attachedToFirst has sign change from first
         if (signChange(coordinates.get(0), attachedToFirst)) {
             log.trace("attachedToFirst Fix");
-            List<Coordinate> adds = new ArrayList<>();
-            adds.add(new Coordinate((coordinates.get(0).x * -1), coordinates.get(0).y));
+            CoordinateBuffer adds = new CoordinateBuffer(1);
+            adds.add(coordinates.get(0).x * -1, coordinates.get(0).y);
             caps.add(0, adds);
         }
         
         // Check to see if attachedToSecond has sign change from last
         if (signChange(coordinates.get(coordinates.size() - 1), attachedToLast)) {
             log.trace("attachedToLast Fix");
-            List<Coordinate> adds = new ArrayList<>();
-            adds.add(new Coordinate((coordinates.get(coordinates.size() - 1).x * -1),
-             coordinates.get(coordinates.size() - 1).y));
+            CoordinateBuffer adds = new CoordinateBuffer(1);
+            adds.add(coordinates.get(coordinates.size() - 1).x * -1, coordinates.get(coordinates.size() - 1).y);
             caps.add(caps.size(), adds);
         }
         
     }
     
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(Strategy.PERIODIC.getStrategyName());
+    }
+    
     /**
      * Merge top, bottom, and sides coordinate lists into a single list of coordinates.
      */
@@ -183,6 +201,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
                                         List<Coordinate> bottom, List<Coordinate> side2,
                                         List<Coordinate> top) throws FootprintException {
         
+        List<List<Coordinate>> coordinateList = new ArrayList<>();
         List<List<Coordinate>> sides1 = split(side1);
         List<List<Coordinate>> sides2 = split(side2);
         List<List<Coordinate>> tops = split(top);
@@ -191,7 +210,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         // If tops is empty, try to recalculate using values from sides1 and sides2
         if (tops.size() == 0) {
             //check ends
-            List<Coordinate> coords = new ArrayList<>();
+            List<Coordinate> coords = new CoordinateBuffer();
             coords.add(sides1.get(0).get(0));
             coords.add(sides2.get(0).get(0));
             tops = split(coords);
@@ -206,7 +225,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         }
         
         if (bottoms.size() == 0) {
-            List<Coordinate> coords = new ArrayList<>();
+            List<Coordinate> coords = new CoordinateBuffer();
             
             List<Coordinate> last = sides1.get(sides1.size() - 1);
             coords.add(last.get(last.size() - 1));
@@ -229,7 +248,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         if (tops.size() > 1 && bottoms.size() > 1) {
             if (sides1.size() == 1 && sides2.size() == 1) {
                 log.trace("Each side is its own polygon");
-                Collections.reverse(tops.get(0));
+                reverse(tops.get(0));
                 sides1.get(0).addAll(bottoms.get(0));
                 sides1.get(0).addAll(tops.get(0));
                 closePolygon(sides1.get(0));
@@ -237,7 +256,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
                 sides1.remove(0);
                 
                 tops.get(1).addAll(sides2.get(0));
-                Collections.reverse(bottoms.get(1));
+                reverse(bottoms.get(1));
                 tops.get(1).addAll(bottoms.get(1));
                 closePolygon(tops.get(1));
                 coordinateList.add(tops.get(1));
@@ -247,26 +266,26 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         }
         if (tops.size() > 1) {
             log.trace("Tops split. Processing.");
-            processTopCap(tops, sides1, sides2);
+            processTopCap(tops, sides1, sides2, coordinateList);
         } else {
             if (sides2.size() != 0) {
                 sides2.get(0).addAll(0, tops.get(0));
             } else {
                 //need to add the top to... side2
-                Collections.reverse(tops.get(0));
+                reverse(tops.get(0));
                 sides1.get(0).addAll(0, tops.get(0));
             }
         }
         
         if (bottoms.size() > 1) {
             log.trace("Bottoms split. Processing.");
-            processBottomCap(bottoms, sides1, sides2);
+            processBottomCap(bottoms, sides1, sides2, coordinateList);
         } else {
             if (sides1.size() != 0) {
                 sides1.get(sides1.size() - 1).addAll(bottoms.get(0));
             } else {
                 //need to add the bottom to side2
-                Collections.reverse(bottoms.get(0));
+                reverse(bottoms.get(0));
                 sides2.get(sides2.size() - 1).addAll(bottoms.get(0));
             }
         }
@@ -290,10 +309,10 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         // Combine sides
         for (int i = 0; i < sides1.size(); i++) {
             log.trace("iteration " + i);
-            List<Coordinate> s1 = new ArrayList<>(sides1.get(i));
+            CoordinateChain s1 = new CoordinateChain(sides1.get(i));
             if (sides2.size() > i) {
-                List<Coordinate> s2 = new ArrayList<>(sides2.get(i));
-                Collections.reverse(s2);
+                CoordinateChain s2 = new CoordinateChain(sides2.get(i));
+                reverse(s2);
                 s1.addAll(s2);
             }
             closePolygon(s1);
@@ -322,16 +341,8 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
      */
     public Geometry validate(Geometry geometry) {
         if (geometry instanceof Polygon) {
-            GeometryFactory geometryFactory = new GeometryFactory();
-            
-            Coordinate[] coords = {new Coordinate(0, 90), new Coordinate(0, -90)};
-            LineString antimeridian = geometryFactory.createLineString(coords);
-            coords[0].x = 180;
-            coords[1].x = 180;
-            LineString meridian = geometryFactory.createLineString(coords);
-    
-            if (geometry.intersection(antimeridian).getLength() > 0.0 &&
-                geometry.intersection(meridian).getLength() > 0.0) {
+            Polygon polygon = (Polygon) geometry;
+            if (MeridianCrossing.crosses(polygon, 0d) && MeridianCrossing.crosses(polygon, 180d)) {
                 geometry.normalize();
             }
             
@@ -352,16 +363,12 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
         GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
         List<Geometry> geometries = new ArrayList<>();
 
-        double original_tolerance = tolerance;
-
         for (List<Coordinate> lc : coords) {
 
-            tolerance = original_tolerance;
-
             LinearRing lr;
 
             try {
-                lr = geometryFactory.createLinearRing(lc.toArray(new Coordinate[0]));
+                lr = geometryFactory.createLinearRing(CoordinateBuffer.sequenceOf(lc));
             }
             catch(IllegalArgumentException ex){
                 log.error("Error in FootprintStrategyPeriodic while trying to createLinearRing: %s", ex);
@@ -373,7 +380,7 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
 
             geometry = validate(geometry);
 
-            if (!geometry.toText().contains("EMPTY")) {
+            if (!containsEmpty(geometry)) {
                 
                 if (geometry instanceof MultiPolygon) {
                     MultiPolygon multiPolygon = (MultiPolygon) geometry;
@@ -401,27 +408,16 @@ public class FootprintStrategyPeriodic extends FootprintStrategy {
                 }
             }
             else{
-                while(tolerance > 0) {
-                    tolerance = tolerance * 0.9;
-                    geometry = DouglasPeuckerSimplifier.simplify(polygon, tolerance);
-                    if (!geometry.toText().contains("EMPTY")){
-                        geometries.add(geometry);
-                        break;
-                    }
-                    if(tolerance <= 0.05 ) {
-                        geometries.add(polygon);
-                        break;
-                    }
-                }
+                geometries.add(simplifyWithoutCollapse(polygon, tolerance));
             }
         }
 
         if (geometries.size() > 1) {
-            Geometry unionized =  geometryFactory.createMultiPolygon(geometries.toArray(new Polygon[0])).union();
-            Geometry simplified = DouglasPeuckerSimplifier.simplify(unionized, original_tolerance);
+            Geometry unionized = PartitionedUnion.union(geometries, geometryFactory);
+            Geometry simplified = DouglasPeuckerSimplifier.simplify(unionized, tolerance);
 
             //if simplified polygon is empty then return unionized multi polygon
-            if (!simplified.toText().contains("EMPTY")){
+            if (!containsEmpty(simplified)){
                 return simplified;
             }
 
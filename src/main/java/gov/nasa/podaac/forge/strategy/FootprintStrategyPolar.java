@@ -3,6 +3,9 @@ package gov.nasa.podaac.forge.strategy;
 import com.vividsolutions.jts.geom.*;
 import com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier;
 import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.LineCrossings;
+import gov.nasa.podaac.forge.geom.RingAssembler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,17 +20,22 @@ import java.util.List;
 public class FootprintStrategyPolar extends FootprintStrategy {
     
     private static final Logger log = LoggerFactory.getLogger(FootprintStrategyPolar.class);
-    private final List<List<Coordinate>> coordinateLists = new ArrayList<>();
+    protected final LineCrossings lineCrossings = new LineCrossings(new PrecisionModel(1000d));
     
     /**
      * Given a list of lists of coordinates, reverse each list.
      */
     public List<List<Coordinate>> reverseLists(List<List<Coordinate>> coordLists) {
         List<List<Coordinate>> coordListsReverse = new ArrayList<>(coordLists);
-        coordListsReverse.forEach(Collections::reverse);
+        coordListsReverse.forEach(FootprintStrategy::reverse);
         return coordListsReverse;
     }
     
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(Strategy.POLAR.getStrategyName());
+    }
+    
     /**
      * Merge sides/top/bottom lists of coordinates into a single list of lists of coordinates.
      */
@@ -36,6 +44,7 @@ public class FootprintStrategyPolar extends FootprintStrategy {
                                         List<Coordinate> bottom,
                                         List<Coordinate> side2,
                                         List<Coordinate> top) throws FootprintException {
+        List<List<Coordinate>> coordinateLists = new ArrayList<>();
         List<List<Coordinate>> sides1 = split(side1);
         List<List<Coordinate>> sides2 = split(side2);
         List<List<Coordinate>> tops = split(top);
@@ -44,14 +53,14 @@ public class FootprintStrategyPolar extends FootprintStrategy {
         // Goal is to create the connected lines that will either create holes in the global rectangle
         // or will away into the -180 or 180 meridians
         
-        procSide(sides1, tops, bottoms, "sides1");
+        procSide(sides1, tops, bottoms, "sides1", coordinateLists);
 
         //reverse each list in the coordinate lists
         List<List<Coordinate>> topsR = reverseLists(tops);
         List<List<Coordinate>> bottomsR = reverseLists(bottoms);
         List<List<Coordinate>> sides2R = reverseLists(sides2);
         
-        procSide(sides2R, bottomsR, topsR, "sides2");
+        procSide(sides2R, bottomsR, topsR, "sides2", coordinateLists);
         
         if (coordinateLists.size() <= 1) {
             log.trace("Getting ordered list...");
@@ -61,7 +70,7 @@ public class FootprintStrategyPolar extends FootprintStrategy {
             
             llc.addAll(sides1);
             llc.addAll(sides2);
-            llc.removeAll(coordinateLists);
+            removeAll(llc, coordinateLists);
             
             List<Coordinate> ll = orderLists(llc);
             if (ll != null) {
@@ -81,86 +90,45 @@ public class FootprintStrategyPolar extends FootprintStrategy {
     }
     
     /**
-     * Recursively find rows in llc which match the beginning or end of coordList. Augment coordList with those values
-     * and repeat until llc is empty.
+     * Attach the rows in llc which match the beginning or end of coordList to coordList, and remove them from llc,
+     * until llc is empty.
+     *
+     * @return coordList, or {@code null} if a row in llc could not be attached
      */
     public List<Coordinate> findOne(List<Coordinate> coordList, List<List<Coordinate>> llc) {
-        
-        if (llc.isEmpty()) {
-            return coordList;
-        }
-        
-        log.trace("in FindOne!");
-        log.trace("theOne0" + coordList.get(0));
-        log.trace("theOneN " + coordList.get(coordList.size() - 1));
-        
-        int index = -1;
-        for (int i = 0; i < llc.size(); i++) {
-            List<Coordinate> coords = llc.get(i);
-            log.trace("testing " + i);
-            log.trace("next0 " + coords.get(0));
-            log.trace("nextN " + coords.get(coords.size() - 1));
-            
-            // If the first element of coords matches the last element of coordList
-            if (coords.get(0).equals(coordList.get(coordList.size() - 1))) {
-                coordList.addAll(coords);
-                index = i;
-                break;
-                // If the last element of coords matches the first element of coordList
-            } else if (coords.get(coords.size() - 1).equals(coordList.get(0))) {
-                coordList.addAll(0, coords);
-                index = i;
-                break;
-                // If the last element of coords matches the last element of coordList
-            } else if (coords.get(coords.size() - 1).equals(coordList.get(coordList.size() - 1))) {
-                Collections.reverse(coords);
-                coordList.addAll(coords);
-                index = i;
-                break;
-                // If the first element of coords matches the first element of coordList
-            } else if (coords.get(0).equals(coordList.get(0))) {
-                Collections.reverse(coords);
-                coordList.addAll(0, coords);
-                index = i;
-                break;
-            }
-        }
-        if (index == -1) {
-            log.debug("No Match Found!");
-            return null;
-        }
-        llc.remove(index);
-        return findOne(coordList, llc);
+        RingAssembler assembler = new RingAssembler(llc);
+        List<Coordinate> ordered = assembler.assemble(coordList);
+        removeAll(llc, assembler.getAttached());
+        return ordered;
     }
     
     /**
      * Given side(either 1 or 2)/top/bottom coordinate lists, create connected lines that will create holes in the
-     * global rectangle.
+     * global rectangle. The lines are added to coordinateLists.
      */
     private void procSide(List<List<Coordinate>> sides,
                           List<List<Coordinate>> tops,
                           List<List<Coordinate>> bottoms,
-                          String label) {
-        
-
-        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
+                          String label,
+                          List<List<Coordinate>> coordinateLists) {
         
         if (sides.size() == 1) {
-            LineString lineString = geometryFactory.createLineString(sides.get(0).toArray(new Coordinate[0]));
+            // The side as it was before any holes are cut from it
+            CoordinateBuffer side = new CoordinateBuffer(sides.get(0));
             
             // sides is not a 'simple' geometry, and therefore intersects itself.
             // Creating a hole in this geometry.
-            if (!lineString.isSimple()) {
+            if (!lineCrossings.isSimple(side)) {
                 log.trace(label + ", side intersects itself. Creating a hole");
-                List<List<Coordinate>> coordinateLists = split(sides.get(0), sides.get(0).size() / 2);
-                Coordinate coordinate = intersection(coordinateLists.get(0), coordinateLists.get(1));
+                List<List<Coordinate>> halves = split(sides.get(0), sides.get(0).size() / 2);
+                Coordinate coordinate = intersection(halves.get(0), halves.get(1));
                 log.trace("Intersect at " + coordinate);
-                Collections.reverse(coordinateLists.get(0));
-                Collections.reverse(coordinateLists.get(1));
-                List<Coordinate> merged = mergeLines(coordinateLists.get(0), coordinateLists.get(1), coordinate);
+                reverse(halves.get(0));
+                reverse(halves.get(1));
+                List<Coordinate> merged = mergeLines(halves.get(0), halves.get(1), coordinate);
                 merged.add(merged.get(merged.size() - 1));
                 merged.add(merged.get(0));
-                this.coordinateLists.add(merged);
+                coordinateLists.add(merged);
             }
             // DOES NOT INTERSECT ITSELF
             else {
@@ -168,11 +136,10 @@ public class FootprintStrategyPolar extends FootprintStrategy {
                 // check to see if 'top' or 'bottom' intersects with self.
                 // tops first
                 for (List<Coordinate> coordList : tops) {
-                    LineString rowLineString = geometryFactory.createLineString(coordList.toArray(new Coordinate[coordList.size()]));
                     try {
-                        MultiPoint multiPoint = (MultiPoint) lineString.intersection(rowLineString);
-                        log.trace(String.valueOf(multiPoint));
-                        for (Coordinate coordinate : multiPoint.getCoordinates()) {
+                        List<Coordinate> points = crossingPoints(side, coordList);
+                        log.trace(String.valueOf(points));
+                        for (Coordinate coordinate : points) {
                             if (!coordinate.equals(sides.get(0).get(0))) {
                                 // Found a hole
                                 int i = findClosest(sides.get(0), coordinate);
@@ -186,13 +153,9 @@ public class FootprintStrategyPolar extends FootprintStrategy {
                 // bottoms
                 for (List<Coordinate> coordList : bottoms) {
                     try{
-                        //LineString rowLineString = geometryFactory.createLineString(coordList.toArray(new Coordinate[0]));
-                        LineString rowLineString = geometryFactory.createLineString(coordList.toArray(new Coordinate[coordList.size()]));
-                        System.out.println(coordList.size());
-                        MultiPoint multiPoint = (MultiPoint) lineString.intersection(rowLineString);
-
-                        log.trace(String.valueOf(multiPoint));
-                        for (Coordinate coordinate : multiPoint.getCoordinates()) {
+                        List<Coordinate> points = crossingPoints(side, coordList);
+                        log.trace(String.valueOf(points));
+                        for (Coordinate coordinate : points) {
                             if (!coordinate.equals(sides.get(0).get(sides.get(0).size() - 1))) {
                                 // Found a hole
                                 int i = findClosest(sides.get(0), coordinate);
@@ -281,17 +244,17 @@ public class FootprintStrategyPolar extends FootprintStrategy {
             }
             // Otherwise, first intersects last, so this represents a hole
         }
-        coords.removeAll(slices);
+        removeAll(coords, slices);
         List<Coordinate> globalBox = constructGlobalBox(slices);
         
-        LinearRing linearRing = geometryFactory.createLinearRing(globalBox.toArray(new Coordinate[0]));
+        LinearRing linearRing = geometryFactory.createLinearRing(CoordinateBuffer.sequenceOf(globalBox));
         LinearRing[] holes = new LinearRing[coords.size()];
         
         for (int i = 0; i < coords.size(); i++) {
             log.trace("Creating hole.");
             List<Coordinate> coordinateList = coords.get(i);
             
-            LinearRing holeLinearRing = geometryFactory.createLinearRing(coordinateList.toArray(new Coordinate[0]));
+            LinearRing holeLinearRing = geometryFactory.createLinearRing(CoordinateBuffer.sequenceOf(coordinateList));
             holeLinearRing = (LinearRing) DouglasPeuckerSimplifier.simplify(holeLinearRing, tolerance);
             holes[i] = holeLinearRing;
         }
@@ -331,7 +294,7 @@ public class FootprintStrategyPolar extends FootprintStrategy {
             for (List<Coordinate> coordList : connector) {
                 Coordinate coordinate = intersection(side, coordList);
                 if (coordinate != null) {
-                    Collections.reverse(coordList);
+                    reverse(coordList);
                     List<Coordinate> merged = mergeLines(side, coordList, coordinate);
                     rets.add(merged);
                 }
@@ -376,7 +339,7 @@ public class FootprintStrategyPolar extends FootprintStrategy {
                                 index = findClosest(coordList, coordinate);
                                 log.trace(String.valueOf(index));
                                 coordList = coordList.subList(0, index);
-                                Collections.reverse(coordList);
+                                reverse(coordList);
                                 start.addAll(coordList);
                                 start.addAll(end);
                                 rets.add(start);
@@ -407,12 +370,27 @@ public class FootprintStrategyPolar extends FootprintStrategy {
      */
     private Coordinate intersection(List<Coordinate> line1,
                                     List<Coordinate> line2) {
-        
-        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
-        
-        LineString lineString1 = geometryFactory.createLineString(line1.toArray(new Coordinate[0]));
-        LineString lineString2 = geometryFactory.createLineString(line2.toArray(new Coordinate[0]));
-        return lineString1.intersection(lineString2).getCoordinate();
+        List<LineCrossings.Crossing> crossings = lineCrossings.crossings(line1, line2);
+        return crossings.isEmpty() ? null : crossings.get(0).getPoint();
+    }
+    
+    /**
+     * Find the points where a side crosses a row. Only separate crossing points can cut a hole from the side, so if
+     * the lines cross once, or run along each other, no points are returned.
+     */
+    private List<Coordinate> crossingPoints(List<Coordinate> side, List<Coordinate> row) {
+        List<LineCrossings.Crossing> crossings = lineCrossings.crossings(side, row);
+        List<Coordinate> points = new ArrayList<>();
+        if (crossings.size() < 2) {
+            return points;
+        }
+        for (LineCrossings.Crossing crossing : crossings) {
+            if (crossing.isCollinear()) {
+                return new ArrayList<>();
+            }
+            points.add(crossing.getPoint());
+        }
+        return points;
     }
     
     
@@ -421,22 +399,17 @@ public class FootprintStrategyPolar extends FootprintStrategy {
      */
     public List<Coordinate> mergeLists(List<Coordinate> start, List<Coordinate> end) {
         
-        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
+        List<LineCrossings.Crossing> crossings = lineCrossings.crossings(start, end);
         
-        LineString lsStart = geometryFactory.createLineString(start.toArray(new Coordinate[0]));
-        LineString lsEnd = geometryFactory.createLineString(end.toArray(new Coordinate[0]));
-        
-        if (lsStart.intersects(lsEnd)) {
-            try {
-                Point point = (Point) lsStart.intersection(lsEnd);
+        if (!crossings.isEmpty()) {
+            if (crossings.size() == 1 && !crossings.get(0).isCollinear()) {
+                Coordinate point = crossings.get(0).getPoint();
                 log.trace("Intersection at " + point);
-                return mergeLines(start, end, point.getCoordinate());
-            }
-            catch(ClassCastException exc){
-                // There is a multipoint intersection so return null to add all the points together
-                log.debug("Exception during mergeLists Multipoint intersection FootprintStrategyPolar " + exc);
-                return null;
+                return mergeLines(start, end, point);
             }
+            // There is a multipoint intersection so return null to add all the points together
+            log.debug("Multipoint intersection during mergeLists in FootprintStrategyPolar");
+            return null;
         } else {
             log.trace("NO Intersection!");
             return null;
@@ -449,42 +422,42 @@ public class FootprintStrategyPolar extends FootprintStrategy {
     public List<Coordinate> mergeLines(List<Coordinate> start,
                                        List<Coordinate> end, Coordinate coordinate) {
         int index = findClosest(start, coordinate);
-        List<Coordinate> mergedLines = new ArrayList<>(start.subList(0, index));
+        List<Coordinate> mergedLines = CoordinateBuffer.copyOf(start, 0, index);
         index = findClosest(end, coordinate);
         mergedLines.addAll(end.subList(index, end.size()));
         return mergedLines;
     }
     
     public List<Coordinate> constructGlobalBox(List<List<Coordinate>> slices) {
-        List<Coordinate> globalBox = new ArrayList<>();
+        CoordinateBuffer globalBox = new CoordinateBuffer();
         
-        globalBox.add(new Coordinate(180d, 90d));
+        globalBox.add(180d, 90d);
         // Check for slices
         for (List<Coordinate> slice : slices) {
             if (slice.get(0).x == 180d) {
                 // Check for descending lat
                 if (!(slice.get(0).y > slice.get(slice.size() - 1).y)) {
-                    Collections.reverse(slice);
+                    reverse(slice);
                 }
                 globalBox.addAll(slice);
             }
         }
         
-        globalBox.add(new Coordinate(180d, -90d));
-        globalBox.add(new Coordinate(-180d, -90d));
+        globalBox.add(180d, -90d);
+        globalBox.add(-180d, -90d);
         // Check for slices
         for (List<Coordinate> slice : slices) {
             if (slice.get(0).x == -180d) {
                 // Check for ascending lat
                 if (!(slice.get(0).y < slice.get(slice.size() - 1).y)) {
-                    Collections.reverse(slice);
+                    reverse(slice);
                 }
                 globalBox.addAll(slice);
             }
         }
         
-        globalBox.add(new Coordinate(-180d, 90d));
-        globalBox.add(new Coordinate(180d, 90d));
+        globalBox.add(-180d, 90d);
+        globalBox.add(180d, 90d);
         return globalBox;
     }
 }
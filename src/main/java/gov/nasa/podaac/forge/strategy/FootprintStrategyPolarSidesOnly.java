@@ -3,6 +3,8 @@ package gov.nasa.podaac.forge.strategy;
 import com.vividsolutions.jts.geom.*;
 import com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier;
 import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.LineCrossings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,32 +22,27 @@ import java.util.List;
 public class FootprintStrategyPolarSidesOnly extends FootprintStrategyPolar {
     
     private static final Logger log = LoggerFactory.getLogger(FootprintStrategyPolarSidesOnly.class);
-    private final List<List<Coordinate>> coordinateList = new ArrayList<>();
     
     /**
-     * When a hole has been found, merge lines to create a flat list of coordinates.
+     * When a hole has been found, merge lines to create a flat list of coordinates, and add it to coordinateList.
      */
-    public void addCoordsFromHole(GeometryFactory geometryFactory, List<List<Coordinate>> sides) throws FootprintException {
-        LineString lineString = geometryFactory.createLineString(sides.get(0).toArray(new Coordinate[0]));
-        if (!lineString.isSimple()) {
+    public void addCoordsFromHole(GeometryFactory geometryFactory, List<List<Coordinate>> sides,
+                                  List<List<Coordinate>> coordinateList) throws FootprintException {
+        if (!lineCrossings.isSimple(sides.get(0))) {
             List<List<Coordinate>> coordinateLists = split(sides.get(0), sides.get(0).size() / 2);
-            LineString lineString1 =
-             geometryFactory.createLineString(coordinateLists.get(0).toArray(new Coordinate[0]));
-            LineString lineString2 =
-             geometryFactory.createLineString(coordinateLists.get(1).toArray(new Coordinate[0]));
-            Point point;
-            try {
-                point = (Point) lineString1.intersection(lineString2);
-            } catch (java.lang.ClassCastException | com.vividsolutions.jts.geom.TopologyException e) {
-                // No intersection of lines so add sides to coordinate list
+            List<LineCrossings.Crossing> crossings = lineCrossings.crossings(coordinateLists.get(0),
+                    coordinateLists.get(1));
+            if (crossings.size() != 1 || crossings.get(0).isCollinear()) {
+                // No single intersection of lines so add sides to coordinate list
                 sides.get(0).add(sides.get(0).get(0));
                 coordinateList.add(sides.get(0));
                 return;
             }
+            Coordinate point = crossings.get(0).getPoint();
             
             log.trace("Intersect at " + point);
-            Collections.reverse(coordinateLists.get(0));
-            Collections.reverse(coordinateLists.get(1));
+            reverse(coordinateLists.get(0));
+            reverse(coordinateLists.get(1));
             List<Coordinate> merged = mergeLines(coordinateLists.get(0), coordinateLists.get(1), point);
             merged.add(merged.get(merged.size() - 1));
             merged.add(merged.get(0));
@@ -83,19 +80,18 @@ public class FootprintStrategyPolarSidesOnly extends FootprintStrategyPolar {
             }
             // Otherwise, first intersects last, so this represents a hole
         }
-        coords.removeAll(removes);
-        removes.removeAll(slices);
+        removeAll(coords, removes);
+        removeAll(removes, slices);
         slices.addAll(processRemoves(removes));
         
         List<Coordinate> globalBox = constructGlobalBox(slices);
         
-        globalBox.toArray(new Coordinate[0]);
-        LinearRing glr = geometryFactory.createLinearRing(globalBox.toArray(new Coordinate[0]));
+        LinearRing glr = geometryFactory.createLinearRing(CoordinateBuffer.sequenceOf(globalBox));
         LinearRing[] holes = new LinearRing[coords.size()];
         
         int index = 0;
         for (List<Coordinate> coord : coords) {
-            LinearRing linearRing = geometryFactory.createLinearRing(coord.toArray(new Coordinate[0]));
+            LinearRing linearRing = geometryFactory.createLinearRing(CoordinateBuffer.sequenceOf(coord));
             linearRing = (LinearRing) DouglasPeuckerSimplifier.simplify(linearRing, tolerance);
             holes[index++] = linearRing;
         }
@@ -168,6 +164,11 @@ public class FootprintStrategyPolarSidesOnly extends FootprintStrategyPolar {
         return rets;
     }
     
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(Strategy.POLAR_SIDES.getStrategyName());
+    }
+    
     /**
      * Merge sides/top/bottom lists of coordinates into a single list of lists of coordinates.
      */
@@ -178,6 +179,7 @@ public class FootprintStrategyPolarSidesOnly extends FootprintStrategyPolar {
                                         List<Coordinate> top) throws FootprintException {
         
         GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
+        List<List<Coordinate>> coordinateList = new ArrayList<>();
 
         List<List<Coordinate>> sides1;
         List<List<Coordinate>> sides2;
@@ -200,28 +202,17 @@ public class FootprintStrategyPolarSidesOnly extends FootprintStrategyPolar {
         
         if (sides1.size() == 1) {
             // Hole
-            addCoordsFromHole(geometryFactory, sides1);
+            addCoordsFromHole(geometryFactory, sides1, coordinateList);
         } else {
             coordinateList.addAll(sides1);
         }
         
         if (sides2.size() == 1) {
             // Hole
-            addCoordsFromHole(geometryFactory, sides2);
+            addCoordsFromHole(geometryFactory, sides2, coordinateList);
         } else {
             coordinateList.addAll(sides2);
         }
         return coordinateList;
     }
-    
-    /**
-     * Merge provided coordinate lists by finding the points closest to the provided point, and merging the beginning
-     * of the first list and the end of the second list at that point.
-     *
-     * @return The merged coordinate list
-     */
-    private List<Coordinate> mergeLines(List<Coordinate> start, List<Coordinate> end, Point point) {
-        Coordinate coord = point.getCoordinate();
-        return mergeLines(start, end, coord);
-    }
 }
@@ -1,14 +1,20 @@
 package gov.nasa.podaac.forge.strategy;
 
 import com.vividsolutions.jts.geom.Coordinate;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import ucar.ma2.Array;
+import gov.nasa.podaac.forge.edge.DecodeKernel;
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import gov.nasa.podaac.forge.geom.CoordinateSink;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Range;
 import ucar.nc2.Variable;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 
 /**
@@ -18,15 +24,23 @@ import java.util.Map;
  */
 public class FootprintStrategyPolarSmap extends FootprintStrategyPeriodic {
     
-    private static final Logger log = LoggerFactory.getLogger(FootprintStrategyPolarSmap.class);
-    
     public FootprintStrategyPolarSmap() {
-        this.splitMargin = 179.99d;
+        super(179.99d);
+    }
+    
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(Strategy.SMAP.getStrategyName());
     }
     
     /**
      * Add additional coordinates to the top/bottom/sides coordinate lists, where the value at
      * that coordinate is valid.
+     * <p>
+     * The 3D lat/lon variables are collapsed into 2D by keeping the first valid value along the z dimension. They are
+     * read in slabs of whole columns, sized so that each slab holds about as many values as one 2D layer, and each
+     * column is collapsed and searched straight from its slab, so no collapsed 2D layer is built. At most one slab of
+     * each variable, about two 2D layers, is held at once.
      *
      * @throws IOException If the NetCDF Lat/Lon variables cannot be read
      */
@@ -36,113 +50,168 @@ public class FootprintStrategyPolarSmap extends FootprintStrategyPeriodic {
                                    List<Coordinate> top, List<Coordinate> bottom,
                                    boolean is360, boolean findValid, boolean removeOrigin) throws IOException {
         
-        Array latData = latVariable.read();
-        Array lonData = lonVariable.read();
+        double latFill = latAttMap.get("fill");
+        double lonFill = lonAttMap.get("fill");
+        
+        int[] shape = latVariable.getShape();
+        int sizeX = shape[0];
+        int sizeY = shape[1];
+        int sizeZ = shape[2];
+        int slabColumns = Math.max(1, sizeY / Math.max(1, sizeZ));
+        
+        DecodeKernel kernel = new DecodeKernel(latAttMap, lonAttMap, is360, removeOrigin);
+        CoordinateSink side1Sink = CoordinateBuffer.sinkOf(side1);
+        CoordinateSink side2Sink = CoordinateBuffer.sinkOf(side2);
+        CoordinateSink topSink = CoordinateBuffer.sinkOf(top);
+        CoordinateSink bottomSink = CoordinateBuffer.sinkOf(bottom);
+        
+        // The collapsed values of the last column of the previous slab, which side2 reads when the column after it
+        // starts a new slab
+        float[] previousLat = new float[sizeX];
+        float[] previousLon = new float[sizeX];
         
-        float[][][] latDataValues = (float[][][]) latData.copyToNDJavaArray();
-        float[][][] lonDataValues = (float[][][]) lonData.copyToNDJavaArray();
-
-        int size_z = latDataValues[0][0].length;
-        int size_y = latDataValues[0].length;
-        int size_x = latDataValues.length;
-
-        float [][] latDataValuesFlat = new float[size_x][size_y];
-        float [][] lonDataValuesFlat = new float[size_x][size_y];
-
-        // Create a 2D array from the 3D array to make a more complete footprint
-        for(int x = 0; x < size_x; x++){
-            for(int y = 0; y < size_y; y++) {
-                latDataValuesFlat[x][y] = latAttMap.get("fill").floatValue();
-                lonDataValuesFlat[x][y] = lonAttMap.get("fill").floatValue();
-                for(int z = 0; z < size_z; z++){
-                    float latValue = latDataValues[x][y][z];
-                    float lonValue = lonDataValues[x][y][z];
-                    if (latValue != latAttMap.get("fill") && lonValue != lonAttMap.get("fill")){
-                        latDataValuesFlat[x][y] = latValue;
-                        lonDataValuesFlat[x][y] = lonValue;
-                        break;
-                    }
-                }
-            }
-        }
-
         int bottomIndexPrev = -1;
         int topIndexPrev = -1;
-        for (int col = 0; col < latDataValuesFlat[0].length; col++) {
-            int topIndex = -1;
-            int bottomIndex = -1;
+        for (int firstColumn = 0; firstColumn < sizeY; firstColumn += slabColumns) {
+            int columns = Math.min(slabColumns, sizeY - firstColumn);
+            Slab slab;
+            try {
+                slab = new Slab(latVariable, lonVariable, sizeX, firstColumn, columns, sizeZ, latFill, lonFill);
+            } catch (InvalidRangeException exception) {
+                throw new IOException("Unable to read lat/lon slabs", exception);
+            }
             
-            for (int row = 0; row < latDataValuesFlat.length; row++) {
-                float latValue = latDataValuesFlat[row][col];
-                float lonValue = lonDataValuesFlat[row][col];
-
-                // Find the first value in the current column that is valid (not fill), and add that value to the
-                // 'bottom' coordinates list.
-                if (latValue != latAttMap.get("fill") && lonValue != lonAttMap.get("fill") && bottomIndex == -1) {
-                    bottomIndex = row;
-                    //bottom
-                    addLonLat2List(bottom, latValue, lonValue, latAttMap, lonAttMap, is360, removeOrigin);
+            // Find the first and last value in each column that is valid (not fill). Columns are independent, so
+            // they are scanned in parallel.
+            int[] bottomIndices = new int[columns];
+            int[] topIndices = new int[columns];
+            IntStream.range(0, columns).parallel().forEach(col -> {
+                bottomIndices[col] = -1;
+                topIndices[col] = -1;
+                for (int row = 0; row < sizeX; row++) {
+                    if (slab.isValid(row, col)) {
+                        bottomIndices[col] = row;
+                        break;
+                    }
                 }
+                for (int row = sizeX - 1; row >= 0; row--) {
+                    if (slab.isValid(row, col)) {
+                        topIndices[col] = row;
+                        break;
+                    }
+                }
+            });
+            
+            for (int col = 0; col < columns; col++) {
+                int bottomIndex = bottomIndices[col];
+                int topIndex = topIndices[col];
                 
-                int reverseRow = latDataValues.length - row - 1;
-                latValue = latDataValuesFlat[reverseRow][col];
-                lonValue = lonDataValuesFlat[reverseRow][col];
+                // Add the first valid value in the current column to the 'bottom' coordinates list, and the last
+                // valid value to the 'top' coordinates list.
+                if (bottomIndex != -1) {
+                    slab.decode(bottomIndex, col, kernel, bottomSink);
+                }
+                if (topIndex != -1) {
+                    slab.decode(topIndex, col, kernel, topSink);
+                }
                 
-                // Find the last value in the current column that is valid (not fill), and add that value to the
-                // 'top' coordinates list.
-                if (latValue != latAttMap.get("fill") && lonValue != lonAttMap.get("fill") && topIndex == -1) {
-                    topIndex = reverseRow;
-                    //top
-                    addLonLat2List(top, latValue, lonValue, latAttMap, lonAttMap, is360, removeOrigin);
+                if (bottomIndex != -1 && topIndex != -1) {
+                    if (topIndexPrev == -1) {
+                        topIndexPrev = topIndex;
+                        bottomIndexPrev = bottomIndex;
+                        // Add coordinates between bottomIndex and topIndex to 'side1' coordinates list
+                        for (int k = bottomIndex; k < topIndex + 1; k++) {
+                            slab.decode(k, col, kernel, side1Sink);
+                        }
+                    } else {
+                        topIndexPrev = topIndex;
+                        bottomIndexPrev = bottomIndex;
+                    }
+                } else if (bottomIndex == -1 && bottomIndexPrev > -1) {
+                    // Add coordinates between bottomIndex and topIndex of the previous column to 'side2' coordinates
+                    // list
+                    for (int k = bottomIndexPrev; k < topIndexPrev + 1; k++) {
+                        if (col > 0) {
+                            slab.decode(k, col - 1, kernel, side2Sink);
+                        } else {
+                            kernel.decode(previousLat[k], previousLon[k], side2Sink);
+                        }
+                        bottomIndexPrev = -1;
+                    }
                 }
             }
             
-            if (bottomIndex != -1 && topIndex != -1) {
-                if (topIndexPrev == -1) {
-                    topIndexPrev = topIndex;
-                    bottomIndexPrev = bottomIndex;
-                    // Add coordinates between bottomIndex and topIndex to 'side1' coordinates list
-                    for (int k = bottomIndex; k < topIndex + 1; k++) {
-                        addLonLat2List(side1, latDataValuesFlat[k][col], lonDataValuesFlat[k][col], latAttMap,
-                         lonAttMap, is360, removeOrigin);
-                    }
-                } else {
-                    topIndexPrev = topIndex;
-                    bottomIndexPrev = bottomIndex;
-                }
-            } else if (bottomIndex == -1 && bottomIndexPrev > -1) {
-                // Add coordinates between bottomIndex and topIndex to 'side2' coordinates list
-                for (int k = bottomIndexPrev; k < topIndexPrev + 1; k++) {
-                    addLonLat2List(side2, latDataValuesFlat[k][col - 1], lonDataValuesFlat[k][col - 1], latAttMap,
-                     lonAttMap, is360, removeOrigin);
-                    bottomIndexPrev = -1;
-                }
+            for (int row = 0; row < sizeX; row++) {
+                previousLat[row] = slab.lat(row, columns - 1);
+                previousLon[row] = slab.lon(row, columns - 1);
             }
         }
     }
     
     /**
-     * Apply lat and lon value to coordinate list, apply scale+offset, and
-     * convert to ->360 to -180->180, if necessary.
+     * A slab of whole columns of the 3D lat/lon variables, collapsed along the z dimension as each value is needed.
+     * A position keeps the first value along z where both lat and lon are valid, or the fill value, narrowed to a
+     * float, if there is none.
      */
-    private void addLonLat2List(List<Coordinate> lonLats, float latValue, float lonValue, Map<String, Double> latAttMap,
-                                Map<String, Double> lonAttMap, boolean is360, boolean removeOrigin) {
-        if (removeOrigin && latValue == 0d && lonValue == 0) {
-            log.trace("Removing Origin");
-            return;
+    private static class Slab {
+        private final float[] lat;
+        private final float[] lon;
+        private final int columns;
+        private final int sizeZ;
+        private final double latFill;
+        private final double lonFill;
+        // Whether a position with no valid value still passes the fill check, which is the case when a fill value
+        // is not exactly a float
+        private final boolean fillIsValid;
+        
+        Slab(Variable latVariable, Variable lonVariable, int sizeX, int firstColumn, int columns, int sizeZ,
+             double latFill, double lonFill) throws IOException, InvalidRangeException {
+            List<Range> ranges = Arrays.asList(new Range(0, sizeX - 1),
+                    new Range(firstColumn, firstColumn + columns - 1), new Range(0, sizeZ - 1));
+            this.lat = (float[]) latVariable.read(ranges).get1DJavaArray(DataType.FLOAT);
+            this.lon = (float[]) lonVariable.read(ranges).get1DJavaArray(DataType.FLOAT);
+            this.columns = columns;
+            this.sizeZ = sizeZ;
+            this.latFill = latFill;
+            this.lonFill = lonFill;
+            this.fillIsValid = (float) latFill != latFill && (float) lonFill != lonFill;
         }
         
-        double lat = latValue * latAttMap.get("scale") + latAttMap.get("offset");
-        double lon = lonValue * lonAttMap.get("scale") + lonAttMap.get("offset");
+        /**
+         * @return The index in the slab of the first valid value along z at the given position, or -1 if there is
+         * none
+         */
+        private int firstValid(int row, int col) {
+            int base = (row * columns + col) * sizeZ;
+            for (int z = 0; z < sizeZ; z++) {
+                if (lat[base + z] != latFill && lon[base + z] != lonFill) {
+                    return base + z;
+                }
+            }
+            return -1;
+        }
         
-        if (is360 && lon > 180) {
-            lon = lon - 360;
+        boolean isValid(int row, int col) {
+            return firstValid(row, col) != -1 || fillIsValid;
         }
         
-        //Sanity check. Remove anything outside -180/180 and -90/90
-        if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
-            return;
+        float lat(int row, int col) {
+            int i = firstValid(row, col);
+            return i != -1 ? lat[i] : (float) latFill;
+        }
+        
+        float lon(int row, int col) {
+            int i = firstValid(row, col);
+            return i != -1 ? lon[i] : (float) lonFill;
+        }
+        
+        void decode(int row, int col, DecodeKernel kernel, CoordinateSink sink) {
+            int i = firstValid(row, col);
+            if (i != -1) {
+                kernel.decode(lat[i], lon[i], sink);
+            } else {
+                kernel.decode((float) latFill, (float) lonFill, sink);
+            }
         }
-        lonLats.add(new Coordinate(lon, lat));
     }
 }
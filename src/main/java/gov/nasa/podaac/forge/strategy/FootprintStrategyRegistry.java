@@ -0,0 +1,83 @@
+package gov.nasa.podaac.forge.strategy;
+
+import gov.nasa.podaac.forge.FootprintException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Looks up footprint strategies by the name used in dataset configs.
+ * <p>
+ * Strategies hold no state between footprint operations, so the registry keeps a single instance of each, which may be
+ * shared by granules processed at the same time. The default registry holds every strategy listed in a
+ * {@code META-INF/services/gov.nasa.podaac.forge.strategy.FootprintStrategy} file on the classpath, so a strategy
+ * can be added by listing it there, without changing the {@link gov.nasa.podaac.forge.Footprinter}.
+ */
+public class FootprintStrategyRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(FootprintStrategyRegistry.class);
+
+    private final Map<String, FootprintStrategy> strategies = new LinkedHashMap<>();
+
+    /**
+     * @param strategies The strategies to register, each under all of its names. If two strategies share a name, the
+     *                   first is kept.
+     */
+    public FootprintStrategyRegistry(Iterable<? extends FootprintStrategy> strategies) {
+        for (FootprintStrategy strategy : strategies) {
+            for (String name : strategy.getNames()) {
+                FootprintStrategy existing = this.strategies.putIfAbsent(key(name), strategy);
+                if (existing != null) {
+                    log.warn("Footprint strategy {} is already registered to {}, ignoring {}", name,
+                            existing.getClass().getName(), strategy.getClass().getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The registry of the strategies found on the classpath
+     */
+    public static FootprintStrategyRegistry getDefault() {
+        return DefaultHolder.REGISTRY;
+    }
+
+    /**
+     * Get the strategy registered under the given name, ignoring case.
+     *
+     * @throws FootprintException If no strategy is registered under the name
+     */
+    public FootprintStrategy get(String name) throws FootprintException {
+        FootprintStrategy strategy = name == null ? null : strategies.get(key(name));
+        if (strategy == null) {
+            log.error("The provided footprint strategy {} is invalid", name);
+            throw new FootprintException("Footprint strategy " + name + " was not recognized");
+        }
+        return strategy;
+    }
+
+    /**
+     * @return The names of the registered strategies, in lower case
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(strategies.keySet());
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Loads the default registry the first time it is used.
+     */
+    private static class DefaultHolder {
+        private static final FootprintStrategyRegistry REGISTRY =
+                new FootprintStrategyRegistry(ServiceLoader.load(FootprintStrategy.class));
+    }
+}
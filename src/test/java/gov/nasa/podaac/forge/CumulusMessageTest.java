@@ -0,0 +1,83 @@
+package gov.nasa.podaac.forge;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+
+public class CumulusMessageTest extends TestCase {
+
+    private static final String MESSAGE = "{\"config\": {\"collection\": {\"name\": \"MODIS_A\", \"version\": 1}, " +
+            "\"execution_name\": \"exec-1\", \"other\": [1, 2.50, null]}, " +
+            "\"input\": {\"granules\": [" +
+            "{\"granuleId\": \"g1\", \"files\": [{\"fileName\": \"g1.nc\", \"type\": \"data\", \"size\": 12345678901}, " +
+            "{\"fileName\": \"g1.xml\", \"type\": \"metadata\"}], \"files_count\": 2}, " +
+            "{\"files\": [], \"granuleId\": \"g2\", \"published\": false}]}, " +
+            "\"cumulus_meta\": {\"files\": [{\"fileName\": \"not-a-granule-file\"}]}}";
+
+    /**
+     * Only the collection, execution, and the id and files of each granule are read.
+     */
+    @Test
+    public void testRead() throws IOException {
+        CumulusMessage message = CumulusMessage.read(new StringReader(MESSAGE));
+        assertEquals("MODIS_A", message.getCollectionName());
+        assertEquals("exec-1", message.getExecutionName());
+        assertEquals(2, message.getGranules().size());
+
+        CumulusMessage.Granule first = message.getGranules().get(0);
+        assertEquals("g1", first.getGranuleId());
+        assertEquals(2, first.getFiles().size());
+        assertEquals("g1.nc", first.getFiles().get(0).get("fileName").getAsString());
+        assertEquals(12345678901L, first.getFiles().get(0).get("size").getAsLong());
+
+        CumulusMessage.Granule second = message.getGranules().get(1);
+        assertEquals("g2", second.getGranuleId());
+        assertTrue(second.getFiles().isEmpty());
+    }
+
+    /**
+     * The output is the input with the added files at the end of the files array of their own granule.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        CumulusMessage message = CumulusMessage.read(new StringReader(MESSAGE));
+        JsonObject first = new JsonObject();
+        first.addProperty("fileName", "g1_exec-1.fp");
+        JsonObject second = new JsonObject();
+        second.addProperty("fileName", "g2_exec-1.fp");
+        message.getGranules().get(0).addFile(first);
+        message.getGranules().get(1).addFile(second);
+
+        StringWriter output = new StringWriter();
+        message.write(new StringReader(MESSAGE), output);
+
+        JsonObject expected = new JsonParser().parse(MESSAGE).getAsJsonObject();
+        JsonArray granules = expected.getAsJsonObject("input").getAsJsonArray("granules");
+        granules.get(0).getAsJsonObject().getAsJsonArray("files").add(first);
+        granules.get(1).getAsJsonObject().getAsJsonArray("files").add(second);
+        assertEquals(expected, new JsonParser().parse(output.toString()));
+        assertTrue(output.toString().contains("12345678901"));
+        assertTrue(output.toString().contains("2.50"));
+    }
+
+    /**
+     * A message with nothing added is copied unchanged.
+     */
+    @Test
+    public void testCopy() throws IOException {
+        File inputJsonFile = new File(getClass().getClassLoader().getResource("input.json").getFile());
+        String input = new String(Files.readAllBytes(inputJsonFile.toPath()));
+        CumulusMessage message = CumulusMessage.read(new StringReader(input));
+        StringWriter output = new StringWriter();
+        message.write(new StringReader(input), output);
+        assertEquals(new JsonParser().parse(input), new JsonParser().parse(output.toString()));
+    }
+}
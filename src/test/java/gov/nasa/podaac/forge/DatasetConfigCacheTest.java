@@ -0,0 +1,85 @@
+package gov.nasa.podaac.forge;
+
+import gov.nasa.podaac.forge.pojo.DatasetConfig;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DatasetConfigCacheTest extends TestCase {
+
+    private long now;
+
+    /**
+     * Serves a config whose ETag is its current version, recording the ETag of each request.
+     */
+    private static class VersionedLoader implements DatasetConfigCache.Loader {
+        private final List<String> requests = new ArrayList<>();
+        private int version = 1;
+
+        @Override
+        public DatasetConfigCache.Loaded load(String collectionName, String etag) {
+            requests.add(etag);
+            String currentEtag = "\"v" + version + "\"";
+            if (currentEtag.equals(etag)) {
+                return null;
+            }
+            DatasetConfig config = new Footprinter().parseConfig(
+                    new StringReader("{\"latVar\": \"lat\", \"lonVar\": \"lon\"}"));
+            return new DatasetConfigCache.Loaded(config, currentEtag);
+        }
+    }
+
+    /**
+     * A cached config is reused until it expires, then revalidated with its ETag, and only reloaded once it changes.
+     */
+    @Test
+    public void testRevalidation() throws IOException {
+        DatasetConfigCache cache = new DatasetConfigCache(1000, () -> now);
+        VersionedLoader loader = new VersionedLoader();
+
+        DatasetConfig first = cache.get("MODIS_A", loader);
+        assertEquals("lat", first.getLatVar());
+        now = 999;
+        assertSame(first, cache.get("MODIS_A", loader));
+        assertEquals(1, loader.requests.size());
+        assertNull(loader.requests.get(0));
+
+        now = 1000;
+        assertSame(first, cache.get("MODIS_A", loader));
+        assertEquals(2, loader.requests.size());
+        assertEquals("\"v1\"", loader.requests.get(1));
+
+        // The revalidated config is good for another full time to live
+        now = 1999;
+        assertSame(first, cache.get("MODIS_A", loader));
+        assertEquals(2, loader.requests.size());
+
+        loader.version = 2;
+        now = 2000;
+        DatasetConfig second = cache.get("MODIS_A", loader);
+        assertNotSame(first, second);
+        assertEquals(3, loader.requests.size());
+    }
+
+    /**
+     * Each collection is cached separately.
+     */
+    @Test
+    public void testCollections() throws IOException {
+        DatasetConfigCache cache = new DatasetConfigCache(1000, () -> now);
+        VersionedLoader loader = new VersionedLoader();
+        DatasetConfig modis = cache.get("MODIS_A", loader);
+        DatasetConfig viirs = cache.get("VIIRS_N", loader);
+        assertNotSame(modis, viirs);
+        assertSame(modis, cache.get("MODIS_A", loader));
+        assertEquals(2, loader.requests.size());
+
+        cache.clear();
+        assertNotSame(modis, cache.get("MODIS_A", loader));
+        assertEquals(3, loader.requests.size());
+    }
+}
@@ -103,6 +103,64 @@ public class FootprintHandlerTest {
         assert(foundFPItem);
     }
 
+    @Test
+    public void testPerformFunctionInMemory() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File inputJsonFile = new File(classLoader.getResource("input.json").getFile());
+        inputMessageStr = new String(Files.readAllBytes(inputJsonFile.toPath()));
+        File granuleFile = new File(classLoader.getResource("20200101152000-JPL-L2P_GHRSST-SSTskin-MODIS_A-D-v02.0-fv01.0.nc").getFile());
+        File configFile = new File(classLoader.getResource("MODIS_A-JPL-L2P-v2019.0.cfg").getFile());
+        File outputFile = new File(classLoader.getResource("footprint.txt").getFile());
+        cfgFilePath = configFile.getAbsolutePath();
+        outputFootprintFilePath = outputFile.getAbsolutePath();
+
+        FootprintHandler footprintHandler = new FootprintHandler();
+        FootprintHandler spyFootprintHandler = Mockito.spy(footprintHandler);
+
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigBucketName();
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigDirectory();
+        Mockito.doReturn(null)
+                .when(spyFootprintHandler)
+                .getDatasetConfigURL();
+        Mockito.doReturn(64L * 1024 * 1024)
+                .when(spyFootprintHandler)
+                .getGranuleInMemoryMaxSize();
+        Mockito.doReturn(Files.readAllBytes(granuleFile.toPath()))
+                .when(spyFootprintHandler)
+                .getGranuleBytes(anyString(), anyString());
+        Mockito.doReturn("s3://public-bucket/collection_name/granule_id_footprint.txt")
+                .when(spyFootprintHandler)
+                .upload(any(), any(), any(File.class));
+        Mockito.doReturn(cfgFilePath)
+                .when(spyFootprintHandler)
+                .getDatasetConfigFile(any(), any(), anyString(), anyString());
+        Mockito.doReturn(outputFootprintFilePath).when(spyFootprintHandler)
+                .createOutputFootprintFile(anyString());
+        Mockito.doNothing()
+                .when(spyFootprintHandler)
+                .clean();
+
+        String outputString = spyFootprintHandler.PerformFunction(inputMessageStr, null);
+        JsonObject outputKey = new JsonParser().parse(outputString).getAsJsonObject();
+        JsonArray files = outputKey.getAsJsonObject("input").getAsJsonArray("granules").get(0).getAsJsonObject()
+                .get("files").getAsJsonArray();
+        boolean foundFPItem = false;
+        for(int i =0; i< files.size(); i++) {
+            if(StringUtils.endsWith(files.get(i).getAsJsonObject().get("fileName").getAsString(), ".fp")) {
+                foundFPItem = true;
+            }
+        }
+
+        // The granule was opened from memory, so it was never downloaded to disk
+        Mockito.verify(spyFootprintHandler, Mockito.never())
+                .getGranuleFile(anyString(), anyString(), anyString(), anyString());
+        assert(foundFPItem);
+    }
+
     @Test
     public void testPerformFunctionURL() throws Exception {
         ClassLoader classLoader = getClass().getClassLoader();
@@ -235,6 +293,108 @@ public class FootprintHandlerTest {
         assertTrue(thrown);
     }
 
+    /**
+     * Every data file of every granule should be footprinted, and each footprint file added to its own granule. The
+     * first footprint file of a granule keeps the name used for a single data file.
+     */
+    @Test
+    public void testPerformFunctionMultipleGranules() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File inputJsonFile = new File(classLoader.getResource("input.json").getFile());
+        JsonObject inputMessage = new JsonParser().parse(new String(Files.readAllBytes(inputJsonFile.toPath())))
+                .getAsJsonObject();
+        JsonArray granules = inputMessage.getAsJsonObject("input").getAsJsonArray("granules");
+        JsonObject firstGranule = granules.get(0).getAsJsonObject();
+        JsonObject secondGranule = firstGranule.deepCopy();
+        secondGranule.addProperty("granuleId", "L2_HR_LAKE_SP_product_0002-of-0050");
+        granules.add(secondGranule);
+        firstGranule.getAsJsonArray("files").add(firstGranule.getAsJsonArray("files").get(0).deepCopy());
+
+        File granuleFile = new File(classLoader.getResource("20200101152000-JPL-L2P_GHRSST-SSTskin-MODIS_A-D-v02.0-fv01.0.nc").getFile());
+        File configFile = new File(classLoader.getResource("MODIS_A-JPL-L2P-v2019.0.cfg").getFile());
+
+        FootprintHandler spyFootprintHandler = Mockito.spy(new FootprintHandler());
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigBucketName();
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigDirectory();
+        Mockito.doReturn(null)
+                .when(spyFootprintHandler)
+                .getDatasetConfigURL();
+        Mockito.doReturn("s3://public-bucket/collection_name/granule_id_footprint.txt")
+                .when(spyFootprintHandler)
+                .upload(any(), any(), any(File.class));
+        Mockito.doReturn(granuleFile.getAbsolutePath()).when(spyFootprintHandler)
+                .getGranuleFile(anyString(), anyString(), anyString(), anyString());
+        Mockito.doReturn(configFile.getAbsolutePath())
+                .when(spyFootprintHandler)
+                .getDatasetConfigFile(any(), any(), anyString(), anyString());
+
+        String outputString = spyFootprintHandler.PerformFunction(new Gson().toJson(inputMessage), null);
+        JsonArray outputGranules = new JsonParser().parse(outputString).getAsJsonObject()
+                .getAsJsonObject("input").getAsJsonArray("granules");
+        assertEquals(2, outputGranules.size());
+
+        JsonArray firstFiles = outputGranules.get(0).getAsJsonObject().getAsJsonArray("files");
+        assertEquals(5, firstFiles.size());
+        assertEquals("L2_HR_LAKE_SP_product_0001-of-0050_" + inputMessage.getAsJsonObject("config")
+                .get("execution_name").getAsString() + ".fp",
+                firstFiles.get(3).getAsJsonObject().get("fileName").getAsString());
+        assertTrue(firstFiles.get(4).getAsJsonObject().get("fileName").getAsString().endsWith("_1.fp"));
+
+        JsonArray secondFiles = outputGranules.get(1).getAsJsonObject().getAsJsonArray("files");
+        assertEquals(3, secondFiles.size());
+        assertTrue(secondFiles.get(2).getAsJsonObject().get("fileName").getAsString()
+                .startsWith("L2_HR_LAKE_SP_product_0002-of-0050_"));
+    }
+
+    /**
+     * A granule without a data file fails the message before any footprint file is uploaded, unless the footprint is
+     * fixed.
+     */
+    @Test
+    public void testPerformFunctionGranuleWithoutDataFile() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File inputJsonFile = new File(classLoader.getResource("input.json").getFile());
+        JsonObject inputMessage = new JsonParser().parse(new String(Files.readAllBytes(inputJsonFile.toPath())))
+                .getAsJsonObject();
+        JsonArray granules = inputMessage.getAsJsonObject("input").getAsJsonArray("granules");
+        JsonObject granuleWithoutData = granules.get(0).getAsJsonObject().deepCopy();
+        granuleWithoutData.addProperty("granuleId", "no-data-granule");
+        granuleWithoutData.getAsJsonArray("files").remove(0);
+        granules.add(granuleWithoutData);
+
+        File configFile = new File(classLoader.getResource("MODIS_A-JPL-L2P-v2019.0.cfg").getFile());
+        FootprintHandler spyFootprintHandler = Mockito.spy(new FootprintHandler());
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigBucketName();
+        Mockito.doReturn("TEST")
+                .when(spyFootprintHandler)
+                .getDatasetConfigDirectory();
+        Mockito.doReturn(null)
+                .when(spyFootprintHandler)
+                .getDatasetConfigURL();
+        Mockito.doReturn(configFile.getAbsolutePath())
+                .when(spyFootprintHandler)
+                .getDatasetConfigFile(any(), any(), anyString(), anyString());
+
+        FootprintHandlerException exception = assertThrows(FootprintHandlerException.class,
+                () -> spyFootprintHandler.PerformFunction(new Gson().toJson(inputMessage), null));
+        assertTrue(exception.getMessage().contains("no-data-granule"));
+        Mockito.verify(spyFootprintHandler, Mockito.never()).upload(any(), any(), any(File.class));
+        Mockito.verify(spyFootprintHandler, Mockito.never())
+                .getGranuleFile(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void testGetFootprintFileName() {
+        assertEquals("granule_execution.fp", FootprintHandler.getFootprintFileName("granule", "execution", 0));
+        assertEquals("granule_execution_2.fp", FootprintHandler.getFootprintFileName("granule", "execution", 2));
+    }
+
     /**
      * Tested java.nio.path is "/" safe when there are duplicated "/" to concatenate
      */
@@ -1,10 +1,15 @@
 package gov.nasa.podaac.forge;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKTReader;
 import gov.nasa.podaac.forge.pojo.DatasetConfig;
 import gov.nasa.podaac.forge.pojo.FootprintConfig;
 import gov.nasa.podaac.forge.strategy.FootprintStrategy;
+import gov.nasa.podaac.forge.strategy.FootprintStrategyPeriodic;
 import junit.framework.TestCase;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Assertions;
@@ -14,6 +19,8 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
 
 public class FootprinterTest extends TestCase {
     
@@ -88,4 +95,51 @@ public class FootprinterTest extends TestCase {
         Footprinter footprinter = new Footprinter();
         Assertions.assertThrows(JsonParseException.class, () -> footprinter.parseConfig(path.toString()));
     }
+    
+    /**
+     * The fixed strategy should build the footprint from the dataset config bounds, without opening the granule
+     * (which in this case does not exist).
+     */
+    @Test
+    public void testFootprintFixed() throws Exception {
+        String configFilePath = this.getClass().getResource("/CYGNSS/PODAAC-CYGNS-L2X21.cfg").getPath();
+        Footprinter footprinter = new Footprinter("missing-granule.nc", configFilePath);
+        
+        Map<String, String> footprint = footprinter.footprint();
+        assertEquals("POLYGON ((-180 -43, 180 -43, 180 43, -180 43, -180 -43))", footprint.get("FOOTPRINT"));
+        assertEquals("POLYGON ((-180 -43, -180 43, 180 43, 180 -43, -180 -43))", footprint.get("EXTENT"));
+    }
+    
+    /**
+     * Each level of the pyramid should be simplified from the level before it, in order of increasing tolerance.
+     */
+    @Test
+    public void testBuildPyramid() throws Exception {
+        StringBuilder wkt = new StringBuilder("POLYGON ((");
+        for (int i = 0; i < 200; i++) {
+            double angle = 2 * Math.PI * i / 200;
+            double radius = 10 + (i % 2) * 0.3 + (i % 10 == 0 ? 1 : 0);
+            wkt.append(radius * Math.cos(angle)).append(' ').append(radius * Math.sin(angle)).append(", ");
+        }
+        wkt.append("11 0))");
+        Geometry footprint = new WKTReader().read(wkt.toString());
+        
+        JsonArray pyramid = new Footprinter().buildPyramid(new FootprintStrategyPeriodic(), footprint,
+                Arrays.asList(2.0, 0.1, 0.5));
+        assertEquals(3, pyramid.size());
+        
+        int previousPoints = footprint.getNumPoints();
+        double previousTolerance = 0;
+        for (int i = 0; i < pyramid.size(); i++) {
+            JsonObject level = pyramid.get(i).getAsJsonObject();
+            double tolerance = level.get("tolerance").getAsDouble();
+            Geometry geometry = new WKTReader().read(level.get("footprint").getAsString());
+            assertTrue(tolerance > previousTolerance);
+            assertTrue(geometry.getNumPoints() <= previousPoints);
+            assertFalse(geometry.isEmpty());
+            previousTolerance = tolerance;
+            previousPoints = geometry.getNumPoints();
+        }
+        assertTrue(previousPoints < footprint.getNumPoints());
+    }
 }
@@ -0,0 +1,74 @@
+package gov.nasa.podaac.forge.edge;
+
+import gov.nasa.podaac.forge.geom.CoordinateBuffer;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class DecodeKernelTest extends TestCase {
+
+    private static Map<String, Double> attributes(double fill, double scale, double offset) {
+        Map<String, Double> attMap = new HashMap<>();
+        attMap.put("fill", fill);
+        attMap.put("scale", scale);
+        attMap.put("offset", offset);
+        return attMap;
+    }
+
+    /**
+     * Fill values, the origin and out of range values are dropped, and 0-360 longitudes are wrapped.
+     */
+    @Test
+    public void testDecodeFloat() {
+        Array lat = Array.factory(DataType.FLOAT, new int[]{5}, new float[]{10, -999, 0, 95, 20});
+        Array lon = Array.factory(DataType.FLOAT, new int[]{5}, new float[]{350, 10, 0, 10, 20});
+
+        DecodeKernel kernel = new DecodeKernel(attributes(-999, 1, 0), attributes(-999, 1, 0), true, true);
+        CoordinateBuffer lonLats = new CoordinateBuffer();
+        assertEquals(2, kernel.decode(lat, lon, lonLats));
+
+        assertEquals(-10d, lonLats.getX(0));
+        assertEquals(10d, lonLats.getY(0));
+        assertEquals(20d, lonLats.getX(1));
+        assertEquals(20d, lonLats.getY(1));
+    }
+
+    /**
+     * Packed short values are compared to the fill value before scale and offset are applied.
+     */
+    @Test
+    public void testDecodeShort() {
+        Array lat = Array.factory(DataType.SHORT, new int[]{2, 2}, new short[]{100, -32768, 200, 300});
+        Array lon = Array.factory(DataType.SHORT, new int[]{2, 2}, new short[]{-100, 0, -32768, 400});
+
+        DecodeKernel kernel = new DecodeKernel(attributes(-32768, 0.1, 1), attributes(-32768, 0.01, 0), false, false);
+        CoordinateBuffer lonLats = new CoordinateBuffer();
+        assertEquals(2, kernel.decode(lat, lon, lonLats));
+
+        assertEquals(-1d, lonLats.getX(0), 1e-9);
+        assertEquals(11d, lonLats.getY(0), 1e-9);
+        assertEquals(4d, lonLats.getX(1), 1e-9);
+        assertEquals(31d, lonLats.getY(1), 1e-9);
+    }
+
+    /**
+     * Lat and lon arrays of different types are decoded through the generic path, with the same result.
+     */
+    @Test
+    public void testDecodeMixedTypes() {
+        Array lat = Array.factory(DataType.INT, new int[]{3}, new int[]{1, 2, 3});
+        Array lon = Array.factory(DataType.DOUBLE, new int[]{3}, new double[]{4, 500, 6});
+
+        DecodeKernel kernel = new DecodeKernel(attributes(Double.MIN_VALUE, 1, 0), attributes(Double.MIN_VALUE, 1, 0),
+                false, false);
+        CoordinateBuffer lonLats = new CoordinateBuffer();
+        assertEquals(2, kernel.decode(lat, lon, lonLats));
+
+        assertEquals(4d, lonLats.getX(0));
+        assertEquals(3d, lonLats.getY(1));
+    }
+}
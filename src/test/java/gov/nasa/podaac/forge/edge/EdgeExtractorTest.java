@@ -0,0 +1,182 @@
+package gov.nasa.podaac.forge.edge;
+
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Range;
+import ucar.nc2.Attribute;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+public class EdgeExtractorTest extends TestCase {
+
+    private static final float FILL = -999f;
+
+    /**
+     * Create a mock variable of the given shape, backed by the given values, which serves reads of any section.
+     */
+    static Variable mockVariable(float[] values, int[] shape) throws IOException, InvalidRangeException {
+        Array array = Array.factory(DataType.FLOAT, shape, values);
+        Variable variable = Mockito.mock(Variable.class);
+        Mockito.doReturn(shape).when(variable).getShape();
+        Mockito.doReturn(DataType.FLOAT).when(variable).getDataType();
+        Mockito.doAnswer(invocation -> {
+            List<Range> ranges = invocation.getArgument(0);
+            return array.sectionNoReduce(ranges).copy();
+        }).when(variable).read(anyList());
+        return variable;
+    }
+
+    static Map<String, Double> attributes(double fill) {
+        Map<String, Double> attMap = new HashMap<>();
+        attMap.put("fill", fill);
+        attMap.put("scale", 1d);
+        attMap.put("offset", 0d);
+        return attMap;
+    }
+
+    /**
+     * A swath whose first rows are fill, with valid data starting at the given row.
+     */
+    static float[] swath(int rows, int cols, int firstValidRow, float value) {
+        float[] values = new float[rows * cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                values[row * cols + col] = row < firstValidRow ? FILL : value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The probe should stop at the first block containing a valid pair, rather than reading the whole swath.
+     */
+    @Test
+    public void testProbeStopsAtFirstValidBlock() throws Exception {
+        int[] shape = {100, 4};
+        Variable lat = mockVariable(swath(100, 4, 10, 45f), shape);
+        Variable lon = mockVariable(swath(100, 4, 10, 90f), shape);
+
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false, 8);
+        assertTrue(extractor.hasValidCoordinatePair(new ArrayList<>()));
+
+        // Rows 0-7 are fill, rows 8-15 contain the first valid row, so only two blocks are read.
+        Mockito.verify(lat, Mockito.times(2)).read(anyList());
+        Mockito.verify(lon, Mockito.times(2)).read(anyList());
+    }
+
+    /**
+     * Of the blocks the probe scans, only the one holding the first valid pair should be kept, so the fill blocks
+     * before it are read again if they are needed.
+     */
+    @Test
+    public void testProbeKeepsOnlyValidBlock() throws Exception {
+        int[] shape = {100, 4};
+        Variable lat = mockVariable(swath(100, 4, 50, 45f), shape);
+        Variable lon = mockVariable(swath(100, 4, 50, 90f), shape);
+
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false, 8);
+        assertTrue(extractor.hasValidCoordinatePair(new ArrayList<>()));
+        // Rows 48-55 hold the first valid row
+        Mockito.verify(lat, Mockito.times(7)).read(anyList());
+
+        Array[] valid = extractor.read(Arrays.asList(new Range(50, 51), new Range(0, 3)));
+        Mockito.verify(lat, Mockito.times(7)).read(anyList());
+        assertEquals(45f, valid[0].getFloat(0));
+
+        extractor.read(Arrays.asList(new Range(0, 1), new Range(0, 3)));
+        Mockito.verify(lat, Mockito.times(8)).read(anyList());
+    }
+
+    /**
+     * An all-fill swath contains no valid pair.
+     */
+    @Test
+    public void testProbeNoValidPair() throws Exception {
+        int[] shape = {20, 3};
+        Variable lat = mockVariable(swath(20, 3, 20, 45f), shape);
+        Variable lon = mockVariable(swath(20, 3, 20, 90f), shape);
+
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false, 8);
+        assertFalse(extractor.hasValidCoordinatePair(new ArrayList<>()));
+    }
+
+    /**
+     * Edges which were already read by the probe, or which fall inside a block read by the probe, should be served
+     * from memory.
+     */
+    @Test
+    public void testEdgesReuseProbedBlocks() throws Exception {
+        int[] shape = {16, 4};
+        Variable lat = mockVariable(swath(16, 4, 0, 45f), shape);
+        Variable lon = mockVariable(swath(16, 4, 0, 90f), shape);
+
+        List<Range> side = Arrays.asList(new Range(0, 15), new Range(0, 0));
+        List<Range> top = Arrays.asList(new Range(0, 0), new Range(0, 3));
+
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false, 8);
+        assertTrue(extractor.hasValidCoordinatePair(Arrays.asList(side, top)));
+        // The side contains a valid pair, so the top was not probed.
+        Mockito.verify(lat, Mockito.times(1)).read(anyList());
+
+        Array[] sideData = extractor.read(side);
+        Array[] inside = extractor.read(Arrays.asList(new Range(5, 6), new Range(0, 0)));
+        Mockito.verify(lat, Mockito.times(1)).read(anyList());
+        assertEquals(16, sideData[0].getSize());
+        assertEquals(2, inside[0].getSize());
+        assertEquals(45f, inside[0].getFloat(1));
+        assertEquals(90f, inside[1].getFloat(1));
+
+        Array[] topData = extractor.read(top);
+        Mockito.verify(lat, Mockito.times(2)).read(anyList());
+        assertEquals(4, topData[0].getSize());
+    }
+
+    /**
+     * Prefetching the four edges of a chunked swath reads each corner chunk once, and the edges are then served from
+     * memory with the values in the right order.
+     */
+    @Test
+    public void testPrefetchReadsSharedChunksOnce() throws Exception {
+        int[] shape = {16, 16};
+        float[] values = new float[16 * 16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 90;
+        }
+        Variable lat = mockVariable(values, shape);
+        Variable lon = mockVariable(values, shape);
+        Attribute chunkSizes = new Attribute("_ChunkSizes", Arrays.asList(8, 8));
+        Mockito.doReturn(chunkSizes).when(lat).findAttribute("_ChunkSizes");
+        Mockito.doReturn(chunkSizes).when(lon).findAttribute("_ChunkSizes");
+
+        List<Range> side1 = Arrays.asList(new Range(0, 15), new Range(0, 0));
+        List<Range> bottom = Arrays.asList(new Range(15, 15), new Range(0, 15));
+        List<Range> side2 = Arrays.asList(new Range(0, 15), new Range(15, 15));
+        List<Range> top = Arrays.asList(new Range(0, 0), new Range(0, 15));
+
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false);
+        extractor.prefetch(Arrays.asList(side1, bottom, side2, top));
+        Mockito.verify(lat, Mockito.times(4)).read(anyList());
+
+        Array[] side2Data = extractor.read(side2);
+        Array[] bottomData = extractor.read(bottom);
+        Mockito.verify(lat, Mockito.times(4)).read(anyList());
+        for (int row = 0; row < 16; row++) {
+            assertEquals(values[row * 16 + 15], side2Data[0].getFloat(row));
+        }
+        for (int col = 0; col < 16; col++) {
+            assertEquals(values[15 * 16 + col], bottomData[1].getFloat(col));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gov.nasa.podaac.forge.edge;
+
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ucar.ma2.Range;
+import ucar.nc2.Variable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static gov.nasa.podaac.forge.edge.EdgeExtractorTest.attributes;
+import static gov.nasa.podaac.forge.edge.EdgeExtractorTest.mockVariable;
+import static gov.nasa.podaac.forge.edge.EdgeExtractorTest.swath;
+import static org.mockito.ArgumentMatchers.anyList;
+
+public class ValiditySearchTest extends TestCase {
+
+    private static final double FILL = -999d;
+
+    private static ValiditySearch search(Variable lat, Variable lon) {
+        EdgeExtractor extractor = new EdgeExtractor(lat, lon, attributes(FILL), attributes(FILL), false);
+        DecodeKernel kernel = new DecodeKernel(attributes(FILL), attributes(FILL), false, false);
+        return new ValiditySearch(extractor, kernel);
+    }
+
+    /**
+     * Leading fill rows are skipped with blocks that double in size, rather than one read per row.
+     */
+    @Test
+    public void testFindValidForward() throws Exception {
+        int[] shape = {300, 4};
+        Variable lat = mockVariable(swath(300, 4, 150, 45f), shape);
+        Variable lon = mockVariable(swath(300, 4, 150, 90f), shape);
+
+        List<Range> top = Arrays.asList(new Range(0, 0), new Range(0, 3));
+        assertEquals(150, search(lat, lon).findValid(top, 0, true));
+
+        // Blocks of 1, 2, 4, ... 128 rows reach row 150 in 8 reads
+        Mockito.verify(lat, Mockito.times(8)).read(anyList());
+    }
+
+    /**
+     * Searching towards 0 returns the valid row closest to the edge.
+     */
+    @Test
+    public void testFindValidBackward() throws Exception {
+        int[] shape = {20, 3};
+        Variable lat = mockVariable(swath(20, 3, 5, 45f), shape);
+        Variable lon = mockVariable(swath(20, 3, 5, 90f), shape);
+
+        // Rows 5-19 are valid, so searching down from row 19 finds row 18 straight away
+        List<Range> bottom = Arrays.asList(new Range(19, 19), new Range(0, 2));
+        assertEquals(18, search(lat, lon).findValid(bottom, 0, false));
+    }
+
+    /**
+     * A granule with no valid row stops at the array bounds, and rows already checked are not read again.
+     */
+    @Test
+    public void testNoValidRow() throws Exception {
+        int[] shape = {40, 2};
+        Variable lat = mockVariable(swath(40, 2, 40, 45f), shape);
+        Variable lon = mockVariable(swath(40, 2, 40, 90f), shape);
+
+        ValiditySearch search = search(lat, lon);
+        List<Range> top = Arrays.asList(new Range(0, 0), new Range(0, 1));
+        assertEquals(-1, search.findValid(top, 0, true));
+        assertEquals(-1, search.findValid(top, 0, true));
+
+        // Blocks of 1, 2, 4, 8, 16 and the remaining 8 rows
+        Mockito.verify(lat, Mockito.times(6)).read(anyList());
+    }
+}
@@ -0,0 +1,153 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class CellCoveringTest extends TestCase {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    private Polygon box(double minX, double minY, double maxX, double maxY) {
+        return geometryFactory.createPolygon(geometryFactory.createLinearRing(new Coordinate[]{
+                new Coordinate(minX, minY), new Coordinate(maxX, minY), new Coordinate(maxX, maxY),
+                new Coordinate(minX, maxY), new Coordinate(minX, minY)}), null);
+    }
+
+    /**
+     * The ID of the cell at the given level holding the given point.
+     */
+    private static long pointCell(int level, double lon, double lat) {
+        int x = (int) Math.floor((lon + 180.0) / 360.0 * (1 << level));
+        int y = (int) Math.floor((lat + 90.0) / 180.0 * (1 << level));
+        return CellCovering.cellId(level, x, y);
+    }
+
+    /**
+     * Each cell knows its level, and the range of a cell holds the ranges of its children.
+     */
+    @Test
+    public void testCellIds() {
+        long root = CellCovering.cellId(0, 0, 0);
+        assertEquals(0, CellCovering.level(root));
+        assertEquals(1L, CellCovering.rangeMin(root));
+        assertEquals((1L << 53) - 1, CellCovering.rangeMax(root));
+
+        long cell = CellCovering.cellId(3, 5, 2);
+        assertEquals(3, CellCovering.level(cell));
+        for (int i = 0; i < 4; i++) {
+            long child = CellCovering.cellId(4, 10 + (i & 1), 4 + (i >> 1));
+            assertEquals(4, CellCovering.level(child));
+            assertTrue(CellCovering.rangeMin(child) >= CellCovering.rangeMin(cell));
+            assertTrue(CellCovering.rangeMax(child) <= CellCovering.rangeMax(cell));
+        }
+        long deepest = CellCovering.cellId(CellCovering.MAX_LEVEL, (1 << 26) - 1, (1 << 26) - 1);
+        assertEquals(CellCovering.MAX_LEVEL, CellCovering.level(deepest));
+        assertEquals(deepest, CellCovering.rangeMin(deepest));
+        assertEquals(deepest, CellCovering.rangeMax(deepest));
+        assertTrue(deepest < (1L << 53));
+    }
+
+    /**
+     * A polygon which is exactly a cell is covered by that cell alone, and a small polygon by the cell holding it.
+     */
+    @Test
+    public void testSingleCell() {
+        assertEquals(Collections.singletonList(CellCovering.cellId(1, 0, 0)),
+                new CellCovering(5).cover(box(-180, -90, 0, 0)));
+        assertEquals(Collections.singletonList(CellCovering.cellId(3, 4, 4)),
+                new CellCovering(3).cover(box(1, 1, 2, 2)));
+        assertTrue(new CellCovering(3).cover(geometryFactory.createPolygon(null, null)).isEmpty());
+    }
+
+    /**
+     * Every point of the footprint should fall in the range of a cell in the covering, which should be in order.
+     */
+    @Test
+    public void testCoversFootprint() throws ParseException {
+        Geometry footprint = new WKTReader(geometryFactory).read(
+                "MULTIPOLYGON (((-40 -30, 10 -35, 30 20, -5 45, -45 10, -40 -30)), ((170 60, 180 60, 180 70, 170 60)))");
+        int level = 8;
+        List<Long> cells = new CellCovering(level).cover(footprint);
+        Long[] sorted = cells.toArray(new Long[0]);
+        Arrays.sort(sorted);
+        assertEquals(Arrays.asList(sorted), cells);
+
+        // Interior cells are merged into larger cells
+        assertTrue(cells.stream().anyMatch(cell -> CellCovering.level(cell) < level));
+
+        Random random = new Random(3);
+        int checked = 0;
+        while (checked < 1000) {
+            double lon = -45 + random.nextDouble() * 225;
+            double lat = -35 + random.nextDouble() * 105;
+            if (!footprint.contains(geometryFactory.createPoint(new Coordinate(lon, lat)))) {
+                continue;
+            }
+            long point = pointCell(CellCovering.MAX_LEVEL, lon, lat);
+            assertTrue(cells.stream().anyMatch(cell ->
+                    CellCovering.rangeMin(cell) <= point && point <= CellCovering.rangeMax(cell)));
+            checked++;
+        }
+    }
+
+    /**
+     * A line along the edge of a cell is still covered.
+     */
+    @Test
+    public void testLineOnCellEdge() throws ParseException {
+        Geometry line = new WKTReader(geometryFactory).read("LINESTRING (0 0, 0 10)");
+        assertFalse(new CellCovering(4).cover(line).isEmpty());
+    }
+
+    /**
+     * A covering at a fine level is held to the cell budget by keeping coarser cells along the boundary, and still
+     * covers the footprint.
+     */
+    @Test
+    public void testMaxCells() throws ParseException {
+        Geometry footprint = new WKTReader(geometryFactory).read(
+                "POLYGON ((-40 -30, 10 -35, 30 20, -5 45, -45 10, -40 -30))");
+        int level = 16;
+        List<Long> cells = new CellCovering(level, 50).cover(footprint);
+        assertTrue(cells.size() <= 50);
+        assertTrue(cells.stream().allMatch(cell -> CellCovering.level(cell) < level));
+
+        Random random = new Random(5);
+        int checked = 0;
+        while (checked < 500) {
+            double lon = -45 + random.nextDouble() * 75;
+            double lat = -35 + random.nextDouble() * 80;
+            if (!footprint.contains(geometryFactory.createPoint(new Coordinate(lon, lat)))) {
+                continue;
+            }
+            long point = pointCell(CellCovering.MAX_LEVEL, lon, lat);
+            assertTrue(cells.stream().anyMatch(cell ->
+                    CellCovering.rangeMin(cell) <= point && point <= CellCovering.rangeMax(cell)));
+            checked++;
+        }
+    }
+
+    /**
+     * Four siblings merge into their parent.
+     */
+    @Test
+    public void testParent() {
+        long parent = CellCovering.cellId(4, 3, 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(parent, CellCovering.parent(CellCovering.cellId(5, 6 + (i & 1), 8 + (i >> 1))));
+        }
+        assertEquals(Collections.singletonList(CellCovering.cellId(1, 1, 1)),
+                new CellCovering(6).cover(box(0, 0, 180, 90)));
+    }
+}
@@ -0,0 +1,88 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CoordinateBufferTest extends TestCase {
+
+    /**
+     * The buffer should behave like a list of coordinates when inserting, removing and reversing.
+     */
+    @Test
+    public void testListOperations() {
+        CoordinateBuffer buffer = new CoordinateBuffer(1);
+        buffer.add(1, 10);
+        buffer.add(new Coordinate(3, 30));
+        buffer.add(1, new Coordinate(2, 20));
+        buffer.addAll(0, Arrays.asList(new Coordinate(-1, -10), new Coordinate(0, 0)));
+
+        List<Coordinate> expected = Arrays.asList(new Coordinate(-1, -10), new Coordinate(0, 0),
+                new Coordinate(1, 10), new Coordinate(2, 20), new Coordinate(3, 30));
+        assertEquals(expected, buffer);
+
+        buffer.reverse();
+        assertEquals(new Coordinate(3, 30), buffer.get(0));
+        assertEquals(-1d, buffer.getX(4));
+
+        buffer.remove(0);
+        assertEquals(4, buffer.size());
+        assertEquals(2d, buffer.getX(0));
+
+        // Adding a buffer to itself should not corrupt it
+        buffer.addAll(buffer);
+        assertEquals(8, buffer.size());
+        assertEquals(buffer.get(0), buffer.get(4));
+    }
+
+    /**
+     * Sub lists are used by the polar strategies, and must write through to the buffer.
+     */
+    @Test
+    public void testSubListWritesThrough() {
+        CoordinateBuffer buffer = new CoordinateBuffer(Arrays.asList(new Coordinate(0, 0), new Coordinate(1, 1),
+                new Coordinate(2, 2), new Coordinate(3, 3)));
+        List<Coordinate> subList = buffer.subList(0, 2);
+        subList.add(subList.get(0));
+        subList.addAll(new ArrayList<>(Arrays.asList(new Coordinate(9, 9))));
+
+        assertEquals(4, subList.size());
+        assertEquals(6, buffer.size());
+        assertEquals(new Coordinate(0, 0), buffer.get(2));
+        assertEquals(new Coordinate(9, 9), buffer.get(3));
+        assertEquals(new Coordinate(2, 2), buffer.get(4));
+    }
+
+    /**
+     * A linear ring built from the buffer's coordinate sequence should match one built from a coordinate array.
+     */
+    @Test
+    public void testCoordinateSequence() {
+        List<Coordinate> ring = Arrays.asList(new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(10, 10),
+                new Coordinate(0, 10), new Coordinate(0, 0));
+        CoordinateBuffer buffer = new CoordinateBuffer(ring);
+        CoordinateSequence sequence = CoordinateBuffer.sequenceOf(buffer);
+
+        assertEquals(5, sequence.size());
+        assertEquals(10d, sequence.getX(1));
+        assertEquals(10d, sequence.getY(2));
+        assertTrue(Double.isNaN(sequence.getOrdinate(0, CoordinateSequence.Z)));
+
+        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
+        LinearRing fromBuffer = geometryFactory.createLinearRing(sequence);
+        LinearRing fromArray = geometryFactory.createLinearRing(ring.toArray(new Coordinate[0]));
+        assertTrue(fromBuffer.equalsExact(fromArray));
+
+        // Changes to the buffer after the sequence is built do not leak into the geometry
+        buffer.set(0, new Coordinate(5, 5));
+        assertEquals(0d, fromBuffer.getCoordinateN(0).x);
+    }
+}
@@ -0,0 +1,144 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CoordinateChainTest extends TestCase {
+
+    private static CoordinateBuffer line(int size) {
+        CoordinateBuffer buffer = new CoordinateBuffer(size);
+        for (int i = 0; i < size; i++) {
+            buffer.add(i, -i);
+        }
+        return buffer;
+    }
+
+    /**
+     * Ranges of a buffer should be read in place, and adjacent ranges should share a run.
+     */
+    @Test
+    public void testRanges() {
+        CoordinateBuffer source = line(10);
+        CoordinateChain chain = new CoordinateChain();
+        chain.add(-180, 5);
+        chain.addRange(source, 2, 4);
+        chain.addRange(source, 4, 6);
+        chain.addRange(source, 8, 9);
+        chain.add(180, 5);
+
+        assertEquals(4, chain.runCount());
+        assertEquals(Arrays.asList(new Coordinate(-180, 5), new Coordinate(2, -2), new Coordinate(3, -3),
+                new Coordinate(4, -4), new Coordinate(5, -5), new Coordinate(8, -8), new Coordinate(180, 5)), chain);
+        assertEquals(8d, chain.getX(5));
+        assertEquals(-5d, chain.getY(4));
+    }
+
+    /**
+     * Joining and reversing chains should give the same points as the same operations on array lists, without
+     * copying the points of either chain.
+     */
+    @Test
+    public void testJoinAndReverse() {
+        CoordinateBuffer source = line(20);
+        CoordinateChain first = new CoordinateChain();
+        first.addRange(source, 0, 5);
+        CoordinateChain second = new CoordinateChain();
+        second.addRange(source, 10, 15);
+        second.add(180, 0);
+
+        List<Coordinate> expectedFirst = new ArrayList<>(first);
+        List<Coordinate> expectedSecond = new ArrayList<>(second);
+
+        second.reverse();
+        Collections.reverse(expectedSecond);
+        first.addAll(second);
+        expectedFirst.addAll(expectedSecond);
+        first.addAll(0, second);
+        expectedFirst.addAll(0, expectedSecond);
+        first.add(first.get(0));
+        expectedFirst.add(expectedFirst.get(0));
+
+        assertEquals(expectedFirst, first);
+        assertEquals(6, first.runCount());
+
+        // Changing the second chain afterwards must not change the first
+        second.add(99, 99);
+        second.reverse();
+        assertEquals(expectedFirst, first);
+
+        CoordinateSequence sequence = CoordinateBuffer.sequenceOf(first);
+        assertEquals(expectedFirst.size(), sequence.size());
+        for (int i = 0; i < sequence.size(); i++) {
+            assertEquals(expectedFirst.get(i), sequence.getCoordinate(i));
+        }
+    }
+
+    /**
+     * Changes in the middle of a chain, including through a sub list, should flatten it and keep working as a list.
+     */
+    @Test
+    public void testFlatten() {
+        CoordinateBuffer source = line(10);
+        CoordinateChain chain = new CoordinateChain();
+        chain.addRange(source, 0, 6);
+        List<Coordinate> expected = new ArrayList<>(chain);
+
+        List<Coordinate> subList = chain.subList(0, 3);
+        subList.add(subList.get(0));
+        expected.subList(0, 3).add(expected.get(0));
+        assertEquals(expected, chain);
+        assertEquals(0, chain.runCount());
+
+        chain.remove(1);
+        expected.remove(1);
+        chain.set(0, new Coordinate(7, 7));
+        expected.set(0, new Coordinate(7, 7));
+        chain.reverse();
+        Collections.reverse(expected);
+        chain.addAll(expected);
+        expected.addAll(new ArrayList<>(expected));
+        assertEquals(expected, chain);
+
+        // The source buffer is never written to
+        assertEquals(line(10), source);
+    }
+    /**
+     * A chain and its sub lists should find the same closest points as a linear scan, and repeated searches of a sub
+     * list should build and use the index of the chain.
+     */
+    @Test
+    public void testFindClosest() {
+        CoordinateBuffer source = line(200);
+        CoordinateChain chain = new CoordinateChain();
+        chain.add(-180, 0);
+        chain.addRange(source, 0, 120);
+        chain.addRange(source, 150, 200);
+        chain.reverse();
+        List<Coordinate> expected = new ArrayList<>(chain);
+
+        assertEquals(expected.indexOf(new Coordinate(60, -60)), chain.findClosest(60.2, -60));
+        assertFalse(chain.isIndexed());
+
+        List<Coordinate> half = chain.subList(100, chain.size());
+        List<Coordinate> quarter = half.subList(0, 30);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.subList(100, expected.size()).indexOf(new Coordinate(60, -60)),
+                    ((CoordinateSearch) half).findClosest(60.2, -60));
+            // The closest point of the whole chain is outside the quarter, so its last point is found instead
+            assertEquals(29, ((CoordinateSearch) quarter).findClosest(-100, 100));
+        }
+        assertTrue(chain.isIndexed());
+
+        half.add(new Coordinate(-100, 100));
+        assertFalse(chain.isIndexed());
+        assertEquals(half.size() - 1, ((CoordinateSearch) half).findClosest(-100, 100));
+        assertEquals(chain.size() - 1, chain.findClosest(-100, 100));
+    }
+}
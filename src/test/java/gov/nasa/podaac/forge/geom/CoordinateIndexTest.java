@@ -0,0 +1,108 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CoordinateIndexTest extends TestCase {
+
+    /**
+     * Index of the closest coordinate, as found by a linear scan comparing Coordinate.distance.
+     */
+    private static int linearClosest(CoordinateBuffer buffer, Coordinate coordinate) {
+        double distance = Double.MAX_VALUE;
+        int index = 0;
+        for (int i = 0; i < buffer.size(); i++) {
+            double d = buffer.get(i).distance(coordinate);
+            if (d < distance) {
+                distance = d;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The index should match a linear scan, including ties, on a side with repeated points snapped to a grid.
+     */
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Random random = new Random(42);
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        for (int i = 0; i < 5000; i++) {
+            buffer.add(Math.round(random.nextDouble() * 360 - 180), Math.round(random.nextDouble() * 180 - 90));
+        }
+        CoordinateIndex index = new CoordinateIndex(buffer);
+        assertEquals(5000, index.size());
+
+        for (int i = 0; i < 2000; i++) {
+            Coordinate query = new Coordinate(random.nextDouble() * 400 - 200, Math.round(random.nextDouble() * 200 - 100));
+            assertEquals(linearClosest(buffer, query), index.nearest(query.x, query.y));
+        }
+    }
+
+    /**
+     * A search limited to a range of indices should match a linear scan of that range, and an empty range returns
+     * its start.
+     */
+    @Test
+    public void testNearestInRange() {
+        Random random = new Random(7);
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        for (int i = 0; i < 2000; i++) {
+            buffer.add(Math.round(random.nextGaussian() * 20), i * 0.01);
+        }
+        CoordinateIndex index = new CoordinateIndex(buffer);
+
+        for (int i = 0; i < 500; i++) {
+            int from = random.nextInt(buffer.size());
+            int to = from + random.nextInt(buffer.size() - from + 1);
+            Coordinate query = new Coordinate(random.nextGaussian() * 20, random.nextDouble() * 20);
+            CoordinateBuffer range = buffer.slice(from, to);
+            assertEquals(from + linearClosest(range, query), index.nearest(query.x, query.y, from, to));
+        }
+        assertEquals(300, index.nearest(0, 0, 300, 300));
+    }
+
+    /**
+     * NaN points are never the closest, and an empty index returns 0 like the linear scan.
+     */
+    @Test
+    public void testNaNAndEmpty() {
+        assertEquals(0, new CoordinateIndex(new CoordinateBuffer()).nearest(1, 1));
+
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        buffer.add(Double.NaN, 0);
+        buffer.add(5, 5);
+        buffer.add(1, 1);
+        CoordinateIndex index = new CoordinateIndex(buffer);
+        assertEquals(2, index.size());
+        assertEquals(2, index.nearest(0, 0));
+        assertEquals(0, index.nearest(Double.NaN, 0));
+    }
+
+    /**
+     * The buffer should keep its index for repeated searches, and drop it when the buffer changes.
+     */
+    @Test
+    public void testBufferIndexInvalidated() {
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        for (int i = 0; i < 100; i++) {
+            buffer.add(i, 0);
+        }
+        assertEquals(10, buffer.findClosest(10.2, 1));
+        assertEquals(20, buffer.findClosest(20.2, 1));
+
+        buffer.set(50, new Coordinate(10.2, 1));
+        assertEquals(50, buffer.findClosest(10.2, 1));
+
+        buffer.reverse();
+        assertEquals(49, buffer.findClosest(10.2, 1));
+        assertEquals(79, buffer.findClosest(20.2, 1));
+
+        buffer.remove(0);
+        assertEquals(78, buffer.findClosest(20.2, 1));
+    }
+}
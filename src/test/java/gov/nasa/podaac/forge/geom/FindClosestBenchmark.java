@@ -0,0 +1,110 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import gov.nasa.podaac.forge.strategy.FootprintStrategyPolar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the closest point on a long polar side, through {@link FootprintStrategyPolar#findClosest}, with
+ * a linear scan of lists of coordinates, and with the lists the polar strategy searches while merging lines: the
+ * chains returned by split, and the halves of a chain returned by split(List, int), which share the chain's index.
+ */
+@State(Scope.Thread)
+public class FindClosestBenchmark {
+
+    private final static int NUM_WARMUP = 5;
+    private final static int NUM_RUNS = 5;
+    private final static int SIDE_SIZE = 20000;
+    private final static int NUM_QUERIES = 100;
+
+    /**
+     * Exposes the split of a side into the pieces between antimeridian crossings.
+     */
+    private static class SplittingStrategy extends FootprintStrategyPolar {
+        List<List<Coordinate>> splitSide(List<Coordinate> side) {
+            return split(side);
+        }
+    }
+
+    private final SplittingStrategy strategy = new SplittingStrategy();
+    private List<List<Coordinate>> lists;
+    private List<List<Coordinate>> chains;
+    private List<List<Coordinate>> halves;
+    private Coordinate[] queries;
+
+    @Setup
+    public void setup() {
+        List<Coordinate> side = new ArrayList<>();
+        // A side spiralling in towards the pole, as in a polar orbiting swath, which crosses the antimeridian
+        for (int i = 0; i < SIDE_SIZE; i++) {
+            double lon = (i * 0.05) % 360 - 180;
+            double lat = 60 + 29.0 * i / SIDE_SIZE;
+            side.add(new Coordinate(lon, lat));
+        }
+        chains = strategy.splitSide(side);
+        lists = new ArrayList<>();
+        halves = new ArrayList<>();
+        for (List<Coordinate> chain : chains) {
+            lists.add(new ArrayList<>(chain));
+            halves.addAll(strategy.split(chain, chain.size() / 2));
+        }
+        queries = new Coordinate[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            queries[i] = new Coordinate(side.get(i * SIDE_SIZE / NUM_QUERIES).x + 0.01,
+                    side.get(i * SIDE_SIZE / NUM_QUERIES).y - 0.01);
+        }
+    }
+
+    private int findClosest(List<List<Coordinate>> searched) {
+        int total = 0;
+        for (Coordinate query : queries) {
+            for (List<Coordinate> coordinates : searched) {
+                total += strategy.findClosest(coordinates, query);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = NUM_WARMUP)
+    @Measurement(iterations = NUM_RUNS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findClosestList() {
+        return findClosest(lists);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = NUM_WARMUP)
+    @Measurement(iterations = NUM_RUNS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findClosestSplit() {
+        return findClosest(chains);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = NUM_WARMUP)
+    @Measurement(iterations = NUM_RUNS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findClosestSplitHalves() {
+        return findClosest(halves);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(".*" + FindClosestBenchmark.class.getSimpleName() + ".*")
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,89 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class LineCrossingsTest extends TestCase {
+
+    private final PrecisionModel precisionModel = new PrecisionModel(1000d);
+    private final LineCrossings lineCrossings = new LineCrossings(precisionModel);
+
+    private static List<Coordinate> line(double... ordinates) {
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        for (int i = 0; i < ordinates.length; i += 2) {
+            buffer.add(ordinates[i], ordinates[i + 1]);
+        }
+        return buffer;
+    }
+
+    /**
+     * Crossing points should come back in x/y order, with the segments they were found on, and match the points of
+     * a JTS overlay.
+     */
+    @Test
+    public void testCrossings() {
+        List<Coordinate> side = line(0, 0, 10, 10, 20, 0, 30, 10);
+        List<Coordinate> row = line(0, 5, 30, 5);
+
+        List<LineCrossings.Crossing> crossings = lineCrossings.crossings(side, row);
+        assertEquals(3, crossings.size());
+        assertEquals(new Coordinate(5, 5), crossings.get(0).getPoint());
+        assertEquals(0, crossings.get(0).getSegment1());
+        assertEquals(new Coordinate(15, 5), crossings.get(1).getPoint());
+        assertEquals(1, crossings.get(1).getSegment1());
+        assertEquals(new Coordinate(25, 5), crossings.get(2).getPoint());
+        assertEquals(2, crossings.get(2).getSegment1());
+        assertEquals(0, crossings.get(2).getSegment2());
+        assertFalse(crossings.get(0).isCollinear());
+
+        GeometryFactory geometryFactory = new GeometryFactory(precisionModel);
+        LineString sideLine = geometryFactory.createLineString(CoordinateBuffer.sequenceOf(side));
+        LineString rowLine = geometryFactory.createLineString(CoordinateBuffer.sequenceOf(row));
+        Coordinate[] overlay = sideLine.intersection(rowLine).getCoordinates();
+        Arrays.sort(overlay);
+        assertEquals(Arrays.asList(overlay),
+                Arrays.asList(crossings.get(0).getPoint(), crossings.get(1).getPoint(), crossings.get(2).getPoint()));
+
+        assertTrue(lineCrossings.crossings(side, line(0, 20, 30, 20)).isEmpty());
+    }
+
+    /**
+     * Lines running along each other should report the ends of the overlap as collinear.
+     */
+    @Test
+    public void testCollinear() {
+        List<LineCrossings.Crossing> crossings = lineCrossings.crossings(line(0, 0, 10, 0), line(5, 0, 15, 0));
+        assertEquals(2, crossings.size());
+        assertTrue(crossings.get(0).isCollinear());
+        assertEquals(new Coordinate(5, 0), crossings.get(0).getPoint());
+        assertEquals(new Coordinate(10, 0), crossings.get(1).getPoint());
+    }
+
+    /**
+     * Simplicity should agree with LineString.isSimple for open, closed, self-crossing and doubling-back lines.
+     */
+    @Test
+    public void testIsSimple() {
+        GeometryFactory geometryFactory = new GeometryFactory(precisionModel);
+        List<List<Coordinate>> lines = Arrays.asList(
+                line(0, 0, 10, 0, 10, 10, 0, 10),
+                line(0, 0, 10, 0, 10, 10, 0, 10, 0, 0),
+                line(0, 0, 10, 10, 10, 0, 0, 10),
+                line(0, 0, 10, 0, 10, 0, 10, 10),
+                line(0, 0, 10, 0, 5, 0),
+                line(0, 0, 10, 0, 10, 10, 5, 0),
+                line(0, 0, 10, 0, 10, 10, 0, 10, 5, 0, 20, 0));
+
+        for (List<Coordinate> line : lines) {
+            LineString lineString = geometryFactory.createLineString(CoordinateBuffer.sequenceOf(line));
+            assertEquals(line.toString(), lineString.isSimple(), lineCrossings.isSimple(line));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares checking whether a swath polygon crosses the prime meridian and the antimeridian with a JTS overlay, as
+ * FootprintStrategyPeriodic.validate used to, and with {@link MeridianCrossing}.
+ */
+@State(Scope.Thread)
+public class MeridianCrossingBenchmark {
+
+    private final static int NUM_WARMUP = 5;
+    private final static int NUM_RUNS = 5;
+    private final static int SIDE_SIZE = 10000;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private Polygon polygon;
+    private LineString primeMeridian;
+    private LineString antimeridian;
+
+    @Setup
+    public void setup() {
+        // A swath running from the south east to the north west, across the prime meridian
+        Coordinate[] ring = new Coordinate[SIDE_SIZE * 2 + 1];
+        for (int i = 0; i < SIDE_SIZE; i++) {
+            double t = (double) i / SIDE_SIZE;
+            ring[i] = new Coordinate(60 - 120 * t, -80 + 160 * t + Math.sin(i) * 0.01);
+            ring[SIDE_SIZE * 2 - 1 - i] = new Coordinate(80 - 120 * t, -80 + 160 * t + Math.cos(i) * 0.01);
+        }
+        ring[SIDE_SIZE * 2] = ring[0];
+        polygon = geometryFactory.createPolygon(geometryFactory.createLinearRing(ring), null);
+        primeMeridian = geometryFactory.createLineString(new Coordinate[]{new Coordinate(0, 90), new Coordinate(0, -90)});
+        antimeridian = geometryFactory.createLineString(new Coordinate[]{new Coordinate(180, 90), new Coordinate(180, -90)});
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = NUM_WARMUP)
+    @Measurement(iterations = NUM_RUNS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean crossesOverlay() {
+        return polygon.intersection(primeMeridian).getLength() > 0.0 &&
+                polygon.intersection(antimeridian).getLength() > 0.0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = NUM_WARMUP)
+    @Measurement(iterations = NUM_RUNS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean crossesSegments() {
+        return MeridianCrossing.crosses(polygon, 0d) && MeridianCrossing.crosses(polygon, 180d);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(".*" + MeridianCrossingBenchmark.class.getSimpleName() + ".*")
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
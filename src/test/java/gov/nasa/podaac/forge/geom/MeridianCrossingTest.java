@@ -0,0 +1,60 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+public class MeridianCrossingTest extends TestCase {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    private boolean overlayCrosses(Polygon polygon, double meridian) {
+        LineString line = geometryFactory.createLineString(new Coordinate[]{new Coordinate(meridian, 90),
+                new Coordinate(meridian, -90)});
+        return polygon.intersection(line).getLength() > 0.0;
+    }
+
+    /**
+     * The crossing test should agree with the length of an overlay with the meridian, for polygons which cross it,
+     * run along it, touch it at a vertex, or stay clear of it.
+     */
+    @Test
+    public void testMatchesOverlay() throws ParseException {
+        WKTReader reader = new WKTReader(geometryFactory);
+        String[] polygons = {
+                "POLYGON ((-10 -10, 10 -10, 10 10, -10 10, -10 -10))",
+                "POLYGON ((0 -10, 10 -10, 10 10, 0 10, 0 -10))",
+                "POLYGON ((0 0, 10 -10, 10 10, 0 0))",
+                "POLYGON ((5 -10, 10 -10, 10 10, 5 10, 5 -10))",
+                "POLYGON ((170 -10, 180 -10, 180 10, 170 10, 170 -10))",
+                "POLYGON ((170 0, 180 5, 170 10, 170 0))",
+                "POLYGON ((-20 -20, 20 -20, 20 20, -20 20, -20 -20), (-5 -5, 5 -5, 5 5, -5 5, -5 -5))",
+                "POLYGON ((-10 -10, 10 -10, 10 10, 0 0, -10 10, -10 -10))"
+        };
+        for (String wkt : polygons) {
+            Polygon polygon = (Polygon) reader.read(wkt);
+            assertEquals(wkt, overlayCrosses(polygon, 0d), MeridianCrossing.crosses(polygon, 0d));
+            assertEquals(wkt, overlayCrosses(polygon, 180d), MeridianCrossing.crosses(polygon, 180d));
+        }
+    }
+
+    /**
+     * Points fed one ring at a time should not join the end of one ring to the start of the next.
+     */
+    @Test
+    public void testRings() {
+        MeridianCrossing crossing = new MeridianCrossing(0d);
+        crossing.add(0, 5);
+        crossing.add(5, 5);
+        crossing.startRing();
+        crossing.add(0, -5);
+        assertFalse(crossing.isCrossed());
+        crossing.add(0, 10);
+        assertTrue(crossing.isCrossed());
+    }
+}
@@ -0,0 +1,83 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.MultiPolygon;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PartitionedUnionTest extends TestCase {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000d));
+
+    private Polygon box(double minX, double minY, double maxX, double maxY) {
+        return geometryFactory.createPolygon(geometryFactory.createLinearRing(new Coordinate[]{
+                new Coordinate(minX, minY), new Coordinate(maxX, minY), new Coordinate(maxX, maxY),
+                new Coordinate(minX, maxY), new Coordinate(minX, minY)}), null);
+    }
+
+    /**
+     * Polygons should be grouped by chains of overlapping envelopes, in input order.
+     */
+    @Test
+    public void testPartition() {
+        Polygon a = box(0, 0, 2, 2);
+        Polygon b = box(10, 10, 12, 12);
+        Polygon c = box(1, 1, 3, 3);
+        Polygon d = box(2.5, 2.5, 4, 4);
+
+        List<List<Polygon>> groups = PartitionedUnion.partition(Arrays.asList(a, b, c, d));
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList(a, c, d), groups.get(0));
+        assertEquals(Arrays.asList(b), groups.get(1));
+    }
+
+    /**
+     * The partitioned union should cover the same area as a single overlay of every polygon.
+     */
+    @Test
+    public void testUnionMatchesOverlay() {
+        List<Geometry> polygons = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            double x = (i % 10) * 15 - 170;
+            double y = (i / 10) * 15 - 60;
+            polygons.add(box(x, y, x + 10, y + 10));
+            polygons.add(box(x + 5, y + 5, x + 12, y + 12));
+        }
+
+        Geometry expected = geometryFactory.createMultiPolygon(polygons.toArray(new Polygon[0])).union();
+        Geometry union = PartitionedUnion.union(polygons, geometryFactory);
+
+        assertTrue(union instanceof MultiPolygon);
+        assertTrue(union.isValid());
+        assertEquals(40, union.getNumGeometries());
+        assertEquals(expected.getArea(), union.getArea(), 0.001d);
+        assertTrue(union.symDifference(expected).isEmpty());
+    }
+
+    /**
+     * Parts of the union should be in the order of the first input polygon of each group, whether or not the group
+     * was unioned.
+     */
+    @Test
+    public void testUnionOrder() {
+        Polygon single = box(20, 20, 22, 22);
+        Polygon first = box(0, 0, 2, 2);
+        Polygon last = box(-20, -20, -18, -18);
+        Polygon overlapping = box(1, 1, 3, 3);
+
+        Geometry union = PartitionedUnion.union(Arrays.asList(single, first, last, overlapping), geometryFactory);
+        assertEquals(3, union.getNumGeometries());
+        assertTrue(union.getGeometryN(0).equalsExact(single));
+        assertTrue(union.getGeometryN(1).getEnvelopeInternal().contains(first.getEnvelopeInternal()));
+        assertTrue(union.getGeometryN(1).getEnvelopeInternal().contains(overlapping.getEnvelopeInternal()));
+        assertTrue(union.getGeometryN(2).equalsExact(last));
+    }
+}
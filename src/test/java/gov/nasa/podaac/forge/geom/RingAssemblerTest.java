@@ -0,0 +1,74 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class RingAssemblerTest extends TestCase {
+
+    /**
+     * A line cut into many shuffled pieces, some reversed, should be joined back into the original line.
+     */
+    @Test
+    public void testAssembleManyPieces() {
+        int count = 20000;
+        List<List<Coordinate>> pieces = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pieces.add(new ArrayList<>(Arrays.asList(new Coordinate(i, i % 7), new Coordinate(i + 1, (i + 1) % 7))));
+        }
+        List<Coordinate> line = pieces.remove(count / 2);
+        Random random = new Random(7);
+        Collections.shuffle(pieces, random);
+        for (List<Coordinate> piece : pieces) {
+            if (random.nextBoolean()) {
+                Collections.reverse(piece);
+            }
+        }
+
+        RingAssembler assembler = new RingAssembler(pieces);
+        List<Coordinate> result = assembler.assemble(line);
+        assertSame(line, result);
+        assertEquals(count - 1, assembler.getAttached().size());
+        assertEquals(count * 2, result.size());
+        assertEquals(new Coordinate(0, 0), result.get(0));
+        assertEquals(new Coordinate(count, count % 7), result.get(result.size() - 1));
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i).x >= result.get(i - 1).x);
+        }
+    }
+
+    /**
+     * When several pieces touch the line, the earliest piece is attached first, and 0 and -0 are the same point.
+     */
+    @Test
+    public void testEarliestPieceFirst() {
+        List<Coordinate> line = new ArrayList<>(Arrays.asList(new Coordinate(-0d, 0), new Coordinate(1, 0)));
+        List<Coordinate> after = new ArrayList<>(Arrays.asList(new Coordinate(1, 0), new Coordinate(2, 0)));
+        List<Coordinate> before = new ArrayList<>(Arrays.asList(new Coordinate(-1, 0), new Coordinate(0, 0)));
+
+        RingAssembler assembler = new RingAssembler(Arrays.asList(before, after));
+        List<Coordinate> result = assembler.assemble(line);
+        assertEquals(Arrays.asList(before, after), assembler.getAttached());
+        assertEquals(new Coordinate(-1, 0), result.get(0));
+        assertEquals(new Coordinate(2, 0), result.get(result.size() - 1));
+    }
+
+    /**
+     * A piece which does not touch the line should fail the assembly.
+     */
+    @Test
+    public void testNoMatch() {
+        List<Coordinate> line = new ArrayList<>(Arrays.asList(new Coordinate(0, 0), new Coordinate(1, 0)));
+        List<Coordinate> apart = new ArrayList<>(Arrays.asList(new Coordinate(5, 5), new Coordinate(6, 6)));
+
+        RingAssembler assembler = new RingAssembler(Collections.singletonList(apart));
+        assertNull(assembler.assemble(line));
+        assertTrue(assembler.getAttached().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class StreamingSimplifierTest extends TestCase {
+
+    private static CoordinateBuffer simplify(CoordinateBuffer line, double tolerance, int windowSize) {
+        CoordinateBuffer simplified = new CoordinateBuffer();
+        StreamingSimplifier simplifier = new StreamingSimplifier(simplified, tolerance, windowSize);
+        for (int i = 0; i < line.size(); i++) {
+            simplifier.add(line.getX(i), line.getY(i));
+        }
+        simplifier.finish();
+        assertEquals(line.size(), simplifier.getAdded());
+        assertEquals(simplified.size(), simplifier.getKept());
+        return simplified;
+    }
+
+    private static double segmentDistance(Coordinate p, Coordinate a, Coordinate b) {
+        double dx = b.x - a.x;
+        double dy = b.y - a.y;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((p.x - a.x) * dx + (p.y - a.y) * dy) / lengthSquared));
+        return p.distance(new Coordinate(a.x + t * dx, a.y + t * dy));
+    }
+
+    /**
+     * Points on a straight line should be reduced to the ends of the line.
+     */
+    @Test
+    public void testStraightLine() {
+        CoordinateBuffer line = new CoordinateBuffer();
+        for (int i = 0; i <= 100; i++) {
+            line.add(i * 0.1, i * 0.05);
+        }
+        CoordinateBuffer simplified = simplify(line, 0.01, StreamingSimplifier.DEFAULT_WINDOW_SIZE);
+        assertEquals(2, simplified.size());
+        assertEquals(line.get(0), simplified.get(0));
+        assertEquals(line.get(100), simplified.get(1));
+    }
+
+    /**
+     * Every input point should lie within the tolerance of the simplified line, and the simplified line should be a
+     * subsequence of the input which keeps its ends.
+     */
+    @Test
+    public void testErrorBound() {
+        Random random = new Random(7);
+        CoordinateBuffer line = new CoordinateBuffer();
+        double y = 0;
+        for (int i = 0; i < 5000; i++) {
+            y += random.nextGaussian() * 0.05;
+            line.add(-170 + i * 0.01, y);
+        }
+        double tolerance = 0.2;
+        CoordinateBuffer simplified = simplify(line, tolerance, 64);
+        assertTrue(simplified.size() < line.size() / 10);
+        assertEquals(line.get(0), simplified.get(0));
+        assertEquals(line.get(line.size() - 1), simplified.get(simplified.size() - 1));
+
+        int vertex = 0;
+        for (int i = 0; i < line.size(); i++) {
+            Coordinate point = line.get(i);
+            if (vertex + 1 < simplified.size() && point.equals2D(simplified.get(vertex + 1))) {
+                vertex++;
+            }
+            if (vertex + 1 < simplified.size()) {
+                assertTrue(segmentDistance(point, simplified.get(vertex), simplified.get(vertex + 1)) <= tolerance + 1e-12);
+            }
+        }
+        assertEquals(simplified.size() - 1, vertex);
+    }
+
+    /**
+     * A full window forces a vertex to be kept, even on a straight line.
+     */
+    @Test
+    public void testWindowSize() {
+        CoordinateBuffer line = new CoordinateBuffer();
+        for (int i = 0; i <= 100; i++) {
+            line.add(i, 0);
+        }
+        CoordinateBuffer simplified = simplify(line, 1, 10);
+        assertEquals(11, simplified.size());
+        for (int i = 0; i < simplified.size(); i++) {
+            assertEquals(i * 10.0, simplified.getX(i));
+        }
+    }
+
+    /**
+     * Both ends of a step across the antimeridian should be kept, even though the points beyond it lie on the
+     * segment which wraps around the globe.
+     */
+    @Test
+    public void testAntimeridian() {
+        CoordinateBuffer line = new CoordinateBuffer();
+        line.add(176, 0);
+        line.add(177, 0);
+        line.add(178, 0);
+        line.add(179, 0);
+        line.add(-179, 0);
+        line.add(-178, 0);
+        line.add(-177, 0);
+        CoordinateBuffer simplified = simplify(line, 0.5, StreamingSimplifier.DEFAULT_WINDOW_SIZE);
+        assertEquals(4, simplified.size());
+        assertEquals(176.0, simplified.getX(0));
+        assertEquals(179.0, simplified.getX(1));
+        assertEquals(-179.0, simplified.getX(2));
+        assertEquals(-177.0, simplified.getX(3));
+    }
+
+    /**
+     * A single point, and no points, pass through unchanged.
+     */
+    @Test
+    public void testShortLines() {
+        assertEquals(0, simplify(new CoordinateBuffer(), 1, 10).size());
+        CoordinateBuffer line = new CoordinateBuffer();
+        line.add(1, 2);
+        CoordinateBuffer simplified = simplify(line, 1, 10);
+        assertEquals(1, simplified.size());
+        assertEquals(line.get(0), simplified.get(0));
+    }
+}
@@ -0,0 +1,93 @@
+package gov.nasa.podaac.forge.geom;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class VertexBudgetSimplifierTest extends TestCase {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    /**
+     * A ring of the given number of points around a circle, with the radius jittered by up to the given amount.
+     */
+    private LinearRing ring(double centreX, double centreY, double radius, int points, double jitter, Random random) {
+        Coordinate[] coordinates = new Coordinate[points + 1];
+        for (int i = 0; i < points; i++) {
+            double angle = 2 * Math.PI * i / points;
+            double r = radius + (random.nextDouble() - 0.5) * jitter;
+            coordinates[i] = new Coordinate(centreX + r * Math.cos(angle), centreY + r * Math.sin(angle));
+        }
+        coordinates[points] = new Coordinate(coordinates[0]);
+        return geometryFactory.createLinearRing(coordinates);
+    }
+
+    /**
+     * A large polygon should be reduced to the budget, and keep roughly the same shape.
+     */
+    @Test
+    public void testBudget() {
+        Polygon polygon = geometryFactory.createPolygon(ring(0, 0, 10, 2000, 0.5, new Random(1)), null);
+        Geometry simplified = VertexBudgetSimplifier.simplify(polygon, 50);
+        assertTrue(simplified instanceof Polygon);
+        assertEquals(50, simplified.getNumPoints());
+        assertTrue(simplified.isValid());
+        assertEquals(polygon.getArea(), simplified.getArea(), polygon.getArea() * 0.05);
+    }
+
+    /**
+     * A hole close to a jagged shell should stay inside the shell, so the polygon stays valid.
+     */
+    @Test
+    public void testTopology() {
+        Random random = new Random(2);
+        LinearRing shell = ring(0, 0, 10, 1000, 1.0, random);
+        LinearRing hole = ring(0, 0, 8.9, 1000, 0.4, random);
+        Polygon polygon = geometryFactory.createPolygon(shell, new LinearRing[]{hole});
+        assertTrue(polygon.isValid());
+
+        Geometry simplified = VertexBudgetSimplifier.simplify(polygon, 40);
+        assertTrue(simplified.isValid());
+        assertEquals(1, ((Polygon) simplified).getNumInteriorRing());
+        assertTrue(simplified.getNumPoints() <= 40);
+    }
+
+    /**
+     * Rings keep at least three distinct vertices, and lines keep their ends, even when the budget is smaller.
+     */
+    @Test
+    public void testMinimum() throws ParseException {
+        WKTReader reader = new WKTReader(geometryFactory);
+        Geometry multiPolygon = reader.read("MULTIPOLYGON (((0 0, 1 0, 2 0.1, 2 1, 1 1.1, 0 1, 0 0)), " +
+                "((5 5, 6 5, 6 6, 5.5 6.1, 5 6, 5 5)))");
+        Geometry simplified = VertexBudgetSimplifier.simplify(multiPolygon, 3);
+        assertEquals(2, simplified.getNumGeometries());
+        assertEquals(8, simplified.getNumPoints());
+        assertTrue(simplified.isValid());
+
+        LineString line = (LineString) reader.read("LINESTRING (0 0, 1 0.1, 2 -0.1, 3 0.2, 4 0)");
+        LineString simplifiedLine = (LineString) VertexBudgetSimplifier.simplify(line, 2);
+        assertEquals(2, simplifiedLine.getNumPoints());
+        assertEquals(line.getStartPoint(), simplifiedLine.getStartPoint());
+        assertEquals(line.getEndPoint(), simplifiedLine.getEndPoint());
+    }
+
+    /**
+     * A geometry within the budget is returned unchanged.
+     */
+    @Test
+    public void testWithinBudget() throws ParseException {
+        Geometry polygon = new WKTReader(geometryFactory).read("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))");
+        assertSame(polygon, VertexBudgetSimplifier.simplify(polygon, 5));
+        assertSame(polygon, VertexBudgetSimplifier.simplify(polygon, 100));
+    }
+}
@@ -0,0 +1,78 @@
+package gov.nasa.podaac.forge.io;
+
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static gov.nasa.podaac.forge.io.RangeReaderFixtures.contents;
+import static gov.nasa.podaac.forge.io.RangeReaderFixtures.reader;
+
+public class ParallelRangeDownloaderTest extends TestCase {
+
+    /**
+     * A file downloaded in parts, including a short last part, has the same contents as the object.
+     */
+    @Test
+    public void testDownload(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(10_000);
+        File file = tempDir.resolve("download.nc").toFile();
+        try (FileRangeReader reader = reader(tempDir, contents)) {
+            new ParallelRangeDownloader(1024, 4).download(reader, file);
+            assertEquals(10, reader.getRequests());
+        }
+        assertTrue(Arrays.equals(contents, Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * An object read into memory in parts has the same contents as the object, and a small object is read with a
+     * single request.
+     */
+    @Test
+    public void testRead(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(10_000);
+        try (FileRangeReader reader = reader(tempDir, contents)) {
+            assertTrue(Arrays.equals(contents, new ParallelRangeDownloader(3000, 3).read(reader)));
+            assertEquals(4, reader.getRequests());
+        }
+        try (FileRangeReader reader = reader(tempDir, contents)) {
+            assertTrue(Arrays.equals(contents, new ParallelRangeDownloader().read(reader)));
+            assertEquals(1, reader.getRequests());
+        }
+    }
+
+    /**
+     * A part which comes back short fails the download.
+     */
+    @Test
+    public void testShortPart(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(10_000);
+        try (FileRangeReader reader = reader(tempDir, contents)) {
+            RangeReader truncated = new RangeReader() {
+                @Override
+                public long length() {
+                    return 12_000;
+                }
+
+                @Override
+                public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+                    return reader.read(position, buffer, offset, length);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            new ParallelRangeDownloader(1024, 4).read(truncated);
+            fail("Expected a short part to fail the download");
+        } catch (EOFException expected) {
+            // The last parts are past the end of the file
+        }
+    }
+}
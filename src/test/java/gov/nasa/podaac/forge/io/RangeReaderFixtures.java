@@ -0,0 +1,34 @@
+package gov.nasa.podaac.forge.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test contents and readers shared by the tests of the range readers.
+ */
+final class RangeReaderFixtures {
+
+    private RangeReaderFixtures() {
+    }
+
+    /**
+     * @return Contents of the given size, in which every byte differs from its neighbours
+     */
+    static byte[] contents(int size) {
+        byte[] contents = new byte[size];
+        for (int i = 0; i < size; i++) {
+            contents[i] = (byte) (i * 31 + 7);
+        }
+        return contents;
+    }
+
+    /**
+     * @return A reader over a file in the given directory holding the given contents
+     */
+    static FileRangeReader reader(Path tempDir, byte[] contents) throws IOException {
+        Path path = tempDir.resolve("granule.nc");
+        Files.write(path, contents);
+        return new FileRangeReader(path.toFile());
+    }
+}
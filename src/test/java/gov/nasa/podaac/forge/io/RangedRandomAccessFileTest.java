@@ -0,0 +1,70 @@
+package gov.nasa.podaac.forge.io;
+
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static gov.nasa.podaac.forge.io.RangeReaderFixtures.contents;
+import static gov.nasa.podaac.forge.io.RangeReaderFixtures.reader;
+
+public class RangedRandomAccessFileTest extends TestCase {
+
+    /**
+     * Reads anywhere in the file return the same bytes as the file, including reads which span blocks.
+     */
+    @Test
+    public void testRead(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(10_000);
+        try (RangedRandomAccessFile raf = new RangedRandomAccessFile("granule.nc", reader(tempDir, contents), 1024, 4)) {
+            assertEquals(10_000, raf.length());
+
+            byte[] buffer = new byte[3000];
+            raf.seek(900);
+            raf.readFully(buffer);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(contents, 900, 3900), buffer));
+
+            raf.seek(9_999);
+            assertEquals(contents[9_999] & 0xff, raf.read());
+            assertEquals(-1, raf.read());
+        }
+    }
+
+    /**
+     * Only the blocks which are read are fetched, and each block is only fetched once while it is cached.
+     */
+    @Test
+    public void testOnlyReadBlocksAreFetched(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(100_000);
+        FileRangeReader reader = reader(tempDir, contents);
+        try (RangedRandomAccessFile raf = new RangedRandomAccessFile("granule.nc", reader, 1024, 4)) {
+            byte[] buffer = new byte[16];
+            for (int i = 0; i < 3; i++) {
+                raf.seek(50_000);
+                raf.readFully(buffer);
+                raf.seek(10);
+                raf.readFully(buffer);
+            }
+            assertEquals(2, reader.getRequests());
+            assertEquals(2048, raf.getBytesFetched());
+        }
+    }
+
+    /**
+     * Copying a range to a channel returns the same bytes as the file.
+     */
+    @Test
+    public void testReadToByteChannel(@TempDir Path tempDir) throws IOException {
+        byte[] contents = contents(5000);
+        try (RangedRandomAccessFile raf = new RangedRandomAccessFile("granule.nc", reader(tempDir, contents), 1024, 2)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3000, raf.readToByteChannel(Channels.newChannel(out), 1500, 3000));
+            assertTrue(Arrays.equals(Arrays.copyOfRange(contents, 1500, 4500), out.toByteArray()));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package gov.nasa.podaac.forge.strategy;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.pojo.FootprintConfig;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FootprintStrategyFixedTest extends TestCase {
+    
+    private final FootprintStrategyFixed footprintStrategyFixed = new FootprintStrategyFixed();
+    
+    private static FootprintConfig fixedConfig(int latMin, int latMax, int lonMin, int lonMax) {
+        return new FootprintConfig(FootprintStrategy.Strategy.FIXED, false, false, null, null, null, null,
+                latMin, latMax, lonMin, lonMax);
+    }
+    
+    /**
+     * The bounding ring should be closed, and go around the corners of the configured bounds.
+     */
+    @Test
+    public void testBoundingRing() throws FootprintException {
+        List<List<Coordinate>> rings = FootprintStrategyFixed.boundingRings(fixedConfig(-43, 43, -180, 180));
+        assertEquals(1, rings.size());
+        List<Coordinate> ring = rings.get(0);
+        
+        assertEquals(5, ring.size());
+        assertEquals(ring.get(0), ring.get(4));
+        assertEquals(new Coordinate(-180, -43), ring.get(0));
+        assertEquals(new Coordinate(180, -43), ring.get(1));
+        assertEquals(new Coordinate(180, 43), ring.get(2));
+        assertEquals(new Coordinate(-180, 43), ring.get(3));
+    }
+    
+    /**
+     * Merge should return the s1 side, unchanged, wrapped in another list.
+     */
+    @Test
+    public void testMerge() throws FootprintException {
+        List<Coordinate> s1 = FootprintStrategyFixed.boundingRings(fixedConfig(-10, 10, -20, 20)).get(0);
+        
+        List<List<Coordinate>> coordsList = footprintStrategyFixed.merge(s1, null, null, null);
+        
+        assertEquals(1, coordsList.size());
+        assertEquals(s1, coordsList.get(0));
+    }
+    
+    /**
+     * mergeGeoms should generate the bounding box polygon, without simplifying it.
+     */
+    @Test
+    public void testMergeGeoms() throws FootprintException {
+        List<Coordinate> s1 = FootprintStrategyFixed.boundingRings(fixedConfig(-43, 43, -180, 180)).get(0);
+        List<List<Coordinate>> coordsList = footprintStrategyFixed.merge(s1, null, null, null);
+        
+        Geometry geometry = footprintStrategyFixed.mergeGeoms(coordsList, 100d);
+        assertTrue(geometry.isValid());
+        assertEquals("POLYGON ((-180 -43, 180 -43, 180 43, -180 43, -180 -43))", geometry.toText());
+    }
+    
+    /**
+     * mergeGeoms should fail when there is no ring to build the polygon from.
+     */
+    @Test
+    public void testMergeGeomsNoRing() {
+        List<List<Coordinate>> coordsList = new ArrayList<>();
+        coordsList.add(new ArrayList<>());
+        
+        Assertions.assertThrows(FootprintException.class, () -> footprintStrategyFixed.mergeGeoms(coordsList, 0.5d));
+    }
+    
+    /**
+     * A box crossing the antimeridian should become a MultiPolygon of the parts on either side of it, and a box with
+     * a bound on the antimeridian should only keep the part with an area.
+     */
+    @Test
+    public void testAntimeridian() throws FootprintException {
+        List<List<Coordinate>> rings = FootprintStrategyFixed.boundingRings(fixedConfig(-10, 10, 170, -170));
+        assertEquals(2, rings.size());
+        
+        Geometry geometry = footprintStrategyFixed.mergeGeoms(rings, 0.5d);
+        assertTrue(geometry.isValid());
+        assertEquals("MULTIPOLYGON (((170 -10, 180 -10, 180 10, 170 10, 170 -10)), " +
+                "((-180 -10, -170 -10, -170 10, -180 10, -180 -10)))", geometry.toText());
+        
+        geometry = footprintStrategyFixed.mergeGeoms(
+                FootprintStrategyFixed.boundingRings(fixedConfig(-10, 10, 180, -170)), 0.5d);
+        assertEquals("POLYGON ((-180 -10, -170 -10, -170 10, -180 10, -180 -10))", geometry.toText());
+    }
+    
+    /**
+     * Missing bounds, and bounds which do not enclose an area, should fail rather than give a degenerate polygon.
+     */
+    @Test
+    public void testInvalidBounds() {
+        FootprintConfig missing = new FootprintConfig();
+        missing.setStrategy(FootprintStrategy.Strategy.FIXED);
+        missing.setGeospatialLatMin(-10L);
+        missing.setGeospatialLatMax(10L);
+        missing.setGeospatialLonMin(-20L);
+        Assertions.assertThrows(FootprintException.class, () -> FootprintStrategyFixed.boundingRings(missing));
+        
+        Assertions.assertThrows(FootprintException.class,
+                () -> FootprintStrategyFixed.boundingRings(fixedConfig(10, 10, -20, 20)));
+        Assertions.assertThrows(FootprintException.class,
+                () -> FootprintStrategyFixed.boundingRings(fixedConfig(10, -10, -20, 20)));
+        Assertions.assertThrows(FootprintException.class,
+                () -> FootprintStrategyFixed.boundingRings(fixedConfig(-10, 95, -20, 20)));
+        Assertions.assertThrows(FootprintException.class,
+                () -> FootprintStrategyFixed.boundingRings(fixedConfig(-10, 10, 20, 20)));
+        Assertions.assertThrows(FootprintException.class,
+                () -> FootprintStrategyFixed.boundingRings(fixedConfig(-10, 10, 180, -180)));
+    }
+}
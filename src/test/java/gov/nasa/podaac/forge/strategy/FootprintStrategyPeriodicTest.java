@@ -333,4 +333,25 @@ public class FootprintStrategyPeriodicTest extends TestCase {
     
         Assertions.assertThrows(FootprintException.class, () -> footprintStrategyPeriodic.merge(s1, b, s2, t));
     }
+    
+    /**
+     * A thin ring which collapses at the configured tolerance should be simplified with a smaller tolerance, rather
+     * than dropped.
+     */
+    @Test
+    public void testCollapsingRing() throws FootprintException {
+        List<Coordinate> ring = new ArrayList<>();
+        ring.add(new Coordinate(0d, 0d));
+        ring.add(new Coordinate(5d, 0d));
+        ring.add(new Coordinate(10d, 0d));
+        ring.add(new Coordinate(10d, 0.1d));
+        ring.add(new Coordinate(5d, 0.1d));
+        ring.add(new Coordinate(0d, 0.1d));
+        ring.add(new Coordinate(0d, 0d));
+        
+        Geometry g = footprintStrategyPeriodic.mergeGeoms(Collections.singletonList(ring), 5d);
+        assertFalse(FootprintStrategy.containsEmpty(g));
+        assertTrue(g.isValid());
+        assertEquals(1d, g.getArea(), 0.001d);
+    }
 }
@@ -5,6 +5,9 @@ import junit.framework.TestCase;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Range;
 import ucar.nc2.Variable;
 
 import java.io.IOException;
@@ -14,10 +17,40 @@ import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
 
+import static org.mockito.ArgumentMatchers.anyList;
+
 public class FootprintStrategyPolarSmapTest extends TestCase {
     
     private final FootprintStrategyPolarSmap footprintStrategyPolarSmap = new FootprintStrategyPolarSmap();
     
+    /**
+     * Mock the given variable so that it serves reads of any section of the given data
+     */
+    private void mockVariable(Variable variable, float[][][] data) throws IOException {
+        int[] shape = {data.length, data[0].length, data[0][0].length};
+        float[] values = new float[shape[0] * shape[1] * shape[2]];
+        int i = 0;
+        for (float[][] plane : data) {
+            for (float[] row : plane) {
+                for (float value : row) {
+                    values[i++] = value;
+                }
+            }
+        }
+        Array array = Array.factory(DataType.FLOAT, shape, values);
+        
+        Mockito.doReturn(shape)
+                .when(variable)
+                .getShape();
+        try {
+            Mockito.doAnswer(invocation -> array.sectionNoReduce(invocation.<List<Range>>getArgument(0)).copy())
+                    .when(variable)
+                    .read(anyList());
+        } catch (InvalidRangeException exception) {
+            throw new IOException(exception);
+        }
+    }
+    
     /**
      * Setup mocks for testing and run calculateFootprint with the given params
      */
@@ -38,24 +71,8 @@ public class FootprintStrategyPolarSmapTest extends TestCase {
         lonAttMap.put("offset", offset);
         latAttMap.put("offset", offset);
     
-        Array mockLonArray = Mockito.mock(Array.class);
-        Array mockLatArray = Mockito.mock(Array.class);
-    
-        Mockito.doReturn(lonData)
-                .when(mockLonArray)
-                .copyToNDJavaArray();
-    
-        Mockito.doReturn(latData)
-                .when(mockLatArray)
-                .copyToNDJavaArray();
-    
-        Mockito.doReturn(mockLonArray)
-                .when(lonVariable)
-                .read();
-    
-        Mockito.doReturn(mockLatArray)
-                .when(latVariable)
-                .read();
+        mockVariable(lonVariable, lonData);
+        mockVariable(latVariable, latData);
     
         footprintStrategyPolarSmap.calculateFootprint(lonVariable, latVariable, latAttMap, lonAttMap, side1, side2,
                 top, bottom, is360, findValid, removeOrigin);
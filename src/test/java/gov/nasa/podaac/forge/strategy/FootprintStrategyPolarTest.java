@@ -2,6 +2,7 @@ package gov.nasa.podaac.forge.strategy;
 
 import com.vividsolutions.jts.geom.*;
 import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.geom.CoordinateChain;
 import junit.framework.TestCase;
 import org.junit.jupiter.api.Test;
 
@@ -174,4 +175,33 @@ public class FootprintStrategyPolarTest extends TestCase {
         Geometry geometry = footprintStrategyPolar.mergeGeoms(coordsList, 0.5);
         assertTrue(geometry.isValid());
     }
+    
+    /**
+     * The pieces the polar strategy splits a side into, and the halves it splits a piece into, should find the same
+     * closest points as a scan of a list, with repeated searches going through the index of the piece.
+     */
+    @Test
+    public void testFindClosestIndexed() {
+        List<Coordinate> side = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            side.add(new Coordinate((i * 0.5) % 360 - 180, 60 + 29.0 * i / 2000));
+        }
+        List<List<Coordinate>> sides = footprintStrategyPolar.split(side);
+        assertTrue(sides.size() > 1);
+        
+        for (List<Coordinate> piece : sides) {
+            assertFalse(((CoordinateChain) piece).isIndexed());
+            List<Coordinate> half = footprintStrategyPolar.split(piece, piece.size() / 2).get(1);
+            List<Coordinate> pieceList = new ArrayList<>(piece);
+            List<Coordinate> halfList = new ArrayList<>(half);
+            for (int i = 0; i < piece.size(); i += 10) {
+                Coordinate query = new Coordinate(piece.get(i).x + 0.1, piece.get(i).y - 0.1);
+                assertEquals(footprintStrategyPolar.findClosest(pieceList, query),
+                        footprintStrategyPolar.findClosest(piece, query));
+                assertEquals(footprintStrategyPolar.findClosest(halfList, query),
+                        footprintStrategyPolar.findClosest(half, query));
+            }
+            assertTrue(((CoordinateChain) piece).isIndexed());
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package gov.nasa.podaac.forge.strategy;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import gov.nasa.podaac.forge.FootprintException;
+import gov.nasa.podaac.forge.FootprintTestUtil;
+import junit.framework.TestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class FootprintStrategyRegistryTest extends TestCase {
+
+    /**
+     * Every strategy a dataset config can name should be found on the classpath, and each lookup should return the
+     * same instance.
+     */
+    @Test
+    public void testDefaultRegistry() throws FootprintException {
+        FootprintStrategyRegistry registry = FootprintStrategyRegistry.getDefault();
+        for (FootprintStrategy.Strategy strategy : FootprintStrategy.Strategy.values()) {
+            assertNotNull(registry.get(strategy.getStrategyName()));
+        }
+        assertTrue(registry.get("periodic") instanceof FootprintStrategyPeriodic);
+        assertTrue(registry.get("smap") instanceof FootprintStrategyPolarSmap);
+        assertTrue(registry.get("polarsides") instanceof FootprintStrategyPolarSidesOnly);
+        assertSame(registry.get("linestring"), registry.get("swot_linestring"));
+        assertSame(registry.get("POLAR"), registry.get("polar"));
+
+        Assertions.assertThrows(FootprintException.class, () -> registry.get("unknown"));
+        Assertions.assertThrows(FootprintException.class, () -> registry.get(null));
+    }
+
+    /**
+     * A name claimed by two strategies should go to the first.
+     */
+    @Test
+    public void testDuplicateNames() throws FootprintException {
+        FootprintStrategy first = new FootprintStrategyPeriodic();
+        FootprintStrategy second = new FootprintStrategyPeriodic();
+        FootprintStrategyRegistry registry = new FootprintStrategyRegistry(Arrays.asList(first, second));
+        assertSame(first, registry.get("periodic"));
+        assertEquals(1, registry.getNames().size());
+    }
+
+    /**
+     * A shared instance should give the same footprint each time it is used, as no state is kept between runs.
+     */
+    @Test
+    public void testReuse() throws FootprintException {
+        FootprintStrategy strategy = FootprintStrategyRegistry.getDefault().get("periodic");
+        Geometry first = footprint(strategy);
+        Geometry second = footprint(strategy);
+        assertTrue(first.equalsExact(second));
+    }
+
+    private static Geometry footprint(FootprintStrategy strategy) throws FootprintException {
+        List<Coordinate> s1 = FootprintTestUtil.genList(170d, 10d, 190d, -10d, 1000);
+        List<Coordinate> s2 = FootprintTestUtil.genList(175d, 10d, 195d, -10d, 1000);
+        List<Coordinate> t = new ArrayList<>();
+        List<Coordinate> b = new ArrayList<>();
+        t.add(new Coordinate(170d, 10d));
+        t.add(new Coordinate(175d, 10d));
+        b.add(new Coordinate(-170d, -10d));
+        b.add(new Coordinate(-165d, -10d));
+
+        List<List<Coordinate>> lc = strategy.merge(s1, b, s2, t);
+        assertEquals(2, lc.size());
+        return strategy.mergeGeoms(lc, .5d);
+    }
+}
@@ -23,6 +23,12 @@ resource "aws_lambda_function" "forge_task" {
       FOOTPRINT_OUTPUT_DIR        = var.footprint_output_dir
       CONFIG_URL                  = var.config_url
       LOGGING_LEVEL               = var.log_level
+      GRANULE_IN_MEMORY_MAX_SIZE  = var.granule_in_memory_max_size
+      GRANULE_RANGED_READ         = var.granule_ranged_read
+      DOWNLOAD_CONCURRENCY        = var.download_concurrency
+      CONFIG_CACHE_TTL_SECONDS    = var.config_cache_ttl_seconds
+      GRANULE_CONCURRENCY         = var.granule_concurrency
+      LOG_MESSAGE_MAX_LENGTH      = var.log_message_max_length
     }
   }
 
@@ -33,7 +33,13 @@ module "forge_fargate" {
     "SOCKET_TIMEOUT" : var.socket_timeout,
     "REGION" : var.region,
     "FOOTPRINT_OUTPUT_BUCKET" : var.footprint_output_bucket,
-    "FOOTPRINT_OUTPUT_DIR": var.footprint_output_dir
+    "FOOTPRINT_OUTPUT_DIR": var.footprint_output_dir,
+    "GRANULE_IN_MEMORY_MAX_SIZE": var.granule_in_memory_max_size,
+    "GRANULE_RANGED_READ": var.granule_ranged_read,
+    "DOWNLOAD_CONCURRENCY": var.download_concurrency,
+    "CONFIG_CACHE_TTL_SECONDS": var.config_cache_ttl_seconds,
+    "GRANULE_CONCURRENCY": var.granule_concurrency,
+    "LOG_MESSAGE_MAX_LENGTH": var.log_message_max_length
   }
 
   image = "${aws_ecr_repository.lambda-image-repo.repository_url}:${local.ecr_image_tag}"
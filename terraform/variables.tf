@@ -75,6 +75,42 @@ variable "log_level" {
   default = "Info"
 }
 
+variable "granule_in_memory_max_size" {
+  description = "granules up to this size in bytes are read into memory instead of being downloaded to /tmp, 0 disables"
+  type = number
+  default = 0
+}
+
+variable "granule_ranged_read" {
+  description = "read granules in place from S3 with ranged GETs instead of downloading them"
+  type = bool
+  default = false
+}
+
+variable "download_concurrency" {
+  description = "number of 8 MiB parts of a granule downloaded from S3 at once"
+  type = number
+  default = 8
+}
+
+variable "config_cache_ttl_seconds" {
+  description = "seconds a parsed dataset config is reused in a warm container before it is revalidated, 0 disables"
+  type = number
+  default = 0
+}
+
+variable "granule_concurrency" {
+  description = "number of data files in a message which are footprinted at once"
+  type = number
+  default = 4
+}
+
+variable "log_message_max_length" {
+  description = "most characters of a Cumulus message or footprint which are logged, 0 logs them in full"
+  type = number
+  default = 4096
+}
+
 variable "memory_size" {
   type = number
   default = 512